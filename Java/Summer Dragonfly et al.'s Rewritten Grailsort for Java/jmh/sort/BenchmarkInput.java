@@ -0,0 +1,70 @@
+package sort;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// BENCHMARKINPUT - The inputs shared by every JMH benchmark.
+//
+// Items are generated exactly the way Tester generates them, so the benchmarks
+// measure the same arrays that Tester checks for correctness.
+final class BenchmarkInput {
+    private BenchmarkInput() {}
+
+    // Returns an array of 'start + length' keys, of which only [start, start + length) are filled in.
+    // A 'keyCount' of 0 means (almost) every key is unique.
+    static int[] generateKeys(int start, int length, int keyCount) {
+        int seed = 100000001;
+        int range = keyCount != 0 ? keyCount : 1000000000;
+
+        int[] keys = new int[start + length];
+        for(int i = start; i < start + length; i++) {
+            seed = (seed * 1234565) + 1;
+            keys[i] = (int) (((long) (seed & 0x7fffffff) * range) >> 31);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,132 @@
+package sort;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// INTSORTBENCHMARK - JMH benchmarks of IntGrailSort on primitive ints, against Arrays.sort
+// (Dual-Pivot Quicksort) and Arrays.parallelSort.
+//
+// Parameters mean the same as in ObjectSortBenchmark, except that IntGrailSort has no
+// low-cardinality path: 3 unique keys still force Strategy 3 here. Keep in mind that
+// neither of the Arrays baselines is stable here, unlike Grailsort.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class IntSortBenchmark {
+    @Param({"1000000"})
+    public int length;
+
+    @Param({"3", "1023", "0"})
+    public int keyCount;
+
+    @Param({"0"})
+    public int start;
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        @Param({"inplace", "static", "dynamic"})
+        public String bufferMode;
+    }
+
+    private final IntGrailSort grail = new IntGrailSort();
+
+    private int[] source;
+    private int[] array;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        this.source = BenchmarkInput.generateKeys(this.start, this.length, this.keyCount);
+        this.array  = this.source.clone();
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        System.arraycopy(this.source, this.start, this.array, this.start, this.length);
+    }
+
+    @Benchmark
+    public int[] grailSort(Buffer buffer) {
+        switch(buffer.bufferMode) {
+        case "inplace": this.grail.grailSortInPlace(this.array, this.start, this.length);    break;
+        case "static":  this.grail.grailSortStaticOOP(this.array, this.start, this.length);  break;
+        case "dynamic": this.grail.grailSortDynamicOOP(this.array, this.start, this.length); break;
+        default: throw new IllegalArgumentException("Unknown buffer mode: " + buffer.bufferMode);
+        }
+        return this.array;
+    }
+
+    @Benchmark
+    public int[] arraysSort() {
+        Arrays.sort(this.array, this.start, this.start + this.length);
+        return this.array;
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort() {
+        Arrays.parallelSort(this.array, this.start, this.start + this.length);
+        return this.array;
+    }
+}
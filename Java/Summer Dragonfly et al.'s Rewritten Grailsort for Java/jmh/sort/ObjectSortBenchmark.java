@@ -0,0 +1,144 @@
+package sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/*
+ * MIT License
+ *
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// OBJECTSORTBENCHMARK - JMH benchmarks of Rewritten Grailsort on Integer objects sorted by a Comparator,
+// against Arrays.sort (TimSort) and Arrays.parallelSort.
+//
+// Run them with "gradle jmh", passing any JMH options through -PjmhArgs, e.g.
+//   gradle jmh -PjmhArgs="ObjectSortBenchmark -p length=100000 -p keyCount=3 -prof gc"
+//
+// 'keyCount' picks Grailsort's path: 3 unique keys go to grailLowCardinalitySort (GrailSort
+// has no Strategy 3 any more), 1023 to Strategy 2, and 0 (every key unique) to Strategy 1.
+// 'start' is the offset the sorted range begins at.
+// 'bufferMode' only applies to Grailsort, so the Arrays baselines are measured once per input.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ObjectSortBenchmark {
+    @Param({"1000000"})
+    public int length;
+
+    @Param({"3", "1023", "0"})
+    public int keyCount;
+
+    @Param({"0"})
+    public int start;
+
+    @State(Scope.Thread)
+    public static class Buffer {
+        @Param({"inplace", "static", "dynamic"})
+        public String bufferMode;
+    }
+
+    private final Comparator<Integer> cmp = Integer::compare;
+    private final GrailSort<Integer> grail = new GrailSort<>(this.cmp);
+
+    private Integer[] source;
+    private Integer[] array;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        int[] keys = BenchmarkInput.generateKeys(this.start, this.length, this.keyCount);
+
+        this.source = new Integer[keys.length];
+        for(int i = this.start; i < keys.length; i++) {
+            this.source[i] = keys[i];
+        }
+        this.array = this.source.clone();
+    }
+
+    // Every sort gets the same unsorted input. The copy isn't part of the measured time.
+    @Setup(Level.Invocation)
+    public void reset() {
+        System.arraycopy(this.source, this.start, this.array, this.start, this.length);
+    }
+
+    @Benchmark
+    public Integer[] grailSort(Buffer buffer) {
+        switch(buffer.bufferMode) {
+        case "inplace": this.grail.grailSortInPlace(this.array, this.start, this.length);    break;
+        case "static":  this.grail.grailSortStaticOOP(this.array, this.start, this.length);  break;
+        case "dynamic": this.grail.grailSortDynamicOOP(this.array, this.start, this.length); break;
+        default: throw new IllegalArgumentException("Unknown buffer mode: " + buffer.bufferMode);
+        }
+        return this.array;
+    }
+
+    @Benchmark
+    public Integer[] arraysSort() {
+        Arrays.sort(this.array, this.start, this.start + this.length, this.cmp);
+        return this.array;
+    }
+
+    @Benchmark
+    public Integer[] arraysParallelSort() {
+        Arrays.parallelSort(this.array, this.start, this.start + this.length, this.cmp);
+        return this.array;
+    }
+}
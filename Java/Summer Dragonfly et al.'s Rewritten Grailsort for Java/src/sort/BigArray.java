@@ -0,0 +1,103 @@
+package sort;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// BigArray - A long-indexed array of objects, for when 2^31 - 1 items aren't enough.
+//
+// Items are kept in chunks of 2^GRAIL_BIG_ARRAY_CHUNK_BITS, so finding an item's chunk
+// and its offset within that chunk is a shift and a mask. Only the last chunk may be
+// shorter than the rest. Sort one with a BigArraySortable.
+
+final public class BigArray<K> {
+    final static int  GRAIL_BIG_ARRAY_CHUNK_BITS = 24;
+    final static int  GRAIL_BIG_ARRAY_CHUNK_LEN  = 1 << GRAIL_BIG_ARRAY_CHUNK_BITS;
+    final static long GRAIL_BIG_ARRAY_CHUNK_MASK = GRAIL_BIG_ARRAY_CHUNK_LEN - 1;
+
+    private final Object[][] chunks;
+    private final long length;
+
+    public BigArray(long length) {
+        if(length < 0) {
+            throw new IllegalArgumentException("Negative length: " + length);
+        }
+
+        int chunkCount = (int) ((length + GRAIL_BIG_ARRAY_CHUNK_MASK) >>> GRAIL_BIG_ARRAY_CHUNK_BITS);
+
+        this.chunks = new Object[chunkCount][];
+        for(int chunk = 0; chunk < chunkCount; chunk++) {
+            long chunkStart = (long) chunk << GRAIL_BIG_ARRAY_CHUNK_BITS;
+            this.chunks[chunk] = new Object[(int) Math.min(GRAIL_BIG_ARRAY_CHUNK_LEN, length - chunkStart)];
+        }
+        this.length = length;
+    }
+
+    public long length() {
+        return this.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    public K get(long index) {
+        return (K) this.chunks[(int) (index >>> GRAIL_BIG_ARRAY_CHUNK_BITS)][(int) (index & GRAIL_BIG_ARRAY_CHUNK_MASK)];
+    }
+
+    public void set(long index, K item) {
+        this.chunks[(int) (index >>> GRAIL_BIG_ARRAY_CHUNK_BITS)][(int) (index & GRAIL_BIG_ARRAY_CHUNK_MASK)] = item;
+    }
+
+    public void swap(long a, long b) {
+        Object[]  left = this.chunks[(int) (a >>> GRAIL_BIG_ARRAY_CHUNK_BITS)];
+        Object[] right = this.chunks[(int) (b >>> GRAIL_BIG_ARRAY_CHUNK_BITS)];
+        int  leftPos = (int) (a & GRAIL_BIG_ARRAY_CHUNK_MASK);
+        int rightPos = (int) (b & GRAIL_BIG_ARRAY_CHUNK_MASK);
+
+        Object temp     = left[leftPos];
+        left[leftPos]   = right[rightPos];
+        right[rightPos] = temp;
+    }
+}
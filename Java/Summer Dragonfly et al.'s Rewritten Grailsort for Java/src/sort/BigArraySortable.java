@@ -0,0 +1,83 @@
+package sort;
+
+import java.util.Comparator;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// Sorts a BigArray with IndexedGrailSort. Every index is a long, so arrays of any length
+// are safe from overflow, and like every in-place Grailsort, the only buffers used are the
+// O(sqrt n) keys and items Grailsort collects from the array itself.
+
+final public class BigArraySortable<K> implements GrailSortable {
+    private final BigArray<K> array;
+    private final Comparator<? super K> cmp;
+
+    public BigArraySortable(BigArray<K> array, Comparator<? super K> cmp) {
+        this.array = array;
+        this.cmp   = cmp;
+    }
+
+    public void sort() {
+        new IndexedGrailSort().grailSortInPlace(this, 0, this.array.length());
+    }
+
+    public void sort(long start, long length) {
+        new IndexedGrailSort().grailSortInPlace(this, start, length);
+    }
+
+    @Override
+    public int compare(long a, long b) {
+        return this.cmp.compare(this.array.get(a), this.array.get(b));
+    }
+
+    @Override
+    public void swap(long a, long b) {
+        this.array.swap(a, b);
+    }
+}
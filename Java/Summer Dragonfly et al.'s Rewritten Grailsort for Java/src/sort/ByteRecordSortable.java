@@ -0,0 +1,163 @@
+package sort;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// ByteRecordSortable - Fixed-width records stored in ByteBuffers, sorted by IndexedGrailSort.
+//
+// Each record is 'recordSize' bytes long, and records are ordered by their first 'keySize'
+// bytes compared as unsigned bytes, the same order memcmp() would give. Both sizes have to
+// be multiples of 8 so keys can be compared and records swapped one long at a time; reading
+// those longs big-endian makes an unsigned long comparison agree with a bytewise one.
+//
+// Records either live in a single (heap or direct) ByteBuffer or are memory-mapped straight
+// from a file with map(), in which case the file may hold far more than 2^31 records.
+
+final public class ByteRecordSortable implements GrailSortable {
+    private final ByteBuffer[] windows;
+    private final int windowShift;
+    private final long windowMask;
+
+    private final int recordSize;
+    private final int keySize;
+    private final long length;
+
+    // Sorts the records between 'buffer's position and limit
+    public ByteRecordSortable(ByteBuffer buffer, int recordSize, int keySize) {
+        this(new ByteBuffer[] { buffer.slice() }, 31, recordSize, keySize,
+             buffer.remaining() / checkSizes(recordSize, keySize));
+    }
+
+    private ByteRecordSortable(ByteBuffer[] windows, int windowShift, int recordSize, int keySize, long length) {
+        for(int window = 0; window < windows.length; window++) {
+            windows[window].order(ByteOrder.BIG_ENDIAN);
+        }
+
+        this.windows     = windows;
+        this.windowShift = windowShift;
+        this.windowMask  = (1L << windowShift) - 1;
+        this.recordSize  = recordSize;
+        this.keySize     = keySize;
+        this.length      = length;
+    }
+
+    // Maps 'records' records starting at 'position' of a channel opened for reading and writing.
+    public static ByteRecordSortable map(FileChannel channel, long position, long records,
+                                         int recordSize, int keySize) throws IOException {
+        checkSizes(recordSize, keySize);
+
+        // Every full window holds a power-of-two count of records
+        long windowRecords = Long.highestOneBit(MappedWindows.GRAIL_MAX_WINDOW_BYTES / recordSize);
+        MappedByteBuffer[] windows = MappedWindows.map(channel, position, records * recordSize,
+                                                       windowRecords * recordSize);
+
+        return new ByteRecordSortable(windows, Long.numberOfTrailingZeros(windowRecords),
+                                      recordSize, keySize, records);
+    }
+
+    private static int checkSizes(int recordSize, int keySize) {
+        if(recordSize <= 0 || recordSize % 8 != 0) {
+            throw new IllegalArgumentException("Record size must be a positive multiple of 8: " + recordSize);
+        }
+        if(keySize <= 0 || keySize % 8 != 0 || keySize > recordSize) {
+            throw new IllegalArgumentException("Key size must be a positive multiple of 8 no larger than "
+                                             + "the record size: " + keySize);
+        }
+        return recordSize;
+    }
+
+    public long length() {
+        return this.length;
+    }
+
+    public void sort() {
+        new IndexedGrailSort().grailSortInPlace(this, 0, this.length);
+    }
+
+    // Writes any changes made to mapped records back to the underlying file
+    public void force() {
+        MappedWindows.force(this.windows);
+    }
+
+    @Override
+    public int compare(long a, long b) {
+        ByteBuffer  left = this.windows[(int) (a >>> this.windowShift)];
+        ByteBuffer right = this.windows[(int) (b >>> this.windowShift)];
+        int  leftPos = (int) (a & this.windowMask) * this.recordSize;
+        int rightPos = (int) (b & this.windowMask) * this.recordSize;
+
+        for(int word = 0; word < this.keySize; word += 8) {
+            int compare = Long.compareUnsigned( left.getLong( leftPos + word),
+                                               right.getLong(rightPos + word));
+            if(compare != 0) {
+                return compare;
+            }
+        }
+        return 0;
+    }
+
+    @Override
+    public void swap(long a, long b) {
+        ByteBuffer  left = this.windows[(int) (a >>> this.windowShift)];
+        ByteBuffer right = this.windows[(int) (b >>> this.windowShift)];
+        int  leftPos = (int) (a & this.windowMask) * this.recordSize;
+        int rightPos = (int) (b & this.windowMask) * this.recordSize;
+
+        for(int word = 0; word < this.recordSize; word += 8) {
+            long temp = left.getLong(leftPos + word);
+            left.putLong(leftPos + word, right.getLong(rightPos + word));
+            right.putLong(rightPos + word, temp);
+        }
+    }
+}
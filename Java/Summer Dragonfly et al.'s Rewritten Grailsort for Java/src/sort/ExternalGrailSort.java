@@ -0,0 +1,378 @@
+package sort;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// ExternalGrailSort - Sorts files of longs that are too large to fit in memory.
+//
+// Files are flat sequences of big-endian, signed 64-bit longs. The input is read one
+// chunk at a time, each chunk holding as many longs as the memory budget allows. Chunks
+// are sorted in place by LongGrailSort -- so sorting a chunk needs no more memory than
+// the chunk itself, unlike a merge sort's O(n) buffer -- and spilled to temporary "run"
+// files in the very same format as the input. The runs are then merged k ways at a time
+// with a loser tree, in as many passes as the budget's number of I/O buffers calls for.
+//
+// All file access goes through FileChannels with fixed-size buffers, so the heap
+// footprint is the chunk, plus one buffer per run being merged, no matter the input size.
+//
+// ** Written and maintained by The Holy Grail Sort Project
+
+final public class ExternalGrailSort {
+    final static int GRAIL_IO_BUFFER_LEN = 1 << 16;
+    final static int GRAIL_MIN_MERGE_FAN_IN = 2;
+
+    private final long memoryBudget;
+    private final Path tempDir;
+
+    // 'memoryBudget' is the number of bytes a chunk, or a merge's I/O buffers, may use.
+    // Runs are spilled into 'tempDir', or the default temporary-file directory if it's null.
+    public ExternalGrailSort(long memoryBudget, Path tempDir) {
+        if(memoryBudget < (GRAIL_MIN_MERGE_FAN_IN + 1) * GRAIL_IO_BUFFER_LEN) {
+            throw new IllegalArgumentException("Memory budget must be at least "
+                                             + ((GRAIL_MIN_MERGE_FAN_IN + 1) * GRAIL_IO_BUFFER_LEN) + " bytes");
+        }
+
+        this.memoryBudget = memoryBudget;
+        this.tempDir      = tempDir;
+    }
+
+    public void sort(Path input, Path output) throws IOException {
+        ArrayDeque<Path> runs = new ArrayDeque<>();
+
+        try {
+            boolean spilled;
+            try(FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+                if(in.size() % Long.BYTES != 0) {
+                    throw new IOException("Input size is not a multiple of " + Long.BYTES + " bytes: " + input);
+                }
+                spilled = this.sortRuns(in, output, runs);
+            }
+
+            if(spilled) {
+                this.mergeRuns(runs, output);
+            }
+        }
+        finally {
+            for(Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    // SORT PHASE: Returns false if the whole input fit in a single chunk, in which
+    // case it was written directly to 'output' and no runs were created.
+    private boolean sortRuns(FileChannel in, Path output, ArrayDeque<Path> runs) throws IOException {
+        long chunkLen = Math.min(this.memoryBudget / Long.BYTES, in.size() / Long.BYTES);
+        long[] chunk = new long[(int) Math.min(chunkLen, Integer.MAX_VALUE - 8)];
+
+        LongGrailSort sorter = new LongGrailSort();
+        ByteBuffer buffer = ByteBuffer.allocate(GRAIL_IO_BUFFER_LEN);
+
+        boolean spilled = false;
+        while(true) {
+            int length = readChunk(in, buffer, chunk);
+            if(length == 0 && spilled) {
+                return true;
+            }
+
+            sorter.grailSortInPlace(chunk, 0, length);
+
+            if(!spilled && in.position() == in.size()) {
+                writeChunk(output, buffer, chunk, length);
+                return false;
+            }
+
+            Path run = this.createRun();
+            runs.add(run);
+            writeChunk(run, buffer, chunk, length);
+            spilled = true;
+        }
+    }
+
+    private static int readChunk(FileChannel in, ByteBuffer buffer, long[] chunk) throws IOException {
+        int length = 0;
+
+        buffer.clear();
+        while(length < chunk.length) {
+            // never read past the end of this chunk, including the part of a long already buffered
+            long needed = ((long) (chunk.length - length) * Long.BYTES) - buffer.position();
+            int   bytes = (int) Math.min(buffer.remaining(), needed);
+            buffer.limit(buffer.position() + bytes);
+
+            if(in.read(buffer) == -1 && buffer.position() < Long.BYTES) {
+                break;
+            }
+
+            buffer.flip();
+            int longs = buffer.remaining() / Long.BYTES;
+            buffer.asLongBuffer().get(chunk, length, longs);
+            buffer.position(longs * Long.BYTES);
+            // keep any partially read long for the next round
+            buffer.compact();
+            length += longs;
+        }
+        return length;
+    }
+
+    private static void writeChunk(Path path, ByteBuffer buffer, long[] chunk, int length) throws IOException {
+        try(RunWriter writer = new RunWriter(path, buffer)) {
+            for(int index = 0; index < length; index++) {
+                writer.write(chunk[index]);
+            }
+        }
+    }
+
+    private Path createRun() throws IOException {
+        if(this.tempDir != null) {
+            return Files.createTempFile(this.tempDir, "grail", ".run");
+        }
+        else {
+            return Files.createTempFile("grail", ".run");
+        }
+    }
+
+    // MERGE PHASE: While there are more runs than there are I/O buffers to read them
+    // with, the oldest runs are merged into a new, longer run at the back of the queue.
+    private void mergeRuns(ArrayDeque<Path> runs, Path output) throws IOException {
+        // One I/O buffer per input run, plus one for the output
+        int fanIn = (int) Math.min((this.memoryBudget / GRAIL_IO_BUFFER_LEN) - 1, Integer.MAX_VALUE);
+
+        ByteBuffer outBuffer = ByteBuffer.allocate(GRAIL_IO_BUFFER_LEN);
+        while(runs.size() > fanIn) {
+            List<Path> merging = new ArrayList<>();
+            while(merging.size() < fanIn) {
+                merging.add(runs.poll());
+            }
+
+            try {
+                Path merged = this.createRun();
+                runs.add(merged);
+                mergeRuns(merging, merged, outBuffer);
+            }
+            finally {
+                for(Path run : merging) {
+                    Files.deleteIfExists(run);
+                }
+            }
+        }
+
+        mergeRuns(new ArrayList<>(runs), output, outBuffer);
+    }
+
+    private static void mergeRuns(List<Path> runs, Path output, ByteBuffer outBuffer) throws IOException {
+        RunReader[] readers = new RunReader[runs.size()];
+
+        try(RunWriter writer = new RunWriter(output, outBuffer)) {
+            for(int run = 0; run < readers.length; run++) {
+                readers[run] = new RunReader(runs.get(run));
+            }
+
+            LoserTree tree = new LoserTree(readers);
+            for(RunReader winner = tree.winner(); !winner.exhausted; winner = tree.next()) {
+                writer.write(winner.current);
+            }
+        }
+        finally {
+            for(RunReader reader : readers) {
+                if(reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+
+    // A tournament tree over k runs. Each internal node remembers the loser of the match
+    // played there, and the overall winner is kept at node 0. Replacing the winner with the
+    // next item from its run only replays the matches on that run's path up to the root:
+    // log2(k) comparisons per item, compared to the ~2 * log2(k) a binary heap needs.
+    private static final class LoserTree {
+        private final RunReader[] runs;
+        private final int[] tree;
+
+        LoserTree(RunReader[] runs) {
+            this.runs = runs;
+            this.tree = new int[runs.length];
+            this.tree[0] = this.build(1);
+        }
+
+        // Leaves are implicitly numbered from k to 2k - 1, so every
+        // internal node from 1 to k - 1 has exactly two children.
+        private int build(int node) {
+            if(node >= this.runs.length) {
+                return node - this.runs.length;
+            }
+
+            int  left = this.build(2 * node);
+            int right = this.build(2 * node + 1);
+
+            if(this.beats(left, right)) {
+                this.tree[node] = right;
+                return left;
+            }
+            else {
+                this.tree[node] = left;
+                return right;
+            }
+        }
+
+        // Exhausted runs lose every match; ties go to the earlier run.
+        private boolean beats(int a, int b) {
+            RunReader left  = this.runs[a];
+            RunReader right = this.runs[b];
+
+            if(left.exhausted || right.exhausted) {
+                return !left.exhausted;
+            }
+
+            int compare = Long.compare(left.current, right.current);
+            return compare < 0 || (compare == 0 && a < b);
+        }
+
+        RunReader winner() {
+            return this.runs[this.tree[0]];
+        }
+
+        RunReader next() throws IOException {
+            int winner = this.tree[0];
+            this.runs[winner].advance();
+
+            for(int node = (winner + this.runs.length) / 2; node > 0; node /= 2) {
+                if(this.beats(this.tree[node], winner)) {
+                    int loser       = winner;
+                    winner          = this.tree[node];
+                    this.tree[node] = loser;
+                }
+            }
+
+            this.tree[0] = winner;
+            return this.runs[winner];
+        }
+    }
+
+    private static final class RunReader implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        long current;
+        boolean exhausted;
+
+        RunReader(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.buffer  = ByteBuffer.allocate(GRAIL_IO_BUFFER_LEN);
+            this.buffer.flip();
+            this.advance();
+        }
+
+        void advance() throws IOException {
+            if(this.buffer.remaining() < Long.BYTES) {
+                this.buffer.compact();
+                while(this.buffer.position() < Long.BYTES && this.channel.read(this.buffer) != -1);
+                this.buffer.flip();
+
+                if(this.buffer.remaining() < Long.BYTES) {
+                    this.exhausted = true;
+                    return;
+                }
+            }
+            this.current = this.buffer.getLong();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+    }
+
+    private static final class RunWriter implements AutoCloseable {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+
+        RunWriter(Path path, ByteBuffer buffer) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                                                  StandardOpenOption.TRUNCATE_EXISTING);
+            this.buffer  = buffer;
+            this.buffer.clear();
+        }
+
+        void write(long item) throws IOException {
+            if(this.buffer.remaining() < Long.BYTES) {
+                this.flush();
+            }
+            this.buffer.putLong(item);
+        }
+
+        private void flush() throws IOException {
+            this.buffer.flip();
+            while(this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                this.flush();
+            }
+            finally {
+                this.channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package sort;
+
+import java.util.Comparator;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// ARGSORT: Instead of moving the items themselves, sorts an int[] of their indices -- an "order" --
+// so that items[order[0]], items[order[1]], ... are in sorted order. The items are only ever read,
+// so they can stay immutable and be shared between threads while they're being argsorted.
+//
+// Every argsort is stable with respect to the order it starts from. Starting from 0, 1, 2, ...
+// (what the single-argument methods do), ties keep their original index order. Passing the result
+// of a previous argsort back in sorts by several columns at once: sort by the least important
+// column first and by the most important one last.
+//
+// The order is sorted in-place by IndexedGrailSort. Each kind of key gets its own comparison,
+// so int, long, and double keys are compared directly, without boxing.
+
+final public class GrailArgsort {
+    private GrailArgsort() {
+    }
+
+    public static <K> int[] argsort(K[] items, Comparator<? super K> cmp) {
+        return argsort(items, cmp, grailIdentity(items.length));
+    }
+
+    // Stably sorts 'order' by the items it points to, and returns it.
+    public static <K> int[] argsort(K[] items, Comparator<? super K> cmp, int[] order) {
+        new IndexedGrailSort().grailSortInPlace(new ObjectOrder<>(order, items, cmp), 0, order.length);
+        return order;
+    }
+
+    public static int[] argsort(int[] keys) {
+        return argsort(keys, grailIdentity(keys.length));
+    }
+
+    public static int[] argsort(int[] keys, int[] order) {
+        new IndexedGrailSort().grailSortInPlace(new IntOrder(order, keys), 0, order.length);
+        return order;
+    }
+
+    public static int[] argsort(long[] keys) {
+        return argsort(keys, grailIdentity(keys.length));
+    }
+
+    public static int[] argsort(long[] keys, int[] order) {
+        new IndexedGrailSort().grailSortInPlace(new LongOrder(order, keys), 0, order.length);
+        return order;
+    }
+
+    // Doubles are ordered by Double.compare, like DoubleGrailSort orders them.
+    public static int[] argsort(double[] keys) {
+        return argsort(keys, grailIdentity(keys.length));
+    }
+
+    public static int[] argsort(double[] keys, int[] order) {
+        new IndexedGrailSort().grailSortInPlace(new DoubleOrder(order, keys), 0, order.length);
+        return order;
+    }
+
+    private static int[] grailIdentity(int length) {
+        int[] order = new int[length];
+        for(int i = 0; i < length; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    // Swapping two positions in an order is the same for every kind of key.
+    private static abstract class Order implements GrailSortable {
+        final int[] order;
+
+        Order(int[] order) {
+            this.order = order;
+        }
+
+        @Override
+        public void swap(long a, long b) {
+            int temp            = this.order[(int) a];
+            this.order[(int) a] = this.order[(int) b];
+            this.order[(int) b] = temp;
+        }
+    }
+
+    private static final class ObjectOrder<K> extends Order {
+        private final K[] items;
+        private final Comparator<? super K> cmp;
+
+        ObjectOrder(int[] order, K[] items, Comparator<? super K> cmp) {
+            super(order);
+            this.items = items;
+            this.cmp   = cmp;
+        }
+
+        @Override
+        public int compare(long a, long b) {
+            return this.cmp.compare(this.items[this.order[(int) a]], this.items[this.order[(int) b]]);
+        }
+    }
+
+    private static final class IntOrder extends Order {
+        private final int[] keys;
+
+        IntOrder(int[] order, int[] keys) {
+            super(order);
+            this.keys = keys;
+        }
+
+        @Override
+        public int compare(long a, long b) {
+            return Integer.compare(this.keys[this.order[(int) a]], this.keys[this.order[(int) b]]);
+        }
+    }
+
+    private static final class LongOrder extends Order {
+        private final long[] keys;
+
+        LongOrder(int[] order, long[] keys) {
+            super(order);
+            this.keys = keys;
+        }
+
+        @Override
+        public int compare(long a, long b) {
+            return Long.compare(this.keys[this.order[(int) a]], this.keys[this.order[(int) b]]);
+        }
+    }
+
+    private static final class DoubleOrder extends Order {
+        private final double[] keys;
+
+        DoubleOrder(int[] order, double[] keys) {
+            super(order);
+            this.keys = keys;
+        }
+
+        @Override
+        public int compare(long a, long b) {
+            return Double.compare(this.keys[this.order[(int) a]], this.keys[this.order[(int) b]]);
+        }
+    }
+}
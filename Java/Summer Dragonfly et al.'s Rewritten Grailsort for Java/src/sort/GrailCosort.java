@@ -0,0 +1,307 @@
+package sort;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+
+// CO-SORT: Sorts a column of keys, and moves any number of other columns along with it, so that row
+// 'i' of every column still belongs together afterwards. Columnar data can be sorted like this
+// without wrapping each row in an object first, sorting those, and unwrapping them again.
+//
+// Only the keys are compared. Every swap IndexedGrailSort makes -- including the ones its rotations
+// and merges are made of -- swaps the same two rows of the keys and of every other column, so the
+// sort is just as stable and in-place as sorting the keys alone: nothing is allocated per row, and no
+// column is ever copied. Rows with equal keys keep their original order.
+//
+// The other columns can be arrays of any primitive type or of objects, and each has to be at least
+// as long as the keys; anything past that is left where it is. Keys are compared like GrailArgsort
+// compares them: int and long keys directly, doubles by Double.compare, and objects by a Comparator.
+// Columns that break these rules are rejected with an IllegalArgumentException, which numbers the
+// other columns from 1; column 0 is the keys.
+//
+// One or two columns are passed as they are; any other number of them goes into an Object[] for
+// cosortColumns. There's deliberately no varargs form: a single Object[] column, or an int[][] of
+// rows, would be taken for the array of columns itself, and have its items moved around instead.
+
+final public class GrailCosort {
+    private GrailCosort() {
+    }
+
+    public static <K> void cosort(K[] keys, Comparator<? super K> cmp, Object column) {
+        cosortColumns(keys, cmp, new Object[] { column });
+    }
+
+    public static <K> void cosort(K[] keys, Comparator<? super K> cmp, Object column1, Object column2) {
+        cosortColumns(keys, cmp, new Object[] { column1, column2 });
+    }
+
+    public static <K> void cosortColumns(K[] keys, Comparator<? super K> cmp, Object[] columns) {
+        new IndexedGrailSort().grailSortInPlace(new ObjectColumns<>(keys, cmp, columns), 0, keys.length);
+    }
+
+    public static void cosort(int[] keys, Object column) {
+        cosortColumns(keys, new Object[] { column });
+    }
+
+    public static void cosort(int[] keys, Object column1, Object column2) {
+        cosortColumns(keys, new Object[] { column1, column2 });
+    }
+
+    public static void cosortColumns(int[] keys, Object[] columns) {
+        new IndexedGrailSort().grailSortInPlace(new IntColumns(keys, columns), 0, keys.length);
+    }
+
+    public static void cosort(long[] keys, Object column) {
+        cosortColumns(keys, new Object[] { column });
+    }
+
+    public static void cosort(long[] keys, Object column1, Object column2) {
+        cosortColumns(keys, new Object[] { column1, column2 });
+    }
+
+    public static void cosortColumns(long[] keys, Object[] columns) {
+        new IndexedGrailSort().grailSortInPlace(new LongColumns(keys, columns), 0, keys.length);
+    }
+
+    // Doubles are ordered by Double.compare, like DoubleGrailSort orders them.
+    public static void cosort(double[] keys, Object column) {
+        cosortColumns(keys, new Object[] { column });
+    }
+
+    public static void cosort(double[] keys, Object column1, Object column2) {
+        cosortColumns(keys, new Object[] { column1, column2 });
+    }
+
+    public static void cosortColumns(double[] keys, Object[] columns) {
+        new IndexedGrailSort().grailSortInPlace(new DoubleColumns(keys, columns), 0, keys.length);
+    }
+
+    // Swapping two rows is the same for every kind of key. The keys are swapped along with the
+    // other columns of their type, which are grouped by type up front, so that swapping a row
+    // takes one tight loop per type instead of a type check per column. GrailPrefixSort builds
+    // on this, too.
+    static abstract class Columns implements GrailSortable {
+        private final int[][]     ints;
+        private final long[][]    longs;
+        private final double[][]  doubles;
+        private final float[][]   floats;
+        private final short[][]   shorts;
+        private final char[][]    chars;
+        private final byte[][]    bytes;
+        private final boolean[][] booleans;
+        private final Object[][]  objects;
+
+        Columns(Object keys, int length, Object[] columns) {
+            Object[] all = new Object[columns.length + 1];
+            all[0] = keys;
+            System.arraycopy(columns, 0, all, 1, columns.length);
+
+            for(int column = 0; column < all.length; column++) {
+                Object array = all[column];
+                if(array == null) {
+                    throw new IllegalArgumentException("column " + column + " is null");
+                }
+                if(!array.getClass().isArray()) {
+                    throw new IllegalArgumentException("column " + column + " isn't an array");
+                }
+                if(Array.getLength(array) < length) {
+                    throw new IllegalArgumentException("column " + column + " is shorter than the keys");
+                }
+                // The same array twice would have every swap undone right away
+                for(int other = 0; other < column; other++) {
+                    if(all[other] == array) {
+                        throw new IllegalArgumentException("column " + column + " is the same array as column " + other);
+                    }
+                }
+            }
+
+            this.ints     = grailColumnsOf(all, int[].class,     new int[0][]);
+            this.longs    = grailColumnsOf(all, long[].class,    new long[0][]);
+            this.doubles  = grailColumnsOf(all, double[].class,  new double[0][]);
+            this.floats   = grailColumnsOf(all, float[].class,   new float[0][]);
+            this.shorts   = grailColumnsOf(all, short[].class,   new short[0][]);
+            this.chars    = grailColumnsOf(all, char[].class,    new char[0][]);
+            this.bytes    = grailColumnsOf(all, byte[].class,    new byte[0][]);
+            this.booleans = grailColumnsOf(all, boolean[].class, new boolean[0][]);
+            this.objects  = grailColumnsOf(all, Object[].class,  new Object[0][]);
+        }
+
+        // Every column of type 'type', or in the case of Object[], of any object array type
+        private static <T> T[] grailColumnsOf(Object[] columns, Class<T> type, T[] none) {
+            int count = 0;
+            for(Object column : columns) {
+                if(type.isInstance(column)) {
+                    count++;
+                }
+            }
+
+            T[] ofType = Arrays.copyOf(none, count);
+            count = 0;
+            for(Object column : columns) {
+                if(type.isInstance(column)) {
+                    ofType[count++] = type.cast(column);
+                }
+            }
+            return ofType;
+        }
+
+        @Override
+        public void swap(long a, long b) {
+            int i = (int) a;
+            int j = (int) b;
+
+            for(int[] column : this.ints) {
+                int temp  = column[i];
+                column[i] = column[j];
+                column[j] = temp;
+            }
+            for(long[] column : this.longs) {
+                long temp = column[i];
+                column[i] = column[j];
+                column[j] = temp;
+            }
+            for(double[] column : this.doubles) {
+                double temp = column[i];
+                column[i]   = column[j];
+                column[j]   = temp;
+            }
+            for(float[] column : this.floats) {
+                float temp = column[i];
+                column[i]  = column[j];
+                column[j]  = temp;
+            }
+            for(short[] column : this.shorts) {
+                short temp = column[i];
+                column[i]  = column[j];
+                column[j]  = temp;
+            }
+            for(char[] column : this.chars) {
+                char temp = column[i];
+                column[i] = column[j];
+                column[j] = temp;
+            }
+            for(byte[] column : this.bytes) {
+                byte temp = column[i];
+                column[i] = column[j];
+                column[j] = temp;
+            }
+            for(boolean[] column : this.booleans) {
+                boolean temp = column[i];
+                column[i]    = column[j];
+                column[j]    = temp;
+            }
+            for(Object[] column : this.objects) {
+                Object temp = column[i];
+                column[i]   = column[j];
+                column[j]   = temp;
+            }
+        }
+    }
+
+    private static final class ObjectColumns<K> extends Columns {
+        private final K[] keys;
+        private final Comparator<? super K> cmp;
+
+        ObjectColumns(K[] keys, Comparator<? super K> cmp, Object[] columns) {
+            super(keys, keys.length, columns);
+            this.keys = keys;
+            this.cmp  = cmp;
+        }
+
+        @Override
+        public int compare(long a, long b) {
+            return this.cmp.compare(this.keys[(int) a], this.keys[(int) b]);
+        }
+    }
+
+    private static final class IntColumns extends Columns {
+        private final int[] keys;
+
+        IntColumns(int[] keys, Object[] columns) {
+            super(keys, keys.length, columns);
+            this.keys = keys;
+        }
+
+        @Override
+        public int compare(long a, long b) {
+            return Integer.compare(this.keys[(int) a], this.keys[(int) b]);
+        }
+    }
+
+    private static final class LongColumns extends Columns {
+        private final long[] keys;
+
+        LongColumns(long[] keys, Object[] columns) {
+            super(keys, keys.length, columns);
+            this.keys = keys;
+        }
+
+        @Override
+        public int compare(long a, long b) {
+            return Long.compare(this.keys[(int) a], this.keys[(int) b]);
+        }
+    }
+
+    private static final class DoubleColumns extends Columns {
+        private final double[] keys;
+
+        DoubleColumns(double[] keys, Object[] columns) {
+            super(keys, keys.length, columns);
+            this.keys = keys;
+        }
+
+        @Override
+        public int compare(long a, long b) {
+            return Double.compare(this.keys[(int) a], this.keys[(int) b]);
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package sort;
+
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+
+// GRAIL METRICS - Optional instrumentation for GrailSort.
+//
+// Counts the work a sort performs so that it can be compared against figures like
+// Astrelin's "1.61 * N * log2 N comparisons and 2.12 * N * log2 N exchanges":
+//
+//   comparisons     - calls to the sort's Comparator
+//   swaps           - calls to grailSwap (each one writes two items)
+//   block swaps     - calls to grailBlockSwap (their swaps are also counted as swaps)
+//   rotations       - calls to grailRotate (the swaps and block swaps GrailRotation makes are also
+//                     counted as swaps and block swaps, and its other moves as writes)
+//   writes          - every item written to the array or the external buffer, including those
+//                     written by swaps and by System.arraycopy
+//   arraycopy items - items moved by System.arraycopy alone
+//
+// Time is additionally measured for every phase of grailCommonSort: key collection, building
+// blocks, each level of combining blocks, the final lazy merge, and the low-cardinality sort that
+// replaced Strategy 3. How many sorts took each GrailPlan.Path is counted, too.
+//
+// Sorters that aren't given a GrailMetrics use GrailMetrics.NONE, whose methods are all empty.
+// Once the JIT sees that NONE is the only instance reaching a call site, every hook is inlined
+// to nothing, and comparisons aren't even wrapped in the first place, so production sorts pay
+// nothing for this class existing.
+//
+// Counters are LongAdders, so one instance can safely be shared by parallel sorts.
+public class GrailMetrics {
+    public static final GrailMetrics NONE = new Disabled();
+
+    // grailCommonSort never needs anywhere near this many levels of combining blocks
+    private static final int MAX_COMBINE_LEVELS = 32;
+
+    private final LongAdder comparisons    = new LongAdder();
+    private final LongAdder swaps          = new LongAdder();
+    private final LongAdder blockSwaps     = new LongAdder();
+    private final LongAdder rotations      = new LongAdder();
+    private final LongAdder writes         = new LongAdder();
+    private final LongAdder arraycopyItems = new LongAdder();
+
+    private final LongAdder keyCollectionNanos  = new LongAdder();
+    private final LongAdder buildBlocksNanos    = new LongAdder();
+    private final LongAdder lazyMergeNanos      = new LongAdder();
+    private final LongAdder lowCardinalityNanos = new LongAdder();
+    private final LongAdder[] combineBlocksNanos = new LongAdder[MAX_COMBINE_LEVELS];
+
+    private final LongAdder[] plans = new LongAdder[GrailPlan.Path.values().length];
+
+    public GrailMetrics() {
+        for(int level = 0; level < MAX_COMBINE_LEVELS; level++) {
+            this.combineBlocksNanos[level] = new LongAdder();
+        }
+        for(int path = 0; path < this.plans.length; path++) {
+            this.plans[path] = new LongAdder();
+        }
+    }
+
+    // Returns 'cmp' wrapped so that every comparison is counted.
+    <K> Comparator<K> countComparisons(Comparator<K> cmp) {
+        LongAdder comparisons = this.comparisons;
+        return (left, right) -> {
+            comparisons.increment();
+            return cmp.compare(left, right);
+        };
+    }
+
+    void swap() {
+        this.swaps.increment();
+        this.writes.add(2);
+    }
+
+    // Swaps made in bulk, without a call to swap() each
+    void swaps(int count) {
+        this.swaps.add(count);
+        this.writes.add(2L * count);
+    }
+
+    void blockSwap() {
+        this.blockSwaps.increment();
+    }
+
+    void rotation() {
+        this.rotations.increment();
+    }
+
+    void writes(int count) {
+        this.writes.add(count);
+    }
+
+    void arraycopy(int count) {
+        this.arraycopyItems.add(count);
+        this.writes.add(count);
+    }
+
+    long startPhase() {
+        return System.nanoTime();
+    }
+
+    void keyCollection(long phaseStart) {
+        this.keyCollectionNanos.add(System.nanoTime() - phaseStart);
+    }
+
+    void buildBlocks(long phaseStart) {
+        this.buildBlocksNanos.add(System.nanoTime() - phaseStart);
+    }
+
+    void combineBlocks(int level, long phaseStart) {
+        this.combineBlocksNanos[level].add(System.nanoTime() - phaseStart);
+    }
+
+    void lazyMerge(long phaseStart) {
+        this.lazyMergeNanos.add(System.nanoTime() - phaseStart);
+    }
+
+    void lowCardinalitySort(long phaseStart) {
+        this.lowCardinalityNanos.add(System.nanoTime() - phaseStart);
+    }
+
+    void plan(GrailPlan.Path path) {
+        this.plans[path.ordinal()].increment();
+    }
+
+    public long getComparisons() {
+        return this.comparisons.sum();
+    }
+
+    public long getSwaps() {
+        return this.swaps.sum();
+    }
+
+    public long getBlockSwaps() {
+        return this.blockSwaps.sum();
+    }
+
+    public long getRotations() {
+        return this.rotations.sum();
+    }
+
+    public long getWrites() {
+        return this.writes.sum();
+    }
+
+    public long getArraycopyItems() {
+        return this.arraycopyItems.sum();
+    }
+
+    public long getKeyCollectionNanos() {
+        return this.keyCollectionNanos.sum();
+    }
+
+    public long getBuildBlocksNanos() {
+        return this.buildBlocksNanos.sum();
+    }
+
+    // Level 0 merges subarrays of length '2 * blockLen' (or '2 * keyLen' under Strategy 2),
+    // and every level after it merges subarrays twice as long.
+    public long getCombineBlocksNanos(int level) {
+        return this.combineBlocksNanos[level].sum();
+    }
+
+    public long getLazyMergeNanos() {
+        return this.lazyMergeNanos.sum();
+    }
+
+    public long getLowCardinalityNanos() {
+        return this.lowCardinalityNanos.sum();
+    }
+
+    // How many sorts took 'path'
+    public long getPlans(GrailPlan.Path path) {
+        return this.plans[path.ordinal()].sum();
+    }
+
+    public void reset() {
+        this.comparisons.reset();
+        this.swaps.reset();
+        this.blockSwaps.reset();
+        this.rotations.reset();
+        this.writes.reset();
+        this.arraycopyItems.reset();
+
+        this.keyCollectionNanos.reset();
+        this.buildBlocksNanos.reset();
+        this.lazyMergeNanos.reset();
+        this.lowCardinalityNanos.reset();
+        for(LongAdder level : this.combineBlocksNanos) {
+            level.reset();
+        }
+        for(LongAdder path : this.plans) {
+            path.reset();
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.3fms", nanos * 1e-6d);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder metrics = new StringBuilder();
+
+        metrics.append("comparisons: ").append(this.getComparisons())
+               .append(", swaps: ").append(this.getSwaps())
+               .append(", block swaps: ").append(this.getBlockSwaps())
+               .append(", rotations: ").append(this.getRotations())
+               .append(", writes: ").append(this.getWrites())
+               .append(", arraycopy items: ").append(this.getArraycopyItems())
+               .append("\nkey collection: ").append(millis(this.getKeyCollectionNanos()))
+               .append(", build blocks: ").append(millis(this.getBuildBlocksNanos()));
+
+        for(int level = 0; level < MAX_COMBINE_LEVELS; level++) {
+            long nanos = this.getCombineBlocksNanos(level);
+            if(nanos != 0) {
+                metrics.append(", combine blocks level ").append(level).append(": ").append(millis(nanos));
+            }
+        }
+
+        metrics.append(", lazy merge: ").append(millis(this.getLazyMergeNanos()))
+               .append(", low cardinality sort: ").append(millis(this.getLowCardinalityNanos()))
+               .append("\nplans:");
+
+        for(GrailPlan.Path path : GrailPlan.Path.values()) {
+            metrics.append(' ').append(path).append(": ").append(this.getPlans(path));
+        }
+
+        return metrics.toString();
+    }
+
+    private static final class Disabled extends GrailMetrics {
+        @Override
+        <K> Comparator<K> countComparisons(Comparator<K> cmp) {
+            return cmp;
+        }
+
+        @Override
+        void swap() {
+        }
+
+        @Override
+        void swaps(int count) {
+        }
+
+        @Override
+        void blockSwap() {
+        }
+
+        @Override
+        void rotation() {
+        }
+
+        @Override
+        void writes(int count) {
+        }
+
+        @Override
+        void arraycopy(int count) {
+        }
+
+        @Override
+        long startPhase() {
+            return 0;
+        }
+
+        @Override
+        void keyCollection(long phaseStart) {
+        }
+
+        @Override
+        void buildBlocks(long phaseStart) {
+        }
+
+        @Override
+        void combineBlocks(int level, long phaseStart) {
+        }
+
+        @Override
+        void lazyMerge(long phaseStart) {
+        }
+
+        @Override
+        void lowCardinalitySort(long phaseStart) {
+        }
+
+        @Override
+        void plan(GrailPlan.Path path) {
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package sort;
+
+import java.util.Arrays;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// Comparator tables for the primitive sorts' small-array kernel. Each table lists
+// the pairs of positions a sorting network compares (and swaps, if out of order)
+// for one input length, generated from Batcher's odd-even merge sort.
+//
+// A network makes the same comparisons no matter what the data looks like, so
+// each compare-and-swap can be done with min/max instead of a branch the CPU has
+// to predict. For primitives, equal items can't be told apart, so the fact that
+// networks aren't stable in general doesn't matter.
+
+final class GrailNetworks {
+    // Longer inputs use binary insertion instead; Batcher's networks grow as n * log2(n)^2
+    final static int GRAIL_MAX_NETWORK_LEN = 32;
+
+    private static final int[][] NETWORKS = new int[GRAIL_MAX_NETWORK_LEN + 1][];
+
+    static {
+        for(int length = 0; length <= GRAIL_MAX_NETWORK_LEN; length++) {
+            NETWORKS[length] = grailBuildNetwork(length);
+        }
+    }
+
+    private GrailNetworks() {
+    }
+
+    // Returns the network for 'length' items as a flat array: { left0, right0, left1, right1, ... },
+    // where every 'left' is less than its 'right'. Don't modify it; it's shared.
+    static int[] network(int length) {
+        return NETWORKS[length];
+    }
+
+    // Batcher's odd-even merge sort for any length, as if the input were padded
+    // out to a power of two with items greater than everything else. Comparators
+    // touching that padding would never swap anything, so they're left out.
+    private static int[] grailBuildNetwork(int length) {
+        int[] pairs = new int[0];
+        int count = 0;
+
+        for(int p = 1; p < length; p *= 2) {
+            for(int k = p; k >= 1; k /= 2) {
+                for(int j = k % p; j + k < length; j += 2 * k) {
+                    for(int i = 0; i < Math.min(k, length - j - k); i++) {
+                        if((i + j) / (2 * p) == (i + j + k) / (2 * p)) {
+                            if(count == pairs.length) {
+                                pairs = Arrays.copyOf(pairs, Math.max(16, 2 * pairs.length));
+                            }
+                            pairs[count]     = i + j;
+                            pairs[count + 1] = i + j + k;
+                            count += 2;
+                        }
+                    }
+                }
+            }
+        }
+
+        return Arrays.copyOf(pairs, count);
+    }
+}
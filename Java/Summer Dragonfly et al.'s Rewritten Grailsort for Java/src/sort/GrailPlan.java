@@ -0,0 +1,164 @@
+package sort;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// GRAIL PLAN - What GrailSort decided to do with an input before touching it, based on a small,
+// evenly spaced sample of its items. See GrailSort.grailPlan for how the decision is made.
+//
+// The sample's statistics are reported along with the decision: how many unique keys it held and
+// how many of them were seen only once or twice, the resulting estimate of the unique keys in the
+// whole input, and how many neighboring sampled items were out of order. Inputs too short to be
+// worth sampling report no statistics, and -1 for the estimate.
+
+final public class GrailPlan {
+    public enum Path {
+        // Shorter than the small-sort cutoff: sorted by the small-array kernel
+        SMALL_SORT,
+
+        // Might be made of a few natural runs: checked for them first, then Grailsorted if it isn't
+        NATURAL_RUNS,
+
+        // Definitely too many runs: natural runs aren't looked for, and keys are collected right away
+        KEY_COLLECTION,
+
+        // Very likely 3 or fewer unique keys: no keys are collected, and the input goes straight to
+        // the low-cardinality sort
+        LOW_CARDINALITY
+    }
+
+    private final Path path;
+    private final int sampleLen;
+    private final int sampleKeys;
+    private final int singletons;
+    private final int doubletons;
+    private final int estimatedKeys;
+    private final int idealKeys;
+    private final int sampleDescents;
+
+    GrailPlan(Path path, int sampleLen, int sampleKeys, int singletons, int doubletons,
+              int estimatedKeys, int idealKeys, int sampleDescents) {
+        this.path           = path;
+        this.sampleLen      = sampleLen;
+        this.sampleKeys     = sampleKeys;
+        this.singletons     = singletons;
+        this.doubletons     = doubletons;
+        this.estimatedKeys  = estimatedKeys;
+        this.idealKeys      = idealKeys;
+        this.sampleDescents = sampleDescents;
+    }
+
+    public Path getPath() {
+        return this.path;
+    }
+
+    public int getSampleLen() {
+        return this.sampleLen;
+    }
+
+    public int getSampleKeys() {
+        return this.sampleKeys;
+    }
+
+    public int getSingletons() {
+        return this.singletons;
+    }
+
+    public int getDoubletons() {
+        return this.doubletons;
+    }
+
+    // Chao1 estimate from the sample: sampleKeys + singletons * (singletons - 1) / (2 * (doubletons + 1)),
+    // capped at the input's length. Keys seen only once hint at many more that weren't seen at all;
+    // if every sampled key was seen only once, the estimate is simply the input's length.
+    public int getEstimatedKeys() {
+        return this.estimatedKeys;
+    }
+
+    // The '2 * sqrt(n)' keys Grailsort would like to collect
+    public int getIdealKeys() {
+        return this.idealKeys;
+    }
+
+    public int getSampleDescents() {
+        return this.sampleDescents;
+    }
+
+    // The Grailsort strategy the estimate points to: 1 with enough keys for the ideal buffer, 2 with
+    // more than GrailSort.GRAIL_LOW_CARDINALITY_MAX_KEYS, and 3 -- now the low-cardinality sort --
+    // otherwise, or 0 if the input wasn't sampled or won't be Grailsorted at all. Only LOW_CARDINALITY
+    // acts on this; otherwise, the keys actually collected have the final say.
+    public int getExpectedStrategy() {
+        if(this.path == Path.SMALL_SORT || this.estimatedKeys < 0) {
+            return 0;
+        }
+        if(this.estimatedKeys >= this.idealKeys) {
+            return 1;
+        }
+        if(this.estimatedKeys > GrailSort.GRAIL_LOW_CARDINALITY_MAX_KEYS) {
+            return 2;
+        }
+        return 3;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder plan = new StringBuilder();
+
+        plan.append(this.path);
+        if(this.estimatedKeys >= 0) {
+            plan.append(" (expecting Strategy ").append(this.getExpectedStrategy())
+                .append(": ").append(this.sampleKeys).append(" keys in a sample of ").append(this.sampleLen)
+                .append(", ").append(this.singletons).append(" seen once, ").append(this.doubletons).append(" twice")
+                .append("; ~").append(this.estimatedKeys).append(" keys estimated, ").append(this.idealKeys).append(" ideal")
+                .append("; ").append(this.sampleDescents).append(" descents)");
+        }
+
+        return plan.toString();
+    }
+}
@@ -0,0 +1,340 @@
+package sort;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+
+// PREFIX SORT: Co-sorts variable-length keys -- Strings, byte arrays, or byte strings laid out in
+// one shared "arena" -- along with any other columns, like GrailCosort does. Comparing two such keys
+// directly means following two references and comparing them item by item, so before sorting, the
+// first 8 bytes of every key are packed into a long[] column of "prefixes" that moves along with the
+// rest. Prefixes are compared first, as unsigned numbers, and only keys whose prefixes are the same
+// are compared in full. When the keys mostly differ early on, nearly every comparison is one
+// subtraction on data that's already next to each other in memory.
+//
+// - byte[] keys are ordered like Arrays.compareUnsigned orders them, and their prefix is simply
+//   their first 8 bytes, big-endian, padded with zeros.
+//
+// - Strings are ordered like String.compareTo orders them. Their prefix packs each char below 0x80
+//   into one byte, and every other char into three bytes, the first of which is at least 0x80. That
+//   keeps the prefixes in the same order as the Strings themselves, and fits 8 ASCII chars into
+//   each one instead of 4.
+//
+// Whatever every key starts with, like the "https://" of a column of URLs, can't tell any two
+// of them apart, so the prefixes start right after it. Even then, prefixes only pay off if they
+// tell apart nearly every key: merges mostly compare keys that end up close together, and if
+// thousands of keys share each prefix, those comparisons nearly always tie and need the full
+// comparison anyway. If a sample of the prefixes has too many repeats, they're dropped, and the
+// keys are only ever compared in full, just like GrailCosort would compare them.
+//
+// The prefix column is the only thing allocated: 8 bytes per key. Keys can't be null.
+//
+// Like GrailCosort, other columns are passed one or two at a time, or as an Object[] of columns to
+// sortColumns, never as varargs, so that a single Object[] column is always taken as one column.
+
+final public class GrailPrefixSort {
+    // Prefixes are only used if at least 7 in 8 of this many of them, evenly spaced, are unique
+    final static int GRAIL_PREFIX_SAMPLE_LEN = 1024;
+
+    private GrailPrefixSort() {
+    }
+
+    public static void sort(String[] keys) {
+        sortColumns(keys, new Object[0]);
+    }
+
+    public static void sort(String[] keys, Object column) {
+        sortColumns(keys, new Object[] { column });
+    }
+
+    public static void sort(String[] keys, Object column1, Object column2) {
+        sortColumns(keys, new Object[] { column1, column2 });
+    }
+
+    public static void sortColumns(String[] keys, Object[] columns) {
+        int common = keys.length == 0 ? 0 : keys[0].length();
+        for(int i = 1; i < keys.length && common != 0; i++) {
+            common = grailCommonLength(keys[0], keys[i], common);
+        }
+
+        long[] prefixes = new long[keys.length];
+        for(int i = 0; i < keys.length; i++) {
+            prefixes[i] = grailPrefix(keys[i], common);
+        }
+        new IndexedGrailSort().grailSortInPlace(new StringColumns(keys, grailIfUseful(prefixes), columns), 0, keys.length);
+    }
+
+    public static void sort(byte[][] keys) {
+        sortColumns(keys, new Object[0]);
+    }
+
+    public static void sort(byte[][] keys, Object column) {
+        sortColumns(keys, new Object[] { column });
+    }
+
+    public static void sort(byte[][] keys, Object column1, Object column2) {
+        sortColumns(keys, new Object[] { column1, column2 });
+    }
+
+    public static void sortColumns(byte[][] keys, Object[] columns) {
+        int common = keys.length == 0 ? 0 : keys[0].length;
+        for(int i = 1; i < keys.length && common != 0; i++) {
+            common = grailCommonLength(keys[0], 0, keys[i], 0, Math.min(common, keys[i].length));
+        }
+
+        long[] prefixes = new long[keys.length];
+        for(int i = 0; i < keys.length; i++) {
+            prefixes[i] = grailPrefix(keys[i], common, keys[i].length - common);
+        }
+        new IndexedGrailSort().grailSortInPlace(new BytesColumns(keys, common, grailIfUseful(prefixes), columns), 0, keys.length);
+    }
+
+    // Key 'i' is arena[offsets[i], offsets[i] + lengths[i] - 1]. The arena itself is never written
+    // to; 'offsets' and 'lengths' are sorted instead, along with the other columns.
+    public static void sort(byte[] arena, int[] offsets, int[] lengths) {
+        sortColumns(arena, offsets, lengths, new Object[0]);
+    }
+
+    public static void sort(byte[] arena, int[] offsets, int[] lengths, Object column) {
+        sortColumns(arena, offsets, lengths, new Object[] { column });
+    }
+
+    public static void sort(byte[] arena, int[] offsets, int[] lengths, Object column1, Object column2) {
+        sortColumns(arena, offsets, lengths, new Object[] { column1, column2 });
+    }
+
+    public static void sortColumns(byte[] arena, int[] offsets, int[] lengths, Object[] columns) {
+        if(lengths.length < offsets.length) {
+            throw new IllegalArgumentException("lengths is shorter than offsets");
+        }
+        int common = offsets.length == 0 ? 0 : lengths[0];
+        for(int i = 0; i < offsets.length; i++) {
+            Objects.checkFromIndexSize(offsets[i], lengths[i], arena.length);
+            if(i != 0 && common != 0) {
+                common = grailCommonLength(arena, offsets[0], arena, offsets[i], Math.min(common, lengths[i]));
+            }
+        }
+
+        long[] prefixes = new long[offsets.length];
+        for(int i = 0; i < offsets.length; i++) {
+            prefixes[i] = grailPrefix(arena, offsets[i] + common, lengths[i] - common);
+        }
+        new IndexedGrailSort().grailSortInPlace(new ArenaColumns(arena, offsets, lengths, common, grailIfUseful(prefixes), columns),
+                                                0, offsets.length);
+    }
+
+    // Returns 'prefixes', or null if a sample of them has too many repeats for them to pay off
+    private static long[] grailIfUseful(long[] prefixes) {
+        int sampleLen = Math.min(prefixes.length, GRAIL_PREFIX_SAMPLE_LEN);
+        long[] sample = new long[sampleLen];
+        for(int i = 0; i < sampleLen; i++) {
+            sample[i] = prefixes[(int) ((long) i * prefixes.length / sampleLen)];
+        }
+        Arrays.sort(sample);
+
+        int unique = sampleLen == 0 ? 0 : 1;
+        for(int i = 1; i < sampleLen; i++) {
+            if(sample[i] != sample[i - 1]) {
+                unique++;
+            }
+        }
+        return 8L * unique >= 7L * sampleLen ? prefixes : null;
+    }
+
+    // How many of the first 'length' items of both keys are the same
+    private static int grailCommonLength(byte[] left, int leftStart, byte[] right, int rightStart, int length) {
+        int mismatch = Arrays.mismatch(left, leftStart, leftStart + length, right, rightStart, rightStart + length);
+        return mismatch < 0 ? length : mismatch;
+    }
+
+    private static int grailCommonLength(String left, String right, int length) {
+        int end = Math.min(length, right.length());
+        int i = 0;
+        while(i < end && left.charAt(i) == right.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static long grailPrefix(byte[] bytes, int offset, int length) {
+        long prefix = 0;
+        int  end    = Math.min(length, 8);
+        for(int i = 0; i < end; i++) {
+            prefix |= (bytes[offset + i] & 0xFFL) << (56 - (8 * i));
+        }
+        return prefix;
+    }
+
+    // Packs the chars of 'key' from 'start' on
+    private static long grailPrefix(String key, int start) {
+        long prefix = 0;
+        int  free   = 64;
+        for(int i = start; i < key.length() && free > 0; i++) {
+            char item = key.charAt(i);
+            if(item < 0x80) {
+                free   -= 8;
+                prefix |= (long) item << free;
+            }
+            else {
+                long encoded = 0x800000 | ((item >> 12) << 16) | (((item >> 6) & 0x3F) << 8) | (item & 0x3F);
+
+                // The last char may only partly fit
+                free   -= 24;
+                prefix |= free >= 0 ? encoded << free : encoded >>> -free;
+            }
+        }
+        return prefix;
+    }
+
+    // The prefixes are moved along as the last column, after the caller's own, unless there are none
+    private static Object[] grailWith(Object[] columns, Object column) {
+        if(column == null) {
+            return columns;
+        }
+        Object[] with = Arrays.copyOf(columns, columns.length + 1);
+        with[columns.length] = column;
+        return with;
+    }
+
+    private static final class StringColumns extends GrailCosort.Columns {
+        private final String[] keys;
+        private final long[] prefixes;
+
+        StringColumns(String[] keys, long[] prefixes, Object[] columns) {
+            super(keys, keys.length, grailWith(columns, prefixes));
+            this.keys     = keys;
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        public int compare(long a, long b) {
+            if(this.prefixes != null) {
+                int compare = Long.compareUnsigned(this.prefixes[(int) a], this.prefixes[(int) b]);
+                if(compare != 0) {
+                    return compare;
+                }
+            }
+            return this.keys[(int) a].compareTo(this.keys[(int) b]);
+        }
+    }
+
+    private static final class BytesColumns extends GrailCosort.Columns {
+        private final byte[][] keys;
+        private final int common;
+        private final long[] prefixes;
+
+        BytesColumns(byte[][] keys, int common, long[] prefixes, Object[] columns) {
+            super(keys, keys.length, grailWith(columns, prefixes));
+            this.keys     = keys;
+            this.common   = common;
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        public int compare(long a, long b) {
+            byte[]  left = this.keys[(int) a];
+            byte[] right = this.keys[(int) b];
+            int skip = this.common;
+
+            if(this.prefixes != null) {
+                int compare = Long.compareUnsigned(this.prefixes[(int) a], this.prefixes[(int) b]);
+                if(compare != 0) {
+                    return compare;
+                }
+
+                // Equal prefixes of two keys this long mean the 8 bytes after the common ones are equal, too
+                if(left.length >= skip + 8 && right.length >= skip + 8) {
+                    skip += 8;
+                }
+            }
+            return Arrays.compareUnsigned(left, skip, left.length, right, skip, right.length);
+        }
+    }
+
+    private static final class ArenaColumns extends GrailCosort.Columns {
+        private final byte[] arena;
+        private final int[] offsets;
+        private final int[] lengths;
+        private final int common;
+        private final long[] prefixes;
+
+        ArenaColumns(byte[] arena, int[] offsets, int[] lengths, int common, long[] prefixes, Object[] columns) {
+            super(offsets, offsets.length, grailWith(grailWith(columns, lengths), prefixes));
+            this.arena    = arena;
+            this.offsets  = offsets;
+            this.lengths  = lengths;
+            this.common   = common;
+            this.prefixes = prefixes;
+        }
+
+        @Override
+        public int compare(long a, long b) {
+            int  leftStart = this.offsets[(int) a] + this.common;
+            int rightStart = this.offsets[(int) b] + this.common;
+            int  leftEnd   = this.offsets[(int) a] + this.lengths[(int) a];
+            int rightEnd   = this.offsets[(int) b] + this.lengths[(int) b];
+
+            if(this.prefixes != null) {
+                int compare = Long.compareUnsigned(this.prefixes[(int) a], this.prefixes[(int) b]);
+                if(compare != 0) {
+                    return compare;
+                }
+
+                // Equal prefixes of two keys this long mean the 8 bytes after the common ones are equal, too
+                if(leftEnd - leftStart >= 8 && rightEnd - rightStart >= 8) {
+                    leftStart  += 8;
+                    rightStart += 8;
+                }
+            }
+            return Arrays.compareUnsigned(this.arena, leftStart, leftEnd, this.arena, rightStart, rightEnd);
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package sort;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// The ways GrailSort can swap the order of two adjacent blocks, A and B, whose lengths may or
+// may not be equal. Rotations do most of the work in Grailsort's lazy merges, so which one runs
+// matters most for inputs with few distinct keys (Strategies 2 and 3).
+//
+// Every rotation reports its work to the GrailMetrics it's given, counted the same way as
+// GrailSort's own moves: block swaps and swaps as block swaps and swaps, and juggling's
+// single writes and System.arraycopy's bulk moves as writes and arraycopy items.
+
+public enum GrailRotation {
+    // Picks one of the rotations below for every call, based on the lengths of A and B
+    // and whether an external buffer is available.
+    AUTO {
+        @Override
+        <K> void rotate(K[] array, int start, int leftLen, int rightLen, K[] buffer, int bufferLen,
+                        GrailMetrics metrics) {
+            int minLen = Math.min(leftLen, rightLen);
+            int length = leftLen + rightLen;
+
+            if(minLen <= 1 || (buffer != null && minLen <= bufferLen)) {
+                AUXILIARY.rotate(array, start, leftLen, rightLen, buffer, bufferLen, metrics);
+            }
+            else if(length <= GRAIL_JUGGLING_MAX_LEN && minLen <= length / GRAIL_JUGGLING_MIN_RATIO) {
+                JUGGLING.rotate(array, start, leftLen, rightLen, buffer, bufferLen, metrics);
+            }
+            else {
+                GRIES_MILLS.rotate(array, start, leftLen, rightLen, buffer, bufferLen, metrics);
+            }
+        }
+    },
+
+    // Variant of the Gries-Mills algorithm, which is basically recursive block swaps.
+    // Costs up to one swap per item.
+    GRIES_MILLS {
+        @Override
+        <K> void rotate(K[] array, int start, int leftLen, int rightLen, K[] buffer, int bufferLen,
+                        GrailMetrics metrics) {
+            while(leftLen > 0 && rightLen > 0) {
+                if(leftLen <= rightLen) {
+                    grailBlockSwap(array, start, start + leftLen, leftLen, metrics);
+                    start    += leftLen;
+                    rightLen -= leftLen;
+                } 
+                else {
+                    grailBlockSwap(array, start + leftLen - rightLen, start + leftLen, rightLen, metrics);
+                    leftLen  -= rightLen;
+                }
+            }
+        }
+    },
+
+    // Reverses A, then B, then both of them together. About one swap per item, but
+    // every pass is a sequential scan, which makes it the friendliest to caches.
+    TRIPLE_REVERSAL {
+        @Override
+        <K> void rotate(K[] array, int start, int leftLen, int rightLen, K[] buffer, int bufferLen,
+                        GrailMetrics metrics) {
+            grailReverse(array, start,           leftLen,            metrics);
+            grailReverse(array, start + leftLen, rightLen,           metrics);
+            grailReverse(array, start,           leftLen + rightLen, metrics);
+        }
+    },
+
+    // Moves every item straight to its final spot, following the gcd(|A|, |B|) cycles
+    // of the rotation. Only one write per item, but the jumps between writes are long.
+    JUGGLING {
+        @Override
+        <K> void rotate(K[] array, int start, int leftLen, int rightLen, K[] buffer, int bufferLen,
+                        GrailMetrics metrics) {
+            if(leftLen == 0 || rightLen == 0) {
+                return;
+            }
+
+            int length = leftLen + rightLen;
+            int cycles = grailGcd(leftLen, rightLen);
+
+            for(int cycle = 0; cycle < cycles; cycle++) {
+                K temp = array[start + cycle];
+
+                int index = cycle;
+                int  next = cycle + leftLen;
+                while(next != cycle) {
+                    array[start + index] = array[start + next];
+                    index = next;
+
+                    next += leftLen;
+                    if(next >= length) {
+                        next -= length;
+                    }
+                }
+                array[start + index] = temp;
+            }
+            metrics.writes(length);
+        }
+    },
+
+    // Copies the shorter block out to 'buffer', slides the longer one over with a single
+    // System.arraycopy, and copies the shorter block back in. A single item is held in a
+    // local variable instead, so this also works with no buffer when |A| or |B| is 1.
+    // Otherwise, falls back on AUTO's choice of in-place rotation.
+    AUXILIARY {
+        @Override
+        <K> void rotate(K[] array, int start, int leftLen, int rightLen, K[] buffer, int bufferLen,
+                        GrailMetrics metrics) {
+            if(leftLen == 0 || rightLen == 0) {
+                return;
+            }
+
+            if(leftLen == 1) {
+                K temp = array[start];
+                System.arraycopy(array, start + 1, array, start, rightLen);
+                array[start + rightLen] = temp;
+                metrics.arraycopy(rightLen);
+                metrics.writes(1);
+            }
+            else if(rightLen == 1) {
+                K temp = array[start + leftLen];
+                System.arraycopy(array, start, array, start + 1, leftLen);
+                array[start] = temp;
+                metrics.arraycopy(leftLen);
+                metrics.writes(1);
+            }
+            else if(leftLen <= rightLen && buffer != null && leftLen <= bufferLen) {
+                System.arraycopy(array,  start,           buffer, 0,                leftLen);
+                System.arraycopy(array,  start + leftLen, array,  start,            rightLen);
+                System.arraycopy(buffer, 0,               array,  start + rightLen, leftLen);
+                metrics.arraycopy(rightLen + 2 * leftLen);
+            }
+            else if(buffer != null && rightLen <= bufferLen) {
+                System.arraycopy(array,  start + leftLen, buffer, 0,                rightLen);
+                System.arraycopy(array,  start,           array,  start + rightLen, leftLen);
+                System.arraycopy(buffer, 0,               array,  start,            rightLen);
+                metrics.arraycopy(leftLen + 2 * rightLen);
+            }
+            else {
+                AUTO.rotate(array, start, leftLen, rightLen, null, 0, metrics);
+            }
+        }
+    };
+
+    // Juggling only beats Gries-Mills when A and B are very uneven, and only for
+    // short rotations; past that, its scattered writes start to miss the cache.
+    final static int GRAIL_JUGGLING_MAX_LEN   = 1 << 10;
+    final static int GRAIL_JUGGLING_MIN_RATIO = 8;
+
+    abstract <K> void rotate(K[] array, int start, int leftLen, int rightLen, K[] buffer, int bufferLen,
+                             GrailMetrics metrics);
+
+    private static <K> void grailBlockSwap(K[] array, int a, int b, int blockLen, GrailMetrics metrics) {
+        metrics.blockSwap();
+        metrics.swaps(blockLen);
+
+        for(int i = 0; i < blockLen; i++) {
+            K temp       = array[a + i];
+            array[a + i] = array[b + i];
+            array[b + i] = temp;
+        }
+    }
+
+    private static <K> void grailReverse(K[] array, int start, int length, GrailMetrics metrics) {
+        metrics.swaps(length / 2);
+
+        int  left = start;
+        int right = start + length - 1;
+
+        while(left < right) {
+            K temp       = array[ left];
+            array[ left] = array[right];
+            array[right] = temp;
+            left++;
+            right--;
+        }
+    }
+
+    private static int grailGcd(int a, int b) {
+        while(b != 0) {
+            int temp = a % b;
+            a = b;
+            b = temp;
+        }
+        return a;
+    }
+}
@@ -1,7 +1,11 @@
 package sort;
 
-import java.lang.reflect.Array;
 import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /*
  * MIT License
@@ -63,74 +67,164 @@ import java.util.Comparator;
 // Current status: EVERY VERSION PASSING ALL TESTS / POTENTIALLY FIXED as of
 //                 10/23/20
 
-//Credit to phoenixbound for this clever idea
-enum Subarray {
-    LEFT,
-    RIGHT;
-}
-
-final public class GrailSort<K> {
-    private Comparator<K> cmp;
+final public class GrailSort<K> implements GrailSorter<K> {
+    private final Comparator<K> cmp;
+    private final GrailMetrics metrics;
+    private final GrailBufferProvider buffers;
+    private final GrailRotation rotation;
+    private final int smallSortLen;
 
     final static int GRAIL_STATIC_EXT_BUFFER_LEN = 512;
 
-    private K[] extBuffer;
-    private int extBufferLen;
+    // Default cutoff below which inputs are sorted by the small-array kernel
+    final static int GRAIL_SMALL_SORT_LEN = 16;
+
+    // Below these lengths, parallel sorts and merges aren't worth the task overhead
+    final static int GRAIL_PARALLEL_MIN_SORT_LEN  = 1 << 13;
+    final static int GRAIL_PARALLEL_MIN_MERGE_LEN = 1 << 13;
+
+    // Segmented sorts aim for this many batches of segments per thread, so that threads
+    // which draw cheap batches can steal more work from the rest
+    final static int GRAIL_SEGMENT_BATCHES_PER_THREAD = 4;
+
+    // Inputs made of at most this many natural runs are merged directly instead of Grailsorted
+    final static int GRAIL_MAX_NATURAL_RUNS = 4;
+
+    // Once one side of a merge wins this many comparisons in a row, the merge starts "galloping"
+    final static int GRAIL_MIN_GALLOP = 7;
+
+    // Inputs at least this long are sampled by grailPlan before anything else happens to them.
+    // Sampling costs up to GRAIL_PLAN_SAMPLE_LEN^2 comparisons, next to nothing at this length.
+    final static int GRAIL_PLAN_MIN_LEN    = 1 << 16;
+    final static int GRAIL_PLAN_SAMPLE_LEN = 32;
+
+    // A merge of items with 'k' unique keys needs about 'k' rotations; low-cardinality merges that
+    // need more than this many switch to rotation merges
+    final static int GRAIL_LOW_CARDINALITY_ROTATIONS = 8;
 
-    private int currBlockLen;
-    private Subarray currBlockOrigin;
+    // Inputs with at most this many unique keys are sorted by grailLowCardinalitySort instead of Strategy 2 or 3.
+    // It still makes fewer comparisons than Strategy 2 past this, but its rotation merges make more writes,
+    // and counting both, it breaks even with Strategy 2 at about 16 keys from 100k items to 4M.
+    final static int GRAIL_LOW_CARDINALITY_MAX_KEYS = 16;
+
+    // Everything one call to grailCommonSort needs to remember across its helpers.
+    // Since every call gets its own context, a single GrailSort holds no mutable state
+    // and can be shared between threads, as long as its comparator can be, too.
+    private static final class GrailContext<K> {
+        private final K[] extBuffer;
+        private final int extBufferLen;
+
+        private int currBlockLen;
+        private Subarray currBlockOrigin;
+
+        GrailContext(K[] extBuffer, int extBufferLen) {
+            this.extBuffer    = extBuffer;
+            this.extBufferLen = extBufferLen;
+        }
+    }
 
     public GrailSort(Comparator<K> cmp) {
-        this.cmp = cmp;
+        this(cmp, GrailMetrics.NONE);
+    }
+
+    // Every comparison, swap, rotation, and write this sorter makes will be counted by 'metrics'.
+    public GrailSort(Comparator<K> cmp, GrailMetrics metrics) {
+        this(cmp, metrics, GrailBufferProvider.ALLOCATING);
+    }
+
+    // External buffers for grailSortStaticOOP and grailSortDynamicOOP will be taken from 'buffers'.
+    // Pass a ThreadLocalBufferProvider to keep sorts from allocating a new buffer every call.
+    public GrailSort(Comparator<K> cmp, GrailMetrics metrics, GrailBufferProvider buffers) {
+        this(cmp, metrics, buffers, GrailRotation.AUTO);
+    }
+
+    // Every rotation will be done with 'rotation' instead of the default, GrailRotation.AUTO.
+    public GrailSort(Comparator<K> cmp, GrailMetrics metrics, GrailBufferProvider buffers,
+                     GrailRotation rotation) {
+        this(cmp, metrics, buffers, rotation, GRAIL_SMALL_SORT_LEN);
+    }
+
+    // Inputs shorter than 'smallSortLen' skip Grailsort and go straight to the small-array
+    // kernel, which also sorts the runs the low-cardinality sort starts merging from.
+    public GrailSort(Comparator<K> cmp, GrailMetrics metrics, GrailBufferProvider buffers,
+                     GrailRotation rotation, int smallSortLen) {
+        if(smallSortLen < GRAIL_SMALL_SORT_LEN) {
+            throw new IllegalArgumentException("smallSortLen must be at least " + GRAIL_SMALL_SORT_LEN);
+        }
+        this.cmp          = metrics.countComparisons(cmp);
+        this.metrics      = metrics;
+        this.buffers      = buffers;
+        this.rotation     = rotation;
+        this.smallSortLen = smallSortLen;
     }
 
-    private static <K> void grailSwap(K[] array, int a, int b) {
+    private void grailSwap(K[] array, int a, int b) {
+        this.metrics.swap();
+
         K temp   = array[a];
         array[a] = array[b];
         array[b] = temp;
     }
 
-    private static <K> void grailBlockSwap(K[] array, int a, int b, int blockLen) {
+    private void grailBlockSwap(K[] array, int a, int b, int blockLen) {
+        this.metrics.blockSwap();
+
         for(int i = 0; i < blockLen; i++) {
             grailSwap(array, a + i, b + i);
         }
     }
 
-    // Swaps the order of two adjacent blocks whose lengths may or may not be equal.
-    // Variant of the Gries-Mills algorithm, which is basically recursive block swaps.
-    private static <K> void grailRotate(K[] array, int start, int leftLen, int rightLen) {
-        while(leftLen > 0 && rightLen > 0) {
-            if(leftLen <= rightLen) {
-                grailBlockSwap(array, start, start + leftLen, leftLen);
-                start    += leftLen;
-                rightLen -= leftLen;
-            } 
-            else {
-                grailBlockSwap(array, start + leftLen - rightLen, start + leftLen, rightLen);
-                leftLen  -= rightLen;
-            }
+    // Same as above, but 'a' and 'b' are the *last* items of each block, and the blocks
+    // are swapped from back to front. Needed when the blocks overlap going backwards.
+    private void grailBlockSwapBackwards(K[] array, int a, int b, int blockLen) {
+        this.metrics.blockSwap();
+
+        for(int i = 0; i < blockLen; i++) {
+            grailSwap(array, a - i, b - i);
         }
     }
 
+    // Swaps the order of two adjacent blocks whose lengths may or may not be equal.
+    // See GrailRotation for the algorithms that can do this.
+    private void grailRotate(K[] array, int start, int leftLen, int rightLen) {
+        grailRotate(array, start, leftLen, rightLen, null, 0);
+    }
+
+    // 'buffer' may be used as scratch space if it isn't null.
+    private void grailRotate(K[] array, int start, int leftLen, int rightLen, K[] buffer, int bufferLen) {
+        this.metrics.rotation();
+        this.rotation.rotate(array, start, leftLen, rightLen, buffer, bufferLen, this.metrics);
+    }
+
     
-    // Variant of Insertion Sort that utilizes swaps instead of overwrites.
-    // Also known as "Optimized Gnomesort".
-    private static <K> void grailInsertSort(K[] array, int start, int length, Comparator<K> cmp) {
+    // Small-array kernel: insertion sort that finds each item's place with a binary search and
+    // shifts the items after it over with one arraycopy, instead of swapping it into place one
+    // step at a time. That's about log2(n) comparisons per item instead of n / 2, and the moves
+    // are cheap even for the key buffer, which holds up to 2 * sqrt(n) keys. Searching to the
+    // right of equal items keeps it stable.
+    private void grailBinaryInsertSort(K[] array, int start, int length, Comparator<K> cmp) {
         for(int item = 1; item < length; item++) {
-            int  left = start + item - 1;
-            int right = start + item;
+            grailBinaryInsert(array, start, item, cmp);
+        }
+    }
 
-            while(left >= start && cmp.compare(array[ left],
-                                               array[right]) > 0) {
-                grailSwap(array, left, right);
-                left--;
-                right--;
-            }
+    // Inserts array[start + item] into the sorted items before it.
+    private void grailBinaryInsert(K[] array, int start, int item, Comparator<K> cmp) {
+        K current = array[start + item];
+
+        if(cmp.compare(array[start + item - 1], current) > 0) {
+            int insert = grailBinarySearchRight(array, start, item - 1, current, cmp);
+
+            System.arraycopy(array, start + insert, array, start + insert + 1, item - insert);
+            array[start + insert] = current;
+
+            this.metrics.arraycopy(item - insert);
+            this.metrics.writes(1);
         }
     }
 
     
-    private static <K> int grailBinarySearchLeft(K[] array, int start, int length, K target, Comparator<K> cmp) {
+    private int grailBinarySearchLeft(K[] array, int start, int length, K target, Comparator<K> cmp) {
         int  left = 0;
         int right = length;
 
@@ -149,7 +243,7 @@ final public class GrailSort<K> {
     }
     
     // Credit to Anonymous0726 for debugging
-    private static <K> int grailBinarySearchRight(K[] array, int start, int length, K target, Comparator<K> cmp) {
+    private int grailBinarySearchRight(K[] array, int start, int length, K target, Comparator<K> cmp) {
         int  left = 0;
         int right = length;
 
@@ -168,9 +262,79 @@ final public class GrailSort<K> {
         return right;
     }
 
+    // Exponential ("galloping") search from the start of array[start, start + length - 1].
+    // Returns how many leading items are less than 'target', or less than or equal to it if
+    // 'inclusive' is true; i.e. the same as grailBinarySearchLeft or grailBinarySearchRight.
+    //
+    // Probing 1, 2, 4, 8... items in before binary searching means a result of 'n' costs
+    // about 2 * log2(n) comparisons no matter how long the range is.
+    private int grailGallopForwards(K[] array, int start, int length, K target, boolean inclusive, Comparator<K> cmp) {
+        int  left = 0;
+        int right = 1;
+
+        while(right <= length) {
+            int compare = cmp.compare(array[start + right - 1], target);
+            if(compare > 0 || (compare == 0 && !inclusive)) {
+                break;
+            }
+            left  = right;
+            right = right <= length / 2 ? right * 2 : length + 1;
+        }
+
+        // the first 'left' items are known to come before 'target', and
+        // the item at 'right - 1' (if there is one) is known not to
+        right = Math.min(right - 1, length);
+
+        while(left < right) {
+            int middle = left + ((right - left) / 2);
+            int compare = cmp.compare(array[start + middle], target);
+
+            if(compare < 0 || (compare == 0 && inclusive)) {
+                left = middle + 1;
+            }
+            else {
+                right = middle;
+            }
+        }
+        return left;
+    }
+
+    // Mirror image of the above: searches from the end of array[start, start + length - 1] and
+    // returns how many trailing items are greater than 'target', or greater than or equal to it
+    // if 'inclusive' is true.
+    private int grailGallopBackwards(K[] array, int start, int length, K target, boolean inclusive, Comparator<K> cmp) {
+        int   end = start + length - 1;
+        int  left = 0;
+        int right = 1;
+
+        while(right <= length) {
+            int compare = cmp.compare(array[end - right + 1], target);
+            if(compare < 0 || (compare == 0 && !inclusive)) {
+                break;
+            }
+            left  = right;
+            right = right <= length / 2 ? right * 2 : length + 1;
+        }
+
+        right = Math.min(right - 1, length);
+
+        while(left < right) {
+            int middle = left + ((right - left) / 2);
+            int compare = cmp.compare(array[end - middle], target);
+
+            if(compare > 0 || (compare == 0 && inclusive)) {
+                left = middle + 1;
+            }
+            else {
+                right = middle;
+            }
+        }
+        return left;
+    }
+
     
     // cost: 2 * length + idealKeys^2 / 2
-    private static <K> int grailCollectKeys(K[] array, int start, int length, int idealKeys, Comparator<K> cmp) {
+    private int grailCollectKeys(K[] array, int start, int length, int idealKeys, Comparator<K> cmp) {
         int keysFound = 1; // by itself, the first item in the array is our first unique key
         int  firstKey = 0; // the first item in the array is at the first position in the array
         int   currKey = 1; // the index used for finding potentially unique items ("keys") in the array
@@ -210,8 +374,31 @@ final public class GrailSort<K> {
         return keysFound;
     }
 
+    // Same as above, but for a subarray that's already sorted: an item is a new key iff it's greater
+    // than the last key found, so no binary searches are needed.
+    //
+    // cost: length + idealKeys^2
+    private int grailCollectSortedKeys(K[] array, int start, int length, int idealKeys, Comparator<K> cmp) {
+        int keysFound = 1;
+        int  firstKey = 0;
+        int   currKey = 1;
+
+        while(currKey < length && keysFound < idealKeys) {
+            if(cmp.compare(array[start + firstKey + keysFound - 1], array[start + currKey]) < 0) {
+                // rotate the key-buffer over to currKey's immediate left, and currKey is simply the next key
+                grailRotate(array, start + firstKey, keysFound, currKey - (firstKey + keysFound));
+                firstKey = currKey - keysFound;
+                keysFound++;
+            }
+            currKey++;
+        }
+
+        grailRotate(array, start, firstKey, keysFound);
+        return keysFound;
+    }
+
     
-    private static <K> void grailPairwiseSwaps(K[] array, int start, int length, Comparator<K> cmp) {
+    private void grailPairwiseSwaps(K[] array, int start, int length, Comparator<K> cmp) {
         int index;
         for(index = 1; index < length; index += 2) {
             int  left = start + index - 1;
@@ -233,7 +420,7 @@ final public class GrailSort<K> {
         }
     }
     
-    private static <K> void grailPairwiseWrites(K[] array, int start, int length, Comparator<K> cmp) {
+    private void grailPairwiseWrites(K[] array, int start, int length, Comparator<K> cmp) {
         int index;
         for(index = 1; index < length; index += 2) {
             int  left = start + index - 1;
@@ -253,6 +440,8 @@ final public class GrailSort<K> {
         if(left < start + length) {
             array[left - 2] = array[left];
         }
+
+        this.metrics.writes(length);
     }
 
     
@@ -260,35 +449,112 @@ final public class GrailSort<K> {
     // 
     // "scrolling buffer" + array[start, middle - 1] + array[middle, end - 1]
     // --> array[buffer, buffer + end - 1] + "scrolling buffer"
-    private static <K> void grailMergeForwards(K[] array, int start, int leftLen, int rightLen,
-                                                          int bufferOffset, Comparator<K> cmp) {
+    private void grailMergeForwards(K[] array, int start, int leftLen, int rightLen,
+                                               int bufferOffset, Comparator<K> cmp) {
+        int middle = start  +  leftLen;
+        int    end = middle + rightLen;
+        int   stop = grailGallopMergeForwards(array, start, leftLen, rightLen, bufferOffset, true, cmp);
+
+        // whatever is left of the unfinished side still has to cross the buffer
+        if(stop < middle) {
+            int buffer = stop - bufferOffset + rightLen;
+
+            if(buffer != stop) {
+                grailBlockSwap(array, buffer, stop, middle - stop);
+            }
+        }
+        else if(stop < end) {
+            grailBlockSwap(array, stop - bufferOffset, stop, end - stop);
+        }
+    }
+
+    // Swaps items from array[start, middle - 1] and array[middle, end - 1] into the scrolling
+    // buffer in sorted order until either side runs out. Ties go to the left side if 'leftFirst'.
+    //
+    // Once one side wins 'minGallop' times in a row, the merge gallops like TimSort's: it finds how
+    // far that side's run goes with an exponential search and moves the whole run in one block swap,
+    // then does the same for the other side. It goes back to comparing one item at a time as soon as
+    // neither side gets a run of GRAIL_MIN_GALLOP items; 'minGallop' shrinks while galloping pays off
+    // and grows back when it doesn't, so random data stays on the plain one-at-a-time path.
+    //
+    // Returns where the unfinished side stopped: an index before 'middle' belongs to the left side
+    // (the right side ran out), anything else to the right side.
+    private int grailGallopMergeForwards(K[] array, int start, int leftLen, int rightLen,
+                                         int bufferOffset, boolean leftFirst, Comparator<K> cmp) {
         int buffer = start  - bufferOffset;
         int   left = start;
         int middle = start  +  leftLen;
         int  right = middle;
         int    end = middle + rightLen;
 
-        while(right < end) {
-            if(left == middle || cmp.compare(array[ left],
-                                             array[right]) > 0) {
-                grailSwap(array, buffer, right);
-                right++;
+        int minGallop = GRAIL_MIN_GALLOP;
+        int  leftWins = 0;
+        int rightWins = 0;
+
+        while(left < middle && right < end) {
+            if(leftWins >= minGallop || rightWins >= minGallop) {
+                int  leftRun;
+                int rightRun;
+                do {
+                    leftRun = grailGallopForwards(array, left, middle - left, array[right], leftFirst, cmp);
+                    if(leftRun != 0) {
+                        grailBlockSwap(array, buffer, left, leftRun);
+                        buffer += leftRun;
+                        left   += leftRun;
+                        if(left == middle) {
+                            break;
+                        }
+                    }
+
+                    rightRun = grailGallopForwards(array, right, end - right, array[left], !leftFirst, cmp);
+                    if(rightRun != 0) {
+                        grailBlockSwap(array, buffer, right, rightRun);
+                        buffer += rightRun;
+                        right  += rightRun;
+                        if(right == end) {
+                            break;
+                        }
+                    }
+
+                    if(minGallop > 1) {
+                        minGallop--;
+                    }
+                } while(leftRun >= GRAIL_MIN_GALLOP || rightRun >= GRAIL_MIN_GALLOP);
+
+                minGallop += 2;
+                leftWins   = 0;
+                rightWins  = 0;
             }
             else {
-                grailSwap(array, buffer,  left);
-                left++;
+                int compare = cmp.compare(array[left], array[right]);
+
+                if(compare < 0 || (compare == 0 && leftFirst)) {
+                    grailSwap(array, buffer, left);
+                    left++;
+                    leftWins++;
+                    rightWins = 0;
+                }
+                else {
+                    grailSwap(array, buffer, right);
+                    right++;
+                    rightWins++;
+                    leftWins = 0;
+                }
+                buffer++;
             }
-            buffer++;
         }
 
-        if(buffer != left) {
-            grailBlockSwap(array, buffer, left, middle - left);
+        if(left < middle) {
+            return left;
+        }
+        else {
+            return right;
         }
     }
 
     // credit to 666666t for thorough bug-checking/fixing
-    private static <K> void grailMergeBackwards(K[] array, int start, int leftLen, int rightLen,
-                                                           int bufferOffset, Comparator<K> cmp) {
+    private void grailMergeBackwards(K[] array, int start, int leftLen, int rightLen,
+                                                int bufferOffset, Comparator<K> cmp) {
         // used to be '= start'
         int    end = start  -  1;
         // used to be '= start + leftLen - 1'
@@ -299,18 +565,66 @@ final public class GrailSort<K> {
         // OFF-BY-ONE BUG FIXED: used to be `int buffer = right  + bufferOffset - 1;`
         int buffer = right  + bufferOffset;
 
+        // Gallops the same way grailGallopMergeForwards does, only from the back
+        int minGallop = GRAIL_MIN_GALLOP;
+        int  leftWins = 0;
+        int rightWins = 0;
+
         // used to be 'left >= end'
-        while(left > end) {
-            if(right == middle || cmp.compare(array[ left],
-                                              array[right]) > 0) {
-                grailSwap(array, buffer,  left);
-                left--;
+        while(left > end && right > middle) {
+            if(leftWins >= minGallop || rightWins >= minGallop) {
+                int  leftRun;
+                int rightRun;
+                do {
+                    leftRun = grailGallopBackwards(array, end + 1, left - end, array[right], false, cmp);
+                    if(leftRun != 0) {
+                        grailBlockSwapBackwards(array, buffer, left, leftRun);
+                        buffer -= leftRun;
+                        left   -= leftRun;
+                        if(left == end) {
+                            break;
+                        }
+                    }
+
+                    rightRun = grailGallopBackwards(array, middle + 1, right - middle, array[left], true, cmp);
+                    if(rightRun != 0) {
+                        grailBlockSwapBackwards(array, buffer, right, rightRun);
+                        buffer -= rightRun;
+                        right  -= rightRun;
+                        if(right == middle) {
+                            break;
+                        }
+                    }
+
+                    if(minGallop > 1) {
+                        minGallop--;
+                    }
+                } while(leftRun >= GRAIL_MIN_GALLOP || rightRun >= GRAIL_MIN_GALLOP);
+
+                minGallop += 2;
+                leftWins   = 0;
+                rightWins  = 0;
             }
             else {
-                grailSwap(array, buffer, right);
-                right--;
+                if(cmp.compare(array[ left],
+                               array[right]) > 0) {
+                    grailSwap(array, buffer,  left);
+                    left--;
+                    leftWins++;
+                    rightWins = 0;
+                }
+                else {
+                    grailSwap(array, buffer, right);
+                    right--;
+                    rightWins++;
+                    leftWins = 0;
+                }
+                buffer--;
             }
-            buffer--;
+        }
+
+        if(left > end) {
+            grailBlockSwapBackwards(array, buffer, left, left - end);
         }
 
         if(right != buffer) {
@@ -328,38 +642,109 @@ final public class GrailSort<K> {
     // --> array[buffer, buffer + end - 1] + "free space"
     //
     // FUNCTION RENAMED: More consistent with "out-of-place" being at the end
-    private static <K> void grailMergeOutOfPlace(K[] array, int start, int leftLen, int rightLen,
-                                                            int bufferOffset, Comparator<K> cmp) {
+    private void grailMergeOutOfPlace(K[] array, int start, int leftLen, int rightLen,
+                                                 int bufferOffset, Comparator<K> cmp) {
+        int middle = start  +  leftLen;
+        int    end = middle + rightLen;
+        int   stop = grailGallopMergeOutOfPlace(array, start, leftLen, rightLen, bufferOffset, true, cmp);
+
+        if(stop < middle) {
+            int buffer = stop - bufferOffset + rightLen;
+
+            if(buffer != stop) {
+                System.arraycopy(array, stop, array, buffer, middle - stop);
+                this.metrics.arraycopy(middle - stop);
+            }
+        }
+        else if(stop < end) {
+            System.arraycopy(array, stop, array, stop - bufferOffset, end - stop);
+            this.metrics.arraycopy(end - stop);
+        }
+    }
+
+    // Same as grailGallopMergeForwards, but overwrites the buffer instead of swapping with it,
+    // so galloping runs are moved with a single arraycopy.
+    private int grailGallopMergeOutOfPlace(K[] array, int start, int leftLen, int rightLen,
+                                           int bufferOffset, boolean leftFirst, Comparator<K> cmp) {
         int buffer = start  - bufferOffset;
         int   left = start;
         int middle = start  +  leftLen;
         int  right = middle;
         int    end = middle + rightLen;
 
-        while(right < end) {
-            if(left == middle || cmp.compare(array[ left],
-                                             array[right]) > 0) {
-                array[buffer] = array[right];
-                right++;
+        int minGallop = GRAIL_MIN_GALLOP;
+        int  leftWins = 0;
+        int rightWins = 0;
+        int    writes = 0;
+
+        while(left < middle && right < end) {
+            if(leftWins >= minGallop || rightWins >= minGallop) {
+                int  leftRun;
+                int rightRun;
+                do {
+                    leftRun = grailGallopForwards(array, left, middle - left, array[right], leftFirst, cmp);
+                    if(leftRun != 0) {
+                        System.arraycopy(array, left, array, buffer, leftRun);
+                        this.metrics.arraycopy(leftRun);
+                        buffer += leftRun;
+                        left   += leftRun;
+                        if(left == middle) {
+                            break;
+                        }
+                    }
+
+                    rightRun = grailGallopForwards(array, right, end - right, array[left], !leftFirst, cmp);
+                    if(rightRun != 0) {
+                        System.arraycopy(array, right, array, buffer, rightRun);
+                        this.metrics.arraycopy(rightRun);
+                        buffer += rightRun;
+                        right  += rightRun;
+                        if(right == end) {
+                            break;
+                        }
+                    }
+
+                    if(minGallop > 1) {
+                        minGallop--;
+                    }
+                } while(leftRun >= GRAIL_MIN_GALLOP || rightRun >= GRAIL_MIN_GALLOP);
+
+                minGallop += 2;
+                leftWins   = 0;
+                rightWins  = 0;
             }
             else {
-                array[buffer] = array[ left];
-                left++;
-            }
-            buffer++;
-        }
+                int compare = cmp.compare(array[left], array[right]);
 
-        if(buffer != left) {
-            while(left < middle) {
-                array[buffer] = array[left];
+                if(compare < 0 || (compare == 0 && leftFirst)) {
+                    array[buffer] = array[left];
+                    left++;
+                    leftWins++;
+                    rightWins = 0;
+                }
+                else {
+                    array[buffer] = array[right];
+                    right++;
+                    rightWins++;
+                    leftWins = 0;
+                }
                 buffer++;
-                left++;
+                writes++;
             }
         }
+
+        this.metrics.writes(writes);
+
+        if(left < middle) {
+            return left;
+        }
+        else {
+            return right;
+        }
     }
 
     
-    private static <K> void grailBuildInPlace(K[] array, int start, int length, int currentLen, int bufferLen, Comparator<K> cmp) {
+    private void grailBuildInPlace(K[] array, int start, int length, int currentLen, int bufferLen, Comparator<K> cmp) {
         for(int mergeLen = currentLen; mergeLen < bufferLen; mergeLen *= 2) {
             int fullMerge = 2 * mergeLen;
 
@@ -399,8 +784,9 @@ final public class GrailSort<K> {
         }
     }
 
-    private void grailBuildOutOfPlace(K[] array, int start, int length, int bufferLen, int extLen, Comparator<K> cmp) {
-        System.arraycopy(array, start - extLen, this.extBuffer, 0, extLen);
+    private void grailBuildOutOfPlace(GrailContext<K> ctx, K[] array, int start, int length, int bufferLen, int extLen, Comparator<K> cmp) {
+        System.arraycopy(array, start - extLen, ctx.extBuffer, 0, extLen);
+        this.metrics.arraycopy(extLen);
 
         grailPairwiseWrites(array, start, length, cmp);
         start -= 2;
@@ -425,34 +811,36 @@ final public class GrailSort<K> {
             else {
                 // MINOR CHANGE: Used to be a loop; much clearer now
                 System.arraycopy(array, mergeIndex, array, mergeIndex - mergeLen, leftOver);
+                this.metrics.arraycopy(leftOver);
             }
 
             start -= mergeLen;
         }
 
-        System.arraycopy(this.extBuffer, 0, array, start + length, extLen);
+        System.arraycopy(ctx.extBuffer, 0, array, start + length, extLen);
+        this.metrics.arraycopy(extLen);
         grailBuildInPlace(array, start, length, mergeLen, bufferLen, cmp);
     }
 
     // build blocks of length 'bufferLen'
     // input: [start - mergeLen, start - 1] elements are buffer
     // output: first 'bufferLen' elements are buffer, blocks (2 * bufferLen) and last subblock sorted
-    private void grailBuildBlocks(K[] array, int start, int length, int bufferLen, Comparator<K> cmp) {
-        if(this.extBuffer != null) {
+    private void grailBuildBlocks(GrailContext<K> ctx, K[] array, int start, int length, int bufferLen, Comparator<K> cmp) {
+        if(ctx.extBuffer != null) {
             int extLen;
 
-            if(bufferLen < this.extBufferLen) {
+            if(bufferLen < ctx.extBufferLen) {
                 extLen = bufferLen;
             }
             else {
                 // max power of 2 -- just in case
                 extLen = 1;
-                while((extLen * 2) <= this.extBufferLen) {
+                while((extLen * 2) <= ctx.extBufferLen) {
                     extLen *= 2;
                 }
             }
 
-            this.grailBuildOutOfPlace(array, start, length, bufferLen, extLen, cmp);
+            this.grailBuildOutOfPlace(ctx, array, start, length, bufferLen, extLen, cmp);
         }
         else {
             grailPairwiseSwaps(array, start, length, cmp);
@@ -463,8 +851,8 @@ final public class GrailSort<K> {
     
     // Returns the final position of 'medianKey'.
     // MINOR CHANGES: Change comparison order to emphasize "less-than" relation; fewer variables (Credit to Anonymous0726 for better variable names!)
-    private static <K> int grailBlockSelectSort(K[] array, int firstKey, int start, int medianKey,
-                                                           int blockCount, int blockLen, Comparator<K> cmp) {
+    private int grailBlockSelectSort(K[] array, int firstKey, int start, int medianKey,
+                                                int blockCount, int blockLen, Comparator<K> cmp) {
         for(int  firstBlock = 0; firstBlock < blockCount; firstBlock++) {
             int selectBlock = firstBlock;
 
@@ -508,7 +896,7 @@ final public class GrailSort<K> {
     // OFF-BY-ONE BUG FIXED: used to be `int index = start + resetLen`; credit to 666666t for debugging
     // RESTRUCTED, BETTER NAMES: 'resetLen' is now 'length' and 'bufferLen' is now 'bufferOffset'
     // SWAPPED NAMES: 'buffer' is now 'index' and vice versa
-    private static <K> void grailInPlaceBufferReset(K[] array, int start, int length, int bufferOffset) {
+    private void grailInPlaceBufferReset(K[] array, int start, int length, int bufferOffset) {
         int buffer =  start + length - 1;
         int  index = buffer - bufferOffset;
         
@@ -526,15 +914,11 @@ final public class GrailSort<K> {
     // OFF-BY-ONE BUG FIXED: used to be `int index = start + resetLen`; credit to 666666t for debugging
     // RESTRUCTED, BETTER NAMES: 'resetLen' is now 'length' and 'bufferLen' is now 'bufferOffset'
     // SWAPPED NAMES: 'buffer' is now 'index' and vice versa
-    private static <K> void grailOutOfPlaceBufferReset(K[] array, int start, int length, int bufferOffset) {
-        int buffer =  start + length - 1;
-        int  index = buffer - bufferOffset;
-        
-        while(buffer >= start) {
-            array[buffer] = array[index];
-            buffer--;
-            index--;
-        }
+    private void grailOutOfPlaceBufferReset(K[] array, int start, int length, int bufferOffset) {
+        // System.arraycopy copies overlapping ranges as if through a temporary array,
+        // exactly like shifting the items over one at a time from the right.
+        System.arraycopy(array, start - bufferOffset, array, start, length);
+        this.metrics.arraycopy(length);
     }
 
     // Rewinds Grailsort's "scrolling buffer" to the left of any items belonging to the left subarray block
@@ -543,7 +927,7 @@ final public class GrailSort<K> {
     //
     // BETTER ORDER-OF-OPERATIONS, NAMING IMPROVED: the left over items (now called 'leftBlock') are in the
     //                                              middle of the merge while the buffer is at the end
-    private static <K> void grailInPlaceBufferRewind(K[] array, int start, int leftBlock, int buffer) {
+    private void grailInPlaceBufferRewind(K[] array, int start, int leftBlock, int buffer) {
         while(leftBlock >= start) {
             grailSwap(array, buffer, leftBlock);
             leftBlock--;
@@ -557,16 +941,15 @@ final public class GrailSort<K> {
     //
     // BETTER ORDER, INCORRECT ORDER OF PARAMETERS BUG FIXED: `leftOvers` (now called 'leftBlock') should be
     //                                                        the middle, and `buffer` should be the end
-    private static <K> void grailOutOfPlaceBufferRewind(K[] array, int start, int leftBlock, int buffer) {
-        while(leftBlock >= start) {
-            array[buffer] = array[leftBlock];
-            leftBlock--;
-            buffer--;
-        }
+    private void grailOutOfPlaceBufferRewind(K[] array, int start, int leftBlock, int buffer) {
+        int length = leftBlock - start + 1;
+
+        System.arraycopy(array, start, array, buffer - length + 1, length);
+        this.metrics.arraycopy(length);
     }
 
     
-    private static <K> Subarray grailGetSubarray(K[] array, int currentKey, int medianKey, Comparator<K> cmp) {
+    private Subarray grailGetSubarray(K[] array, int currentKey, int medianKey, Comparator<K> cmp) {
         if(cmp.compare(array[currentKey], array[medianKey]) < 0) {
             return Subarray.LEFT;
         }
@@ -577,7 +960,7 @@ final public class GrailSort<K> {
 
     
     // FUNCTION RE-RENAMED: last/final left blocks are used to calculate the length of the final merge
-    private static <K> int grailCountLastMergeBlocks(K[] array, int offset, int blockCount, int blockLen, Comparator<K> cmp) {
+    private int grailCountLastMergeBlocks(K[] array, int offset, int blockCount, int blockLen, Comparator<K> cmp) {
         int blocksToMerge = 0;
 
         int lastRightFrag = offset + (blockCount * blockLen);
@@ -593,66 +976,38 @@ final public class GrailSort<K> {
     }
 
     
-    private void grailSmartMerge(K[] array, int start, int leftLen, Subarray leftOrigin,
-                                                       int rightLen, int bufferOffset,
-                                                       Comparator<K> cmp) {
-        int buffer = start  - bufferOffset;
-        int   left = start;
+    private void grailSmartMerge(GrailContext<K> ctx, K[] array, int start, int leftLen, Subarray leftOrigin,
+                                                                            int rightLen, int bufferOffset,
+                                                                            Comparator<K> cmp) {
         int middle = start  +  leftLen;
-        int  right = middle;
         int    end = middle + rightLen;
+        int   stop = grailGallopMergeForwards(array, start, leftLen, rightLen, bufferOffset,
+                                              leftOrigin == Subarray.LEFT, cmp);
 
-        if(leftOrigin == Subarray.LEFT) {
-            while(left < middle && right < end) {
-                if(cmp.compare(array[left], array[right]) <= 0) {
-                    grailSwap(array, buffer, left);
-                    left++;
-                }
-                else {
-                    grailSwap(array, buffer, right);
-                    right++;
-                }
-                buffer++;
-            }
-        }
-        else {
-            while(left < middle && right < end) {
-                if(cmp.compare(array[left], array[right]) <  0) {
-                    grailSwap(array, buffer, left);
-                    left++;
-                }
-                else {
-                    grailSwap(array, buffer, right);
-                    right++;
-                }
-                buffer++;
-            }            
-        }
-
-        if(left < middle) {
-            this.currBlockLen = middle - left;
+        if(stop < middle) {
+            ctx.currBlockLen = middle - stop;
             // UPDATED ARGUMENTS: 'middle' and 'end' now 'middle - 1' and 'end - 1'
-            grailInPlaceBufferRewind(array, left, middle - 1, end - 1);
+            grailInPlaceBufferRewind(array, stop, middle - 1, end - 1);
         }
         else {
-            this.currBlockLen = end - right;
+            ctx.currBlockLen = end - stop;
             if(leftOrigin == Subarray.LEFT) {
-                this.currBlockOrigin = Subarray.RIGHT;
+                ctx.currBlockOrigin = Subarray.RIGHT;
             }
             else {
-                this.currBlockOrigin = Subarray.LEFT;
+                ctx.currBlockOrigin = Subarray.LEFT;
             }
         }
     }
 
     // MINOR CHANGE: better naming -- 'insertPos' is now 'mergeLen' -- and "middle" calculation simplified
-    private void grailSmartLazyMerge(K[] array, int start, int leftLen, Subarray leftOrigin, int rightLen, Comparator<K> cmp) {
+    private void grailSmartLazyMerge(GrailContext<K> ctx, K[] array, int start, int leftLen, Subarray leftOrigin, int rightLen, Comparator<K> cmp) {
         int middle = start + leftLen;
         
         if(leftOrigin == Subarray.LEFT) {
             if(cmp.compare(array[middle - 1], array[middle]) >  0) {
                 while(leftLen != 0) {
-                    int mergeLen = grailBinarySearchLeft(array, middle, rightLen, array[start], cmp);
+                    int mergeLen = grailGallopForwards(array, middle, rightLen, array[start], false, cmp);
 
                     if(mergeLen != 0) {
                         grailRotate(array, start, leftLen, mergeLen);
@@ -663,15 +1018,14 @@ final public class GrailSort<K> {
                     }
                     
                     if(rightLen == 0) {
-                        this.currBlockLen = leftLen;
+                        ctx.currBlockLen = leftLen;
                         return;
                     }
                     else {
-                        do {
-                            start++;
-                            leftLen--;
-                        } while(leftLen != 0 && cmp.compare(array[start ],
-                                                            array[middle]) <= 0);
+                        // the item at 'start' is in place; skip it and every other item that is too
+                        int mergedLen = 1 + grailGallopForwards(array, start + 1, leftLen - 1, array[middle], true, cmp);
+                        start   += mergedLen;
+                        leftLen -= mergedLen;
                     }
                 }
             }
@@ -679,7 +1033,7 @@ final public class GrailSort<K> {
         else {
             if(cmp.compare(array[middle - 1], array[middle]) >= 0) {
                 while(leftLen != 0) {
-                    int mergeLen = grailBinarySearchRight(array, middle, rightLen, array[start], cmp);
+                    int mergeLen = grailGallopForwards(array, middle, rightLen, array[start], true, cmp);
 
                     if(mergeLen != 0) {
                         grailRotate(array, start, leftLen, mergeLen);
@@ -690,78 +1044,48 @@ final public class GrailSort<K> {
                     }
                     
                     if(rightLen == 0) {
-                        this.currBlockLen = leftLen;
+                        ctx.currBlockLen = leftLen;
                         return;
                     }
                     else {
-                        do {
-                            start++;
-                            leftLen--;
-                        } while(leftLen != 0 && cmp.compare(array[start ],
-                                                            array[middle]) < 0);
+                        int mergedLen = 1 + grailGallopForwards(array, start + 1, leftLen - 1, array[middle], false, cmp);
+                        start   += mergedLen;
+                        leftLen -= mergedLen;
                     }
                 }
             }
         }
 
-        this.currBlockLen = rightLen;
+        ctx.currBlockLen = rightLen;
         if(leftOrigin == Subarray.LEFT) {
-            this.currBlockOrigin = Subarray.RIGHT;
+            ctx.currBlockOrigin = Subarray.RIGHT;
         }
         else {
-            this.currBlockOrigin = Subarray.LEFT;
+            ctx.currBlockOrigin = Subarray.LEFT;
         }
     }
 
     // FUNCTION RENAMED: more consistent with other "out-of-place" merges
-    private void grailSmartMergeOutOfPlace(K[] array, int start, int leftLen, Subarray leftOrigin,
-                                                                 int rightLen, int bufferOffset,
-                                                                 Comparator<K> cmp) {
-        int buffer = start  - bufferOffset;
-        int   left = start;
+    private void grailSmartMergeOutOfPlace(GrailContext<K> ctx, K[] array, int start, int leftLen, Subarray leftOrigin,
+                                                                                      int rightLen, int bufferOffset,
+                                                                                      Comparator<K> cmp) {
         int middle = start  +  leftLen;
-        int  right = middle;
         int    end = middle + rightLen;
+        int   stop = grailGallopMergeOutOfPlace(array, start, leftLen, rightLen, bufferOffset,
+                                                leftOrigin == Subarray.LEFT, cmp);
 
-        if(leftOrigin == Subarray.LEFT) {
-            while(left < middle && right < end) {
-                if(cmp.compare(array[left], array[right]) <= 0) {
-                    array[buffer] = array[left];
-                    left++;
-                }
-                else {
-                    array[buffer] = array[right];
-                    right++;
-                }
-                buffer++;
-            }
-        }
-        else {
-            while(left < middle && right < end) {
-                if(cmp.compare(array[left], array[right]) <  0) {
-                    array[buffer] = array[left];
-                    left++;
-                }
-                else {
-                    array[buffer] = array[right];
-                    right++;
-                }
-                buffer++;
-            }            
-        }
-
-        if(left < middle) {
-            this.currBlockLen = middle - left;
+        if(stop < middle) {
+            ctx.currBlockLen = middle - stop;
             // UPDATED ARGUMENTS: 'middle' and 'end' now 'middle - 1' and 'end - 1'
-            grailOutOfPlaceBufferRewind(array, left, middle - 1, end - 1);
+            grailOutOfPlaceBufferRewind(array, stop, middle - 1, end - 1);
         }
         else {
-            this.currBlockLen = end - right;
+            ctx.currBlockLen = end - stop;
             if(leftOrigin == Subarray.LEFT) {
-                this.currBlockOrigin = Subarray.RIGHT;
+                ctx.currBlockOrigin = Subarray.RIGHT;
             }
             else {
-                this.currBlockOrigin = Subarray.LEFT;
+                ctx.currBlockOrigin = Subarray.LEFT;
             }
         }
     }
@@ -769,157 +1093,160 @@ final public class GrailSort<K> {
     
     // Credit to Anonymous0726 for better variable names such as "nextBlock"
     // Also minor change: removed unnecessary "currBlock = nextBlock" lines
-    private void grailMergeBlocks(K[] array, int firstKey, int medianKey, int start,
-                                             int blockCount, int blockLen, int lastMergeBlocks,
-                                             int lastLen, Comparator<K> cmp) {
+    private void grailMergeBlocks(GrailContext<K> ctx, K[] array, int firstKey, int medianKey, int start,
+                                                                  int blockCount, int blockLen, int lastMergeBlocks,
+                                                                  int lastLen, Comparator<K> cmp) {
         int buffer;
         
         int currBlock;
         int nextBlock = start + blockLen;
 
-        this.currBlockLen    = blockLen;
-        this.currBlockOrigin = grailGetSubarray(array, firstKey, medianKey, cmp);
+        ctx.currBlockLen    = blockLen;
+        ctx.currBlockOrigin = grailGetSubarray(array, firstKey, medianKey, cmp);
 
         for(int keyIndex = 1; keyIndex < blockCount; keyIndex++, nextBlock += blockLen) {
             Subarray nextBlockOrigin;
             
-            currBlock       = nextBlock - this.currBlockLen;
+            currBlock       = nextBlock - ctx.currBlockLen;
             nextBlockOrigin = grailGetSubarray(array, firstKey + keyIndex, medianKey, cmp);
 
-            if(nextBlockOrigin == this.currBlockOrigin) {
+            if(nextBlockOrigin == ctx.currBlockOrigin) {
                 buffer = currBlock - blockLen;
                 
-                grailBlockSwap(array, buffer, currBlock, this.currBlockLen);
-                this.currBlockLen = blockLen;
+                grailBlockSwap(array, buffer, currBlock, ctx.currBlockLen);
+                ctx.currBlockLen = blockLen;
             }
             else {
-                this.grailSmartMerge(array, currBlock, this.currBlockLen, this.currBlockOrigin,
-                                     blockLen, blockLen, cmp);
+                this.grailSmartMerge(ctx, array, currBlock, ctx.currBlockLen, ctx.currBlockOrigin,
+                                          blockLen, blockLen, cmp);
             }
         }
 
-        currBlock = nextBlock - this.currBlockLen;
+        currBlock = nextBlock - ctx.currBlockLen;
         buffer    = currBlock - blockLen;
         
         if(lastLen != 0) {
-            if(this.currBlockOrigin == Subarray.RIGHT) {
-                grailBlockSwap(array, buffer, currBlock, this.currBlockLen);
+            if(ctx.currBlockOrigin == Subarray.RIGHT) {
+                grailBlockSwap(array, buffer, currBlock, ctx.currBlockLen);
 
-                currBlock            = nextBlock;
-                this.currBlockLen    = blockLen * lastMergeBlocks;
-                this.currBlockOrigin = Subarray.LEFT;
+                currBlock           = nextBlock;
+                ctx.currBlockLen    = blockLen * lastMergeBlocks;
+                ctx.currBlockOrigin = Subarray.LEFT;
             }
             else {
-                this.currBlockLen += blockLen * lastMergeBlocks;
+                ctx.currBlockLen += blockLen * lastMergeBlocks;
             }
 
-            grailMergeForwards(array, currBlock, this.currBlockLen, lastLen, blockLen, cmp);
+            grailMergeForwards(array, currBlock, ctx.currBlockLen, lastLen, blockLen, cmp);
         }
         else {
-            grailBlockSwap(array, buffer, currBlock, this.currBlockLen);
+            grailBlockSwap(array, buffer, currBlock, ctx.currBlockLen);
         }
     }
 
-    private void grailLazyMergeBlocks(K[] array, int firstKey, int medianKey, int start,
-                                                 int blockCount, int blockLen, int lastMergeBlocks,
-                                                 int lastLen, Comparator<K> cmp) {
+    private void grailLazyMergeBlocks(GrailContext<K> ctx, K[] array, int firstKey, int medianKey, int start,
+                                                                      int blockCount, int blockLen, int lastMergeBlocks,
+                                                                      int lastLen, Comparator<K> cmp) {
         int currBlock;
         int nextBlock = start + blockLen;
 
-        this.currBlockLen    = blockLen;
-        this.currBlockOrigin = grailGetSubarray(array, firstKey, medianKey, cmp);
+        ctx.currBlockLen    = blockLen;
+        ctx.currBlockOrigin = grailGetSubarray(array, firstKey, medianKey, cmp);
 
         for(int keyIndex = 1; keyIndex < blockCount; keyIndex++, nextBlock += blockLen) {
             Subarray nextBlockOrigin;
             
-            currBlock       = nextBlock - this.currBlockLen;
+            currBlock       = nextBlock - ctx.currBlockLen;
             nextBlockOrigin = grailGetSubarray(array, firstKey + keyIndex, medianKey, cmp);
 
-            if(nextBlockOrigin == this.currBlockOrigin) {
-                this.currBlockLen = blockLen;
+            if(nextBlockOrigin == ctx.currBlockOrigin) {
+                ctx.currBlockLen = blockLen;
             }
             else {
                 // These checks were included in the original code... but why???
-                if(blockLen != 0 && this.currBlockLen != 0) {
-                    this.grailSmartLazyMerge(array, currBlock, this.currBlockLen, this.currBlockOrigin,
-                                             blockLen, cmp);
+                if(blockLen != 0 && ctx.currBlockLen != 0) {
+                    this.grailSmartLazyMerge(ctx, array, currBlock, ctx.currBlockLen, ctx.currBlockOrigin,
+                                                  blockLen, cmp);
                 }
             }
         }
 
-        currBlock = nextBlock - this.currBlockLen;
+        currBlock = nextBlock - ctx.currBlockLen;
 
         if(lastLen != 0) {
-            if(this.currBlockOrigin == Subarray.RIGHT) {
-                currBlock            = nextBlock;
-                this.currBlockLen    = blockLen * lastMergeBlocks;
-                this.currBlockOrigin = Subarray.LEFT;
+            if(ctx.currBlockOrigin == Subarray.RIGHT) {
+                currBlock           = nextBlock;
+                ctx.currBlockLen    = blockLen * lastMergeBlocks;
+                ctx.currBlockOrigin = Subarray.LEFT;
             }
             else {
-                this.currBlockLen += blockLen * lastMergeBlocks;
+                ctx.currBlockLen += blockLen * lastMergeBlocks;
             }
 
-            grailLazyMerge(array, currBlock, this.currBlockLen, lastLen, cmp);
+            grailLazyMerge(array, currBlock, ctx.currBlockLen, lastLen, cmp);
         }
     }
 
-    private void grailMergeBlocksOutOfPlace(K[] array, int firstKey, int medianKey, int start,
-                                                       int blockCount, int blockLen, int lastMergeBlocks,
-                                                       int lastLen, Comparator<K> cmp) {
+    private void grailMergeBlocksOutOfPlace(GrailContext<K> ctx, K[] array, int firstKey, int medianKey, int start,
+                                                                            int blockCount, int blockLen, int lastMergeBlocks,
+                                                                            int lastLen, Comparator<K> cmp) {
         int buffer;
         
         int currBlock;
         int nextBlock = start + blockLen;
 
-        this.currBlockLen    = blockLen;
-        this.currBlockOrigin = grailGetSubarray(array, firstKey, medianKey, cmp);
+        ctx.currBlockLen    = blockLen;
+        ctx.currBlockOrigin = grailGetSubarray(array, firstKey, medianKey, cmp);
 
         for(int keyIndex = 1; keyIndex < blockCount; keyIndex++, nextBlock += blockLen) {
             Subarray nextBlockOrigin;
             
-            currBlock       = nextBlock - this.currBlockLen;  
+            currBlock       = nextBlock - ctx.currBlockLen;  
             nextBlockOrigin = grailGetSubarray(array, firstKey + keyIndex, medianKey, cmp);
 
-            if(nextBlockOrigin == this.currBlockOrigin) {
+            if(nextBlockOrigin == ctx.currBlockOrigin) {
                 buffer = currBlock - blockLen;
                 
-                System.arraycopy(array, currBlock, array, buffer, this.currBlockLen);
-                this.currBlockLen = blockLen;
+                System.arraycopy(array, currBlock, array, buffer, ctx.currBlockLen);
+                this.metrics.arraycopy(ctx.currBlockLen);
+                ctx.currBlockLen = blockLen;
             }
             else {
-                this.grailSmartMergeOutOfPlace(array, currBlock, this.currBlockLen, this.currBlockOrigin,
-                                               blockLen, blockLen, cmp);
+                this.grailSmartMergeOutOfPlace(ctx, array, currBlock, ctx.currBlockLen, ctx.currBlockOrigin,
+                                                    blockLen, blockLen, cmp);
             }
         }
 
-        currBlock = nextBlock - this.currBlockLen;
+        currBlock = nextBlock - ctx.currBlockLen;
         buffer    = currBlock - blockLen;
         
         if(lastLen != 0) {
-            if(this.currBlockOrigin == Subarray.RIGHT) {
-                System.arraycopy(array, currBlock, array, buffer, this.currBlockLen);
+            if(ctx.currBlockOrigin == Subarray.RIGHT) {
+                System.arraycopy(array, currBlock, array, buffer, ctx.currBlockLen);
+                this.metrics.arraycopy(ctx.currBlockLen);
 
-                currBlock            = nextBlock;
-                this.currBlockLen    = blockLen * lastMergeBlocks;
-                this.currBlockOrigin = Subarray.LEFT;
+                currBlock           = nextBlock;
+                ctx.currBlockLen    = blockLen * lastMergeBlocks;
+                ctx.currBlockOrigin = Subarray.LEFT;
             }
             else {
-                this.currBlockLen += blockLen * lastMergeBlocks;
+                ctx.currBlockLen += blockLen * lastMergeBlocks;
             }
 
-            grailMergeOutOfPlace(array, currBlock, this.currBlockLen, lastLen, blockLen, cmp);
+            grailMergeOutOfPlace(array, currBlock, ctx.currBlockLen, lastLen, blockLen, cmp);
         }
         else {
-            System.arraycopy(array, currBlock, array, buffer, this.currBlockLen);
+            System.arraycopy(array, currBlock, array, buffer, ctx.currBlockLen);
+            this.metrics.arraycopy(ctx.currBlockLen);
         }
     }
 
 
     //TODO: Double-check "Merge Blocks" arguments
-    private void grailCombineInPlace(K[] array, int firstKey, int start, int length,
-                                                int subarrayLen, int blockLen,
-                                                int mergeCount, int lastSubarrays,
-                                                boolean buffer) { //TODO: Do collisions with hanging indents like these affect readability?
+    private void grailCombineInPlace(GrailContext<K> ctx, K[] array, int firstKey, int start, int length,
+                                                                     int subarrayLen, int blockLen,
+                                                                     int mergeCount, int lastSubarrays,
+                                                                     boolean buffer) { //TODO: Do collisions with hanging indents like these affect readability?
         Comparator<K> cmp = this.cmp; // local variable for performance à la Timsort
 
         int fullMerge  = 2 * subarrayLen;
@@ -929,17 +1256,17 @@ final public class GrailSort<K> {
         for(int mergeIndex = 0; mergeIndex < mergeCount; mergeIndex++) {
             int offset = start + (mergeIndex * fullMerge);
 
-            grailInsertSort(array, firstKey, blockCount, cmp);
+            grailBinaryInsertSort(array, firstKey, blockCount, cmp);
 
             // INCORRECT PARAMETER BUG FIXED: `block select sort` should be using `offset`, not `start`
             int medianKey = subarrayLen / blockLen;
             medianKey = grailBlockSelectSort(array, firstKey, offset, medianKey, blockCount, blockLen, cmp);
 
             if(buffer) {
-                this.grailMergeBlocks(array, firstKey, firstKey + medianKey, offset, blockCount, blockLen, 0, 0, cmp);
+                this.grailMergeBlocks(ctx, array, firstKey, firstKey + medianKey, offset, blockCount, blockLen, 0, 0, cmp);
             }
             else {
-                this.grailLazyMergeBlocks(array, firstKey, firstKey + medianKey, offset, blockCount, blockLen, 0, 0, cmp);
+                this.grailLazyMergeBlocks(ctx, array, firstKey, firstKey + medianKey, offset, blockCount, blockLen, 0, 0, cmp);
             }
         }
 
@@ -948,7 +1275,7 @@ final public class GrailSort<K> {
             int offset = start + (mergeCount * fullMerge);
             blockCount = lastSubarrays / blockLen;
 
-            grailInsertSort(array, firstKey, blockCount + 1, cmp);
+            grailBinaryInsertSort(array, firstKey, blockCount + 1, cmp);
 
             // INCORRECT PARAMETER BUG FIXED: `block select sort` should be using `offset`, not `start`
             int medianKey = subarrayLen / blockLen;
@@ -982,12 +1309,12 @@ final public class GrailSort<K> {
             }
             else {
                 if(buffer) {
-                    this.grailMergeBlocks(array, firstKey, firstKey + medianKey, offset,
-                                          smartMerges, blockLen, lastMergeBlocks, lastFragment, cmp);
+                    this.grailMergeBlocks(ctx, array, firstKey, firstKey + medianKey, offset,
+                                               smartMerges, blockLen, lastMergeBlocks, lastFragment, cmp);
                 }
                 else {
-                    this.grailLazyMergeBlocks(array, firstKey, firstKey + medianKey, offset,
-                                              smartMerges, blockLen, lastMergeBlocks, lastFragment, cmp);
+                    this.grailLazyMergeBlocks(ctx, array, firstKey, firstKey + medianKey, offset,
+                                                   smartMerges, blockLen, lastMergeBlocks, lastFragment, cmp);
                 }
             }
         }
@@ -997,11 +1324,12 @@ final public class GrailSort<K> {
         }
     }
 
-    private void grailCombineOutOfPlace(K[] array, int firstKey, int start, int length,
-                                                   int subarrayLen, int blockLen,
-                                                   int mergeCount, int lastSubarrays) {
+    private void grailCombineOutOfPlace(GrailContext<K> ctx, K[] array, int firstKey, int start, int length,
+                                                                        int subarrayLen, int blockLen,
+                                                                        int mergeCount, int lastSubarrays) {
         Comparator<K> cmp = this.cmp; // local variable for performance à la Timsort
-        System.arraycopy(array, start - blockLen, this.extBuffer, 0, blockLen);
+        System.arraycopy(array, start - blockLen, ctx.extBuffer, 0, blockLen);
+        this.metrics.arraycopy(blockLen);
 
         int fullMerge = 2 * subarrayLen;
         // SLIGHT OPTIMIZATION: 'blockCount' only needs to be calculated once for regular merges
@@ -1010,14 +1338,14 @@ final public class GrailSort<K> {
         for(int mergeIndex = 0; mergeIndex < mergeCount; mergeIndex++) {
             int offset = start + (mergeIndex * fullMerge);
 
-            grailInsertSort(array, firstKey, blockCount, cmp);
+            grailBinaryInsertSort(array, firstKey, blockCount, cmp);
 
             // INCORRECT PARAMETER BUG FIXED: `block select sort` should be using `offset`, not `start`
             int medianKey = subarrayLen / blockLen;
             medianKey = grailBlockSelectSort(array, firstKey, offset, medianKey, blockCount, blockLen, cmp);
 
-            this.grailMergeBlocksOutOfPlace(array, firstKey, firstKey + medianKey, offset,
-                                            blockCount, blockLen, 0, 0, cmp);
+            this.grailMergeBlocksOutOfPlace(ctx, array, firstKey, firstKey + medianKey, offset,
+                                                 blockCount, blockLen, 0, 0, cmp);
         }
 
         // INCORRECT CONDITIONAL/PARAMETER BUG FIXED: Credit to 666666t for debugging.
@@ -1025,7 +1353,7 @@ final public class GrailSort<K> {
             int offset = start + (mergeCount * fullMerge);
             blockCount = lastSubarrays / blockLen;
 
-            grailInsertSort(array, firstKey, blockCount + 1, cmp);
+            grailBinaryInsertSort(array, firstKey, blockCount + 1, cmp);
 
             // INCORRECT PARAMETER BUG FIXED: `block select sort` should be using `offset`, not `start`
             int medianKey = subarrayLen / blockLen;
@@ -1052,13 +1380,14 @@ final public class GrailSort<K> {
                 grailMergeOutOfPlace(array, offset, leftLen, lastFragment, blockLen, cmp);
             }
             else {
-                this.grailMergeBlocksOutOfPlace(array, firstKey, firstKey + medianKey, offset,
-                                                smartMerges, blockLen, lastMergeBlocks, lastFragment, cmp);
+                this.grailMergeBlocksOutOfPlace(ctx, array, firstKey, firstKey + medianKey, offset,
+                                                     smartMerges, blockLen, lastMergeBlocks, lastFragment, cmp);
             }
         }
 
         grailOutOfPlaceBufferReset(array, start, length, blockLen);
-        System.arraycopy(this.extBuffer, 0, array, start - blockLen, blockLen);
+        System.arraycopy(ctx.extBuffer, 0, array, start - blockLen, blockLen);
+        this.metrics.arraycopy(blockLen);
     }
 
     // 'keys' are on the left side of array. Blocks of length 'subarrayLen' combined. We'll combine them in pairs
@@ -1069,8 +1398,8 @@ final public class GrailSort<K> {
     //
     //                   *Please also check everything surrounding 'if(lastSubarrays != 0)' inside
     //                   'combine in-/out-of-place' methods for other renames!!*
-    private void grailCombineBlocks(K[] array, int firstKey, int start, int length,
-                                               int subarrayLen, int blockLen, boolean buffer) {
+    private void grailCombineBlocks(GrailContext<K> ctx, K[] array, int firstKey, int start, int length,
+                                                                    int subarrayLen, int blockLen, boolean buffer) {
         int     fullMerge = 2 * subarrayLen;
         int    mergeCount = length /  fullMerge;
         int lastSubarrays = length - (fullMerge * mergeCount);
@@ -1082,13 +1411,13 @@ final public class GrailSort<K> {
 
         // INCOMPLETE CONDITIONAL BUG FIXED: In order to combine blocks out-of-place, we must check if a full-sized
         //                                   block fits into our external buffer.
-        if(buffer && blockLen <= this.extBufferLen) {
-            this.grailCombineOutOfPlace(array, firstKey, start, length, subarrayLen, blockLen,
-                                        mergeCount, lastSubarrays);
+        if(buffer && blockLen <= ctx.extBufferLen) {
+            this.grailCombineOutOfPlace(ctx, array, firstKey, start, length, subarrayLen, blockLen,
+                                             mergeCount, lastSubarrays);
         }
         else {
-            this.grailCombineInPlace(array, firstKey, start, length, subarrayLen, blockLen,
-                                     mergeCount, lastSubarrays, buffer);
+            this.grailCombineInPlace(ctx, array, firstKey, start, length, subarrayLen, blockLen,
+                                          mergeCount, lastSubarrays, buffer);
         }
     }
 
@@ -1097,15 +1426,21 @@ final public class GrailSort<K> {
     //
     // cost: min(leftLen, rightLen)^2 + max(leftLen, rightLen)
     // MINOR CHANGES: better naming -- 'insertPos' is now 'mergeLen' -- and "middle"/"end" calculations simplified
-    private static <K> void grailLazyMerge(K[] array, int start, int leftLen, int rightLen, Comparator<K> cmp) {
+    private void grailLazyMerge(K[] array, int start, int leftLen, int rightLen, Comparator<K> cmp) {
+        grailLazyMerge(array, start, leftLen, rightLen, null, 0, cmp);
+    }
+
+    // Same as above, but rotations may use 'buffer' as scratch space if it isn't null.
+    private void grailLazyMerge(K[] array, int start, int leftLen, int rightLen,
+                                K[] buffer, int bufferLen, Comparator<K> cmp) {
         if(leftLen < rightLen) {
             int middle = start + leftLen;
             
             while(leftLen != 0) {
-                int mergeLen = grailBinarySearchLeft(array, middle, rightLen, array[start], cmp);
+                int mergeLen = grailGallopForwards(array, middle, rightLen, array[start], false, cmp);
 
                 if(mergeLen != 0) {
-                    grailRotate(array, start, leftLen, mergeLen);
+                    grailRotate(array, start, leftLen, mergeLen, buffer, bufferLen);
                     
                     start    += mergeLen;
                     middle   += mergeLen;
@@ -1116,11 +1451,10 @@ final public class GrailSort<K> {
                     break;
                 }
                 else {
-                    do {
-                        start++;
-                        leftLen--;
-                    } while(leftLen != 0 && cmp.compare(array[start ],
-                                                        array[middle]) <= 0);
+                    // the item at 'start' is in place; skip it and every other item that is too
+                    int mergedLen = 1 + grailGallopForwards(array, start + 1, leftLen - 1, array[middle], true, cmp);
+                    start   += mergedLen;
+                    leftLen -= mergedLen;
                 }
             }
         }
@@ -1129,10 +1463,10 @@ final public class GrailSort<K> {
             int end = start + leftLen + rightLen - 1;
             
             while(rightLen != 0) {            
-                int mergeLen = grailBinarySearchRight(array, start, leftLen, array[end], cmp);
+                int mergeLen = leftLen - grailGallopBackwards(array, start, leftLen, array[end], false, cmp);
 
                 if(mergeLen != leftLen) {
-                    grailRotate(array, start + mergeLen, leftLen - mergeLen, rightLen);
+                    grailRotate(array, start + mergeLen, leftLen - mergeLen, rightLen, buffer, bufferLen);
                     
                     end     -=  leftLen - mergeLen;
                     leftLen  = mergeLen;
@@ -1142,44 +1476,459 @@ final public class GrailSort<K> {
                     break;
                 }
                 else {
+                    // same as above, from the back
                     int middle = start + leftLen;
-                    do {
-                        rightLen--;
-                        end--;
-                    } while(rightLen != 0 && cmp.compare(array[middle - 1],
-                                                         array[end       ]) <= 0);
+                    int mergedLen = 1 + grailGallopBackwards(array, middle, rightLen - 1, array[middle - 1], true, cmp);
+                    rightLen -= mergedLen;
+                    end      -= mergedLen;
                 }
             }
         }
     }
 
-    private static <K> void grailLazyStableSort(K[] array, int start, int length, Comparator<K> cmp) {
-        for(int index = 1; index < length; index += 2) {
-            int  left = start + index - 1;
-            int right = start + index; 
-
-            if(cmp.compare(array[left], array[right]) > 0) {
-                grailSwap(array, left, right);
-            }
-        }
-        for(int mergeLen = 2; mergeLen < length; mergeLen *= 2) {
-            int fullMerge = 2 * mergeLen;
+    // Divide-and-conquer merge using binary searches and rotations (also known as "SymMerge")
+    //
+    // Takes the middle item of the longer subarray, binary searches where it lands inside the
+    // shorter subarray, and rotates it into its final position. Everything left and right of
+    // that "split item" can then be merged independently, which is what makes this merge
+    // parallelizable.
+    //
+    // Returns the final position of the split item relative to 'start'. The split item comes
+    // from the left subarray iff 'leftLen >= rightLen'.
+    private int grailRotateMergeSplit(K[] array, int start, int leftLen, int rightLen, Comparator<K> cmp) {
+        int middle = start + leftLen;
 
-            int mergeIndex;
-            int mergeEnd = length - fullMerge;
+        if(leftLen >= rightLen) {
+            int leftSplit = leftLen / 2;
+            // items from the right subarray that are *equal* to our split item must stay after it
+            int rightSplit = grailBinarySearchLeft(array, middle, rightLen, array[start + leftSplit], cmp);
 
-            for(mergeIndex = 0; mergeIndex <= mergeEnd; mergeIndex += fullMerge) {
-                grailLazyMerge(array, start + mergeIndex, mergeLen, mergeLen, cmp);
-            }
+            grailRotate(array, start + leftSplit, leftLen - leftSplit, rightSplit);
+            return leftSplit + rightSplit;
+        }
+        else {
+            int rightSplit = rightLen / 2;
+            // items from the left subarray that are *equal* to our split item must stay before it
+            int leftSplit = grailBinarySearchRight(array, start, leftLen, array[middle + rightSplit], cmp);
 
-            int leftOver = length - mergeIndex;
-            if(leftOver > mergeLen) {
-                grailLazyMerge(array, start + mergeIndex, mergeLen, leftOver - mergeLen, cmp);
-            }
+            grailRotate(array, start + leftSplit, leftLen - leftSplit, rightSplit + 1);
+            return leftSplit + rightSplit;
         }
     }
 
-    
+    // cost: O(n log n) swaps, but never O(min(leftLen, rightLen)^2) like a lazy merge can be.
+    // The longer subarray is halved by every split, so the recursion is only O(log n) deep.
+    private void grailRotateMerge(K[] array, int start, int leftLen, int rightLen, Comparator<K> cmp) {
+        while(leftLen != 0 && rightLen != 0) {
+            int middle = start + leftLen;
+
+            // already in order? nothing to do!
+            if(cmp.compare(array[middle - 1], array[middle]) <= 0) {
+                return;
+            }
+
+            // lazy merges are cheaper when one side is tiny
+            if(leftLen <= 8 || rightLen <= 8) {
+                grailLazyMerge(array, start, leftLen, rightLen, cmp);
+                return;
+            }
+
+            int split = grailRotateMergeSplit(array, start, leftLen, rightLen, cmp);
+
+            int leftSplit;
+            int rightSplit;
+            if(leftLen >= rightLen) {
+                leftSplit  = leftLen / 2;
+                rightSplit = split - leftSplit;
+                leftLen--;
+            }
+            else {
+                rightSplit = rightLen / 2;
+                leftSplit  = split - rightSplit;
+                rightLen--;
+            }
+
+            grailRotateMerge(array, start, leftSplit, rightSplit, cmp);
+
+            start    += split + 1;
+            leftLen  -= leftSplit;
+            rightLen -= rightSplit;
+        }
+    }
+
+    // Like grailRotateMerge, but only merges far enough to put the 'keepLen' smallest items, in stable
+    // order, at the front. Whatever is left over ends up after them in no particular order.
+    //
+    // A binary search finds how many of the kept items come from each side, a single rotation brings
+    // them together, and only those 'keepLen' items get merged.
+    private void grailMergeSmallest(K[] array, int start, int leftLen, int rightLen, int keepLen, Comparator<K> cmp) {
+        int middle = start + leftLen;
+
+        // find the fewest left items we can keep such that the next left item comes after the
+        // last right item we keep; left items win ties, since they came first
+        int  left = Math.max(0, keepLen - rightLen);
+        int right = Math.min(keepLen, leftLen);
+
+        while(left < right) {
+            int leftKept  = left + ((right - left) / 2);
+            int rightKept = keepLen - leftKept;
+
+            if(cmp.compare(array[middle + rightKept - 1], array[start + leftKept]) < 0) {
+                right = leftKept;
+            }
+            else {
+                left = leftKept + 1;
+            }
+        }
+
+        int  leftKept = left;
+        int rightKept = keepLen - leftKept;
+
+        grailRotate(array, start + leftKept, leftLen - leftKept, rightKept);
+        grailRotateMerge(array, start, leftKept, rightKept, cmp);
+    }
+
+    // Returns the end of the natural run beginning at 'start'. Ascending runs may contain equal items,
+    // but descending runs must be *strictly* descending, or else reversing them would be unstable.
+    private int grailFindRunEnd(K[] array, int start, int end, Comparator<K> cmp) {
+        int index = start + 1;
+
+        if(index < end && cmp.compare(array[start], array[index]) > 0) {
+            do {
+                index++;
+            } while(index < end && cmp.compare(array[index - 1], array[index]) > 0);
+        }
+        else {
+            while(index < end && cmp.compare(array[index - 1], array[index]) <= 0) {
+                index++;
+            }
+        }
+
+        return index;
+    }
+
+    private void grailReverse(K[] array, int start, int length) {
+        for(int left = start, right = start + length - 1; left < right; left++, right--) {
+            grailSwap(array, left, right);
+        }
+    }
+
+    // ADAPTIVE FRONT END: Looks for natural runs before any keys get collected. Sorted inputs are
+    // recognized in O(n) comparisons and no writes, strictly descending inputs are simply reversed,
+    // and inputs made of a few long runs get their runs merged together directly.
+    //
+    // Random inputs are rejected after looking at roughly '2 * GRAIL_MAX_NATURAL_RUNS' items, so
+    // this costs next to nothing when it doesn't pay off.
+    //
+    // Returns whether the array was sorted.
+    private boolean grailSortNaturalRuns(K[] array, int start, int length, Comparator<K> cmp) {
+        int end = start + length;
+
+        int runs = 0;
+        for(int index = start; index < end; index = grailFindRunEnd(array, index, end, cmp)) {
+            runs++;
+            if(runs > GRAIL_MAX_NATURAL_RUNS) {
+                return false;
+            }
+        }
+
+        // Record where every run ends, reversing descending runs along the way
+        int[] runEnds = new int[runs];
+        int index = start;
+        for(int run = 0; run < runs; run++) {
+            int runEnd = grailFindRunEnd(array, index, end, cmp);
+
+            if(runEnd - index > 1 && cmp.compare(array[index], array[index + 1]) > 0) {
+                grailReverse(array, index, runEnd - index);
+            }
+
+            runEnds[run] = runEnd;
+            index = runEnd;
+        }
+
+        // Bottom-up merge of neighboring runs
+        for(int mergeLen = 1; mergeLen < runs; mergeLen *= 2) {
+            for(int run = 0; run + mergeLen < runs; run += 2 * mergeLen) {
+                int   left = run == 0 ? start : runEnds[run - 1];
+                int middle = runEnds[run + mergeLen - 1];
+                int  right = runEnds[Math.min(run + (2 * mergeLen), runs) - 1];
+
+                grailRotateMerge(array, left, middle - left, right - middle, cmp);
+            }
+        }
+
+        return true;
+    }
+
+    // Lazy merge for as long as it stays cheap. With only a few unique keys, that's the whole merge;
+    // otherwise, a rotation merge takes over after GRAIL_LOW_CARDINALITY_ROTATIONS rotations, so
+    // this never costs more than O(n log n).
+    private void grailLowCardinalityMerge(K[] array, int start, int leftLen, int rightLen, Comparator<K> cmp) {
+        int middle = start + leftLen;
+
+        for(int rotations = 0; leftLen != 0 && rightLen != 0; rotations++) {
+            if(rotations == GRAIL_LOW_CARDINALITY_ROTATIONS) {
+                grailRotateMerge(array, start, leftLen, rightLen, cmp);
+                return;
+            }
+
+            int mergeLen = grailGallopForwards(array, middle, rightLen, array[start], false, cmp);
+
+            if(mergeLen != 0) {
+                grailRotate(array, start, leftLen, mergeLen);
+
+                start    += mergeLen;
+                middle   += mergeLen;
+                rightLen -= mergeLen;
+            }
+
+            if(rightLen != 0) {
+                int mergedLen = 1 + grailGallopForwards(array, start + 1, leftLen - 1, array[middle], true, cmp);
+                start   += mergedLen;
+                leftLen -= mergedLen;
+            }
+        }
+    }
+
+    // Merges array[start, start + leftLen - 1] and array[start + leftLen, start + leftLen + rightLen - 1],
+    // given that every item in them equals one of the sorted, unique keys array[firstKey, firstKey + keyCount - 1].
+    //
+    // Splitting both sides around the middle key takes two binary searches and a single rotation, which
+    // brings everything less than that key in front of everything else. Each half is then merged the same
+    // way with half the keys, so no item is rotated more than log2(keyCount) times: O(n log k) per merge,
+    // instead of the O(k * n) a lazy merge can cost.
+    private void grailKeyedMerge(K[] array, int firstKey, int keyCount, int start, int leftLen, int rightLen,
+                                 Comparator<K> cmp) {
+        if(leftLen == 0 || rightLen == 0) {
+            return;
+        }
+
+        int middle = start + leftLen;
+        if(cmp.compare(array[middle - 1], array[middle]) <= 0) {
+            return;
+        }
+
+        // Only the keys between the smallest and largest items here matter. The merge isn't in order
+        // already, so the smallest item is first on one side, and the largest is last on one side.
+        K lowest;
+        K highest;
+        if(cmp.compare(array[start], array[middle]) <= 0) {
+            lowest = array[start];
+        }
+        else {
+            lowest = array[middle];
+        }
+        if(cmp.compare(array[middle - 1], array[middle + rightLen - 1]) > 0) {
+            highest = array[middle - 1];
+        }
+        else {
+            highest = array[middle + rightLen - 1];
+        }
+
+        int keyLo = grailBinarySearchLeft(array, firstKey, keyCount, lowest, cmp);
+        int keyHi = grailBinarySearchLeft(array, firstKey, keyCount, highest, cmp) + 1;
+
+        grailKeyedMergeRange(array, firstKey + keyLo, keyHi - keyLo, start, leftLen, rightLen, cmp);
+    }
+
+    private void grailKeyedMergeRange(K[] array, int firstKey, int keyCount, int start, int leftLen, int rightLen,
+                                      Comparator<K> cmp) {
+        while(keyCount > 1 && leftLen != 0 && rightLen != 0) {
+            int middle = start + leftLen;
+
+            if(cmp.compare(array[middle - 1], array[middle]) <= 0) {
+                return;
+            }
+
+            int keySplit = keyCount / 2;
+            K pivot = array[firstKey + keySplit];
+
+            // everything less than 'pivot' goes in front, left side first
+            int  leftLow = grailBinarySearchLeft(array, start,  leftLen,  pivot, cmp);
+            int rightLow = grailBinarySearchLeft(array, middle, rightLen, pivot, cmp);
+
+            grailRotate(array, start + leftLow, leftLen - leftLow, rightLow);
+
+            grailKeyedMergeRange(array, firstKey, keySplit, start, leftLow, rightLow, cmp);
+
+            start    += leftLow + rightLow;
+            leftLen  -= leftLow;
+            rightLen -= rightLow;
+            firstKey += keySplit;
+            keyCount -= keySplit;
+        }
+    }
+
+    // LOW-CARDINALITY SORT: Takes over from Strategy 3's lazy stable sort, whose lazy merges could cost
+    // O(k * n) each, and from Strategy 2 for inputs with up to GRAIL_LOW_CARDINALITY_MAX_KEYS unique keys.
+    // Short runs are sorted by the small-array kernel, then merged bottom-up, stably and in-place:
+    //
+    // - If 'keyCount' isn't 0, every item equals one of the sorted, unique keys array[firstKey, firstKey +
+    //   keyCount - 1]. That's exactly what's left after grailCollectKeys scans a whole input without finding
+    //   enough keys for Strategy 1. grailKeyedMerge rotates each item at most log2(k) times per level of
+    //   merges, and makes only O(k log n) comparisons per merge.
+    //
+    // - Otherwise, grailPlan *thinks* there are 3 or fewer unique keys, without having collected them to
+    //   make sure. grailLowCardinalityMerge is just as cheap if it's right, and if it's wrong, this is
+    //   still O(n log^2 n).
+    private void grailLowCardinalitySort(K[] array, int firstKey, int keyCount, int start, int length, Comparator<K> cmp) {
+        int runLen = this.smallSortLen;
+
+        // Sort short runs with the small-array kernel first, rather than merging up from pairs
+        int index = 0;
+        for(; length - index > runLen; index += runLen) {
+            grailBinaryInsertSort(array, start + index, runLen, cmp);
+        }
+        grailBinaryInsertSort(array, start + index, length - index, cmp);
+
+        for(int mergeLen = runLen; mergeLen < length; mergeLen *= 2) {
+            int fullMerge = 2 * mergeLen;
+
+            int mergeIndex;
+            int mergeEnd = length - fullMerge;
+
+            for(mergeIndex = 0; mergeIndex <= mergeEnd; mergeIndex += fullMerge) {
+                if(keyCount != 0) {
+                    grailKeyedMerge(array, firstKey, keyCount, start + mergeIndex, mergeLen, mergeLen, cmp);
+                }
+                else {
+                    grailLowCardinalityMerge(array, start + mergeIndex, mergeLen, mergeLen, cmp);
+                }
+            }
+
+            int leftOver = length - mergeIndex;
+            if(leftOver > mergeLen) {
+                if(keyCount != 0) {
+                    grailKeyedMerge(array, firstKey, keyCount, start + mergeIndex, mergeLen, leftOver - mergeLen, cmp);
+                }
+                else {
+                    grailLowCardinalityMerge(array, start + mergeIndex, mergeLen, leftOver - mergeLen, cmp);
+                }
+            }
+
+            // OVERFLOW BUG FIXED: past 2^30, doubling 'mergeLen' wrapped around to a negative
+            //                     number and this loop never ended
+            if(mergeLen >= length - mergeLen) {
+                break;
+            }
+        }
+    }
+
+    // SAMPLING PLANNER: Decides what grailCommonSort should do with an input from GRAIL_PLAN_SAMPLE_LEN
+    // evenly spaced items of it, before it spends anything on natural runs or key collection.
+    //
+    // The sample only gets the final say where being wrong can't cost much:
+    //
+    // - Every natural run is either ascending or strictly descending, so if there were at most
+    //   GRAIL_MAX_NATURAL_RUNS of them, at most 3 neighboring pairs of sampled items could straddle two
+    //   runs. Either the sample would have at most 3 descents (all runs ascending), or its pairs would
+    //   switch between "descent" and "not a descent" at most 6 times. A sample with more of both
+    //   proves the runs check would fail, so it's skipped.
+    //
+    // - With 3 or fewer unique keys in the sample, all of them seen at least twice, key collection
+    //   would most likely scan the whole input just to find those few keys, and merging without them
+    //   is cheaper than that. Collection is skipped, and grailLowCardinalitySort merges without keys,
+    //   which stays O(n log^2 n) even if the sample missed a long tail of rare keys.
+    //
+    // Everything else is left to the keys actually collected, as usual. The returned GrailPlan also
+    // reports the sample's statistics and the strategy they point to; grailCommonSort hands the path
+    // it takes to GrailMetrics.
+    @Override
+    public GrailPlan grailPlan(K[] array, int start, int length) {
+        int blockLen = 1;
+        while(((long) blockLen * blockLen) < length) {
+            blockLen *= 2;
+        }
+        int idealKeys = ((length - 1) / blockLen) + 1 + blockLen;
+
+        if(length < this.smallSortLen) {
+            return new GrailPlan(GrailPlan.Path.SMALL_SORT, 0, 0, 0, 0, -1, idealKeys, 0);
+        }
+        if(length < GRAIL_PLAN_MIN_LEN) {
+            return new GrailPlan(GrailPlan.Path.NATURAL_RUNS, 0, 0, 0, 0, -1, idealKeys, 0);
+        }
+
+        Comparator<K> cmp = this.cmp;
+        int sampleLen = GRAIL_PLAN_SAMPLE_LEN;
+        int lastIndex = length - 1;
+
+        int descents = 0;
+        int  changes = 0;
+        boolean prevDescent = false;
+
+        for(int sample = 1; sample < sampleLen; sample++) {
+            K prev = array[start + (int) (((long) (sample - 1) * lastIndex) / (sampleLen - 1))];
+            K curr = array[start + (int) (((long)  sample      * lastIndex) / (sampleLen - 1))];
+
+            boolean descent = cmp.compare(prev, curr) > 0;
+            if(descent) {
+                descents++;
+            }
+            if(sample > 1 && descent != prevDescent) {
+                changes++;
+            }
+            prevDescent = descent;
+        }
+
+        // Count the unique keys in the sample, and how many of them were seen once or twice.
+        // Without anywhere to sort the sample, that takes a comparison per pair of items.
+        int sampleKeys = 0;
+        int singletons = 0;
+        int doubletons = 0;
+
+        for(int sample = 0; sample < sampleLen; sample++) {
+            K item = array[start + (int) (((long) sample * lastIndex) / (sampleLen - 1))];
+
+            boolean seen = false;
+            for(int prev = 0; prev < sample && !seen; prev++) {
+                seen = cmp.compare(array[start + (int) (((long) prev * lastIndex) / (sampleLen - 1))], item) == 0;
+            }
+            if(seen) {
+                continue;
+            }
+
+            int count = 1;
+            for(int next = sample + 1; next < sampleLen; next++) {
+                if(cmp.compare(item, array[start + (int) (((long) next * lastIndex) / (sampleLen - 1))]) == 0) {
+                    count++;
+                }
+            }
+
+            sampleKeys++;
+            if(count == 1) {
+                singletons++;
+            }
+            else if(count == 2) {
+                doubletons++;
+            }
+        }
+
+        // Chao1 estimate, except that a sample without a single repeat gives no upper bound at all
+        int estimatedKeys;
+        if(singletons == sampleLen) {
+            estimatedKeys = length;
+        }
+        else {
+            long estimate = sampleKeys + (((long) singletons * (singletons - 1)) / (2 * (doubletons + 1)));
+            estimatedKeys = (int) Math.min(estimate, length);
+        }
+
+        GrailPlan.Path path;
+        if(sampleKeys <= 3 && singletons == 0) {
+            path = GrailPlan.Path.LOW_CARDINALITY;
+        }
+        else if(descents >= GRAIL_MAX_NATURAL_RUNS && changes > 2 * (GRAIL_MAX_NATURAL_RUNS - 1)) {
+            path = GrailPlan.Path.KEY_COLLECTION;
+        }
+        else {
+            path = GrailPlan.Path.NATURAL_RUNS;
+        }
+
+        return new GrailPlan(path, sampleLen, sampleKeys, singletons, doubletons,
+                             estimatedKeys, idealKeys, descents);
+    }
+
+    
     // Calculates the minimum between numKeys and cbrt(2 * subarrayLen * keysFound).
     // Math will be further explained later, but just like in grailCommonSort, this
     // loop is rendered completely useless by the scrolling buffer optimization;
@@ -1199,8 +1948,29 @@ final public class GrailSort<K> {
 
     
     void grailCommonSort(K[] array, int start, int length, K[] extBuffer, int extBufferLen) {
-        if(length < 16) {
-            grailInsertSort(array, start, length, this.cmp);
+        if(length < this.smallSortLen) {
+            this.metrics.plan(GrailPlan.Path.SMALL_SORT);
+            grailBinaryInsertSort(array, start, length, this.cmp);
+            return;
+        }
+
+        GrailPlan.Path path;
+        if(length < GRAIL_PLAN_MIN_LEN) {
+            path = GrailPlan.Path.NATURAL_RUNS;
+        }
+        else {
+            path = this.grailPlan(array, start, length).getPath();
+        }
+        this.metrics.plan(path);
+
+        if(path == GrailPlan.Path.LOW_CARDINALITY) {
+            long phaseStart = this.metrics.startPhase();
+            grailLowCardinalitySort(array, start, 0, start, length, this.cmp);
+            this.metrics.lowCardinalitySort(phaseStart);
+            return;
+        }
+
+        if(path == GrailPlan.Path.NATURAL_RUNS && this.grailSortNaturalRuns(array, start, length, this.cmp)) {
             return;
         }
 
@@ -1208,7 +1978,7 @@ final public class GrailSort<K> {
 
         // find the smallest power of two greater than or equal to
         // the square root of the input's length
-        while((blockLen * blockLen) < length) {
+        while(((long) blockLen * blockLen) < length) {
             blockLen *= 2;
         }
 
@@ -1222,14 +1992,24 @@ final public class GrailSort<K> {
         // throughout the array
         int idealKeys = keyLen + blockLen;
 
+        long phaseStart = this.metrics.startPhase();
+
         //TODO: Clean up `start +` offsets
         int keysFound = grailCollectKeys(array, start, length, idealKeys, this.cmp);
 
+        this.metrics.keyCollection(phaseStart);
+
         boolean idealBuffer;
         if(keysFound < idealKeys) {
-            if(keysFound < 4) {
-                // GRAILSORT STRATEGY 3 -- No block swaps or scrolling buffer; resort to Lazy Stable Sort
-                grailLazyStableSort(array, start, length, this.cmp);
+            if(keysFound <= GRAIL_LOW_CARDINALITY_MAX_KEYS) {
+                // LOW CARDINALITY (used to be GRAILSORT STRATEGY 3 for fewer than 4 keys) -- Falling short of
+                // 'idealKeys' means grailCollectKeys scanned the whole input, so the keys it found are *every*
+                // unique item in it. Sort the rest around them, then merge them back in; each key is the
+                // first of its kind, so the keys win ties.
+                phaseStart = this.metrics.startPhase();
+                grailLowCardinalitySort(array, start, keysFound, start + keysFound, length - keysFound, this.cmp);
+                grailLazyMerge(array, start, keysFound, length - keysFound, this.cmp);
+                this.metrics.lowCardinalitySort(phaseStart);
                 return;
             }
             else {
@@ -1257,15 +2037,21 @@ final public class GrailSort<K> {
             subarrayLen = keyLen;
         }
 
+        GrailContext<K> ctx;
         if(idealBuffer && extBuffer != null) {
             // GRAILSORT + EXTRA SPACE
-            this.extBuffer    = extBuffer;
-            this.extBufferLen = extBufferLen;
+            ctx = new GrailContext<>(extBuffer, extBufferLen);
+        }
+        else {
+            ctx = new GrailContext<>(null, 0);
         }
 
-        this.grailBuildBlocks(array, start + bufferEnd, length - bufferEnd, subarrayLen, this.cmp);
+        phaseStart = this.metrics.startPhase();
+        this.grailBuildBlocks(ctx, array, start + bufferEnd, length - bufferEnd, subarrayLen, this.cmp);
+        this.metrics.buildBlocks(phaseStart);
 
-        while((length - bufferEnd) > (2 * subarrayLen)) {
+        for(int level = 0; (length - bufferEnd) > (2L * subarrayLen); level++) {
+            phaseStart = this.metrics.startPhase();
             subarrayLen *= 2;
 
             int currentBlockLen = blockLen;
@@ -1277,7 +2063,7 @@ final public class GrailSort<K> {
                 int keyBuffer = keyLen / 2;
                 
                 // TODO: Rewrite explanation for this math
-                if(keyBuffer >= ((2 * subarrayLen) / keyBuffer)) {
+                if(keyBuffer >= ((2L * subarrayLen) / keyBuffer)) {
                     currentBlockLen = keyBuffer;
                     scrollingBuffer = true;
                 }
@@ -1297,39 +2083,1353 @@ final public class GrailSort<K> {
                      * currentBlockLen = (2 * subarrayLen) / minKeys;
                      */
                     
-                    currentBlockLen = (2 * subarrayLen) / keyLen;
+                    currentBlockLen = (int) ((2L * subarrayLen) / keyLen);
                 }
             }
 
             // WRONG VARIABLE BUG FIXED: 4th argument should be `length - bufferEnd`, was `length - bufferLen` before.
             // Credit to 666666t and Anonymous0726 for debugging.
-            this.grailCombineBlocks(array, start, start + bufferEnd, length - bufferEnd,
-                                    subarrayLen, currentBlockLen, scrollingBuffer);
+            this.grailCombineBlocks(ctx, array, start, start + bufferEnd, length - bufferEnd,
+                                         subarrayLen, currentBlockLen, scrollingBuffer);
+
+            this.metrics.combineBlocks(level, phaseStart);
         }
 
-        grailInsertSort(array, start, bufferEnd, this.cmp);
-        grailLazyMerge(array, start, bufferEnd, length - bufferEnd, this.cmp);
+        phaseStart = this.metrics.startPhase();
+        grailBinaryInsertSort(array, start, bufferEnd, this.cmp);
+        grailLazyMerge(array, start, bufferEnd, length - bufferEnd, ctx.extBuffer, ctx.extBufferLen, this.cmp);
+        this.metrics.lazyMerge(phaseStart);
     }
 
 
+    @Override
     public void grailSortInPlace(K[] array, int start, int length) {
         this.grailCommonSort(array, start, length, null, 0);
     }
 
-    // Credit to Anonymous0726 for 'array.getClass().getComponentType()' idea
-    @SuppressWarnings("unchecked")
+    @Override
     public void grailSortStaticOOP(K[] array, int start, int length) {
-        K[] buffer = (K[]) Array.newInstance(array.getClass().getComponentType(), GRAIL_STATIC_EXT_BUFFER_LEN);
-        this.grailCommonSort(array, start, length, buffer, GRAIL_STATIC_EXT_BUFFER_LEN);
+        K[] buffer = this.buffers.acquire(array, GRAIL_STATIC_EXT_BUFFER_LEN);
+        try {
+            this.grailCommonSort(array, start, length, buffer, GRAIL_STATIC_EXT_BUFFER_LEN);
+        }
+        finally {
+            this.buffers.release(buffer);
+        }
     }
     
-    @SuppressWarnings("unchecked")
+    @Override
     public void grailSortDynamicOOP(K[] array, int start, int length) {
         int bufferLen = 1;
-        while((bufferLen * bufferLen) < length) {
+        while(((long) bufferLen * bufferLen) < length) {
+            bufferLen *= 2;
+        }
+        K[] buffer = this.buffers.acquire(array, bufferLen);
+        try {
+            this.grailCommonSort(array, start, length, buffer, bufferLen);
+        }
+        finally {
+            this.buffers.release(buffer);
+        }
+    }
+
+    // Sorts a List in-place. RandomAccess lists (ArrayList, Arrays.asList, most custom views) are
+    // sorted through ListSortable, without ever being copied into an array. Other lists would
+    // make every access O(n), so like List.sort, they're copied out, sorted, and written back.
+    //
+    // Arrays themselves are best sorted by the methods above, which access them directly.
+    @Override
+    public void grailSortList(List<K> list) {
+        if(list instanceof RandomAccess) {
+            new ListSortable<>(list, this.cmp).sort();
+        }
+        else {
+            @SuppressWarnings("unchecked")
+            K[] array = (K[]) list.toArray();
+            this.grailSortInPlace(array, 0, array.length);
+
+            ListIterator<K> iterator = list.listIterator();
+            for(K item : array) {
+                iterator.next();
+                iterator.set(item);
+            }
+        }
+    }
+
+    // SEGMENTED SORT: Sorts many independent segments laid out back to back in one array. Segment 'i'
+    // is array[offsets[i], offsets[i + 1] - 1], so 'offsets' must be non-decreasing and hold one
+    // more entry than there are segments.
+    //
+    // Segments are split into batches of roughly equal total length and sorted in parallel.
+    // Each batch takes one external buffer from this sorter's GrailBufferProvider, big enough
+    // for its longest segment, and reuses it for every segment in the batch (a
+    // ThreadLocalBufferProvider lets workers keep theirs across batches, too). Segments shorter
+    // than the small-sort cutoff go straight to the small-array kernel, and a single segment
+    // long enough to be worth it is sorted with grailSortParallel's tasks.
+    //
+    // 'cmp' must be safe to call from multiple threads at once.
+    @Override
+    public void grailSortSegmented(K[] array, int[] offsets, ForkJoinPool pool) {
+        if(offsets.length < 2) {
+            return;
+        }
+        if(offsets[0] < 0 || offsets[offsets.length - 1] > array.length) {
+            throw new IllegalArgumentException("offsets out of bounds");
+        }
+        for(int segment = 1; segment < offsets.length; segment++) {
+            if(offsets[segment] < offsets[segment - 1]) {
+                throw new IllegalArgumentException("offsets must be non-decreasing: " + offsets[segment - 1] +
+                                                   " followed by " + offsets[segment]);
+            }
+        }
+
+        int parallelism = pool.getParallelism();
+        int      length = offsets[offsets.length - 1] - offsets[0];
+
+        if(parallelism < 2 || length < 2 * GRAIL_PARALLEL_MIN_SORT_LEN) {
+            this.grailSortSegments(array, offsets, 0, offsets.length - 1);
+            return;
+        }
+
+        int batchLen = Math.max(length / (parallelism * GRAIL_SEGMENT_BATCHES_PER_THREAD), GRAIL_PARALLEL_MIN_SORT_LEN);
+        pool.invoke(new GrailSegmentsTask<>(this, array, offsets, 0, offsets.length - 1, batchLen));
+    }
+
+    @Override
+    public void grailSortSegmented(K[] array, int[] offsets) {
+        this.grailSortSegmented(array, offsets, ForkJoinPool.commonPool());
+    }
+
+    // Sorts segments 'first' through 'last - 1' one after another, sharing a single external buffer.
+    private void grailSortSegments(K[] array, int[] offsets, int first, int last) {
+        int maxLen = 0;
+        for(int segment = first; segment < last; segment++) {
+            maxLen = Math.max(maxLen, offsets[segment + 1] - offsets[segment]);
+        }
+
+        if(maxLen < this.smallSortLen) {
+            for(int segment = first; segment < last; segment++) {
+                grailBinaryInsertSort(array, offsets[segment], offsets[segment + 1] - offsets[segment], this.cmp);
+            }
+            return;
+        }
+
+        // same buffer length as grailSortDynamicOOP would use for the longest segment
+        int bufferLen = 1;
+        while(((long) bufferLen * bufferLen) < maxLen) {
             bufferLen *= 2;
         }
-        K[] buffer = (K[]) Array.newInstance(array.getClass().getComponentType(), bufferLen);
-        this.grailCommonSort(array, start, length, buffer, bufferLen);
+        K[] buffer = this.buffers.acquire(array, bufferLen);
+        try {
+            for(int segment = first; segment < last; segment++) {
+                int  start = offsets[segment];
+                int length = offsets[segment + 1] - start;
+
+                if(length < this.smallSortLen) {
+                    grailBinaryInsertSort(array, start, length, this.cmp);
+                }
+                else {
+                    this.grailCommonSort(array, start, length, buffer, bufferLen);
+                }
+            }
+        }
+        finally {
+            this.buffers.release(buffer);
+        }
+    }
+
+    // Splits the array into one segment per thread, sorts every segment in-place with its own keys
+    // and internal buffer, and then merges neighboring segments back together with parallel
+    // rotation merges. No external buffer is used, only O(log n) stack space per task.
+    //
+    // 'cmp' must be safe to call from multiple threads at once.
+    @Override
+    public void grailSortParallel(K[] array, int start, int length, ForkJoinPool pool) {
+        int parallelism = pool.getParallelism();
+
+        if(parallelism < 2 || length < 2 * GRAIL_PARALLEL_MIN_SORT_LEN) {
+            this.grailSortInPlace(array, start, length);
+            return;
+        }
+
+        int segmentLen = Math.max(((length - 1) / parallelism) + 1, GRAIL_PARALLEL_MIN_SORT_LEN);
+        pool.invoke(new GrailSortTask<>(this, array, start, length, segmentLen));
+    }
+
+    @Override
+    public void grailSortParallel(K[] array, int start, int length) {
+        this.grailSortParallel(array, start, length, ForkJoinPool.commonPool());
+    }
+
+    // STABLE PARTIAL SORT: Moves the 'k' smallest items to array[start, start + k - 1], in the same
+    // order a full stable sort would leave them, without paying to sort everything else. Ties are
+    // broken by position, so an item is only ever passed over for an equal one that came before it.
+    // The other 'length - k' items are left after them in no particular order.
+    //
+    // Only O(1) extra space is used. The first 'k' items are sorted, then the rest are scanned once:
+    // anything smaller than the current k-th smallest item gets swapped into a batch right behind
+    // that sorted "window". Swapping items forward like this keeps the batch in its original order,
+    // much like grailCollectKeys does. Whenever the batch reaches 'k' items, it's sorted in-place and
+    // merged into the window, which then keeps only the smallest 'k' items.
+    //
+    // On random data, only about k * ln(n / k) items ever make it into a batch, so this costs roughly
+    // O(n + k log(k) log(n / k)) comparisons instead of the O(n log n) of sorting the whole array.
+    @Override
+    public void grailPartialSort(K[] array, int start, int length, int k) {
+        if(k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        if(k >= length) {
+            this.grailSortInPlace(array, start, length);
+            return;
+        }
+        if(k == 0) {
+            return;
+        }
+
+        this.grailCommonSort(array, start, k, null, 0);
+
+        int   window = start + k;
+        int      end = start + length;
+        int batchLen = 0;
+
+        for(int index = window; index < end; index++) {
+            if(this.cmp.compare(array[index], array[window - 1]) < 0) {
+                if(window + batchLen != index) {
+                    grailSwap(array, window + batchLen, index);
+                }
+                batchLen++;
+
+                if(batchLen == k) {
+                    this.grailCommonSort(array, window, batchLen, null, 0);
+                    grailMergeSmallest(array, start, k, batchLen, k, this.cmp);
+                    batchLen = 0;
+                }
+            }
+        }
+
+        if(batchLen != 0) {
+            this.grailCommonSort(array, window, batchLen, null, 0);
+            grailMergeSmallest(array, start, k, batchLen, k, this.cmp);
+        }
+    }
+
+    // Returns the item a full stable sort would leave at array[start + index], and puts it there.
+    // Everything before it ends up sorted (this is a partial sort of 'index + 1' items), and
+    // nothing after it comes before it in stable order.
+    @Override
+    public K grailNthElement(K[] array, int start, int length, int index) {
+        if(index < 0 || index >= length) {
+            throw new IllegalArgumentException("index out of range: " + index);
+        }
+
+        this.grailPartialSort(array, start, length, index + 1);
+        return array[start + index];
+    }
+
+    // STABLE IN-PLACE MERGE: Merges the sorted subarrays array[start, start + leftLen - 1] and
+    // array[start + leftLen, start + leftLen + rightLen - 1] in O(n) time and O(1) extra space.
+    //
+    // This is one level of Grailsort's block merging, and works the same way: about 2 * sqrt(n)
+    // unique keys are collected from the left subarray, one part becomes the internal buffer and
+    // the rest tag the blocks. A few items at the front of the left subarray usually don't fill a
+    // whole block; they're merged back in afterwards with a lazy merge, followed by the keys.
+    //
+    // If one subarray is about as short as the keys themselves, a lazy merge is already O(n) and is
+    // used instead. If the left subarray doesn't have enough unique items for the keys, this falls
+    // back to a rotation merge, which takes O(n log n) swaps.
+    @Override
+    public void grailMerge(K[] array, int start, int leftLen, int rightLen) {
+        Comparator<K> cmp = this.cmp;
+
+        if(leftLen == 0 || rightLen == 0) {
+            return;
+        }
+
+        int middle = start + leftLen;
+        int length = leftLen + rightLen;
+
+        // already in order? nothing to do!
+        if(cmp.compare(array[middle - 1], array[middle]) <= 0) {
+            return;
+        }
+        // entirely out of order? just swap the subarrays!
+        if(cmp.compare(array[start], array[start + length - 1]) > 0) {
+            grailRotate(array, start, leftLen, rightLen);
+            return;
+        }
+
+        int blockLen = 1;
+        while(((long) blockLen * blockLen) < length) {
+            blockLen *= 2;
+        }
+        int keyLen = ((length - 1) / blockLen) + 1;
+        int idealKeys = keyLen + blockLen;
+
+        if(leftLen <= idealKeys || rightLen <= idealKeys) {
+            grailLazyMerge(array, start, leftLen, rightLen, cmp);
+            return;
+        }
+
+        int keysFound = grailCollectSortedKeys(array, start, leftLen, idealKeys, cmp);
+
+        if(keysFound < idealKeys) {
+            grailRotateMerge(array, start + keysFound, leftLen - keysFound, rightLen, cmp);
+            grailLazyMerge(array, start, keysFound, length - keysFound, cmp);
+            return;
+        }
+
+        // array[start, start + keyLen - 1]                       <=> keys
+        // array[start + keyLen, start + idealKeys - 1]           <=> internal buffer
+        // array[start + idealKeys, start + idealKeys + frontLen] <=> "front" that doesn't fill a block
+        //
+        // Rotating the front ahead of the buffer leaves the buffer right next to the left subarray's
+        // remaining blocks, which grailCombineInPlace then merges just like Grailsort's last subarrays.
+        int frontLen = (leftLen - idealKeys) % blockLen;
+        grailRotate(array, start + keyLen, blockLen, frontLen);
+
+        int blocksStart = start + idealKeys + frontLen;
+        int subarrayLen = leftLen - idealKeys - frontLen;
+        int    mergeLen = subarrayLen + rightLen;
+
+        if(subarrayLen != 0) {
+            GrailContext<K> ctx = new GrailContext<>(null, 0);
+            this.grailCombineInPlace(ctx, array, start, blocksStart, mergeLen, subarrayLen, blockLen,
+                                          0, mergeLen, true);
+        }
+
+        // Put the buffer back with the keys, then merge in the front (which came before everything
+        // it's merged with), and finally the keys (which came before everything else).
+        grailRotate(array, start + keyLen, frontLen, blockLen);
+        grailLazyMerge(array, start + idealKeys, frontLen, mergeLen, cmp);
+
+        grailBinaryInsertSort(array, start, idealKeys, cmp);
+        grailLazyMerge(array, start, idealKeys, length - idealKeys, cmp);
+    }
+
+    // RESUMABLE SORT: Returns a GrailStepper that sorts array[start, start + length - 1] in-place and
+    // stably, a slice at a time, for callers that can't block for as long as grailSortInPlace takes.
+    // Nothing is sorted until its first step; see GrailStepper for how to drive it.
+    public GrailStepper<K> grailSortStepper(K[] array, int start, int length) {
+        return new GrailStepper<>(this, array, start, length);
+    }
+
+    private static final class GrailSortTask<K> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final GrailSort<K> sorter;
+        private final K[] array;
+        private final int start;
+        private final int length;
+        private final int segmentLen;
+
+        GrailSortTask(GrailSort<K> sorter, K[] array, int start, int length, int segmentLen) {
+            this.sorter     = sorter;
+            this.array      = array;
+            this.start      = start;
+            this.length     = length;
+            this.segmentLen = segmentLen;
+        }
+
+        @Override
+        protected void compute() {
+            if(this.length <= this.segmentLen) {
+                this.sorter.grailSortInPlace(this.array, this.start, this.length);
+                return;
+            }
+
+            int leftLen  = this.length / 2;
+            int rightLen = this.length - leftLen;
+
+            invokeAll(new GrailSortTask<>(this.sorter, this.array, this.start,           leftLen,  this.segmentLen),
+                      new GrailSortTask<>(this.sorter, this.array, this.start + leftLen, rightLen, this.segmentLen));
+
+            new GrailMergeTask<>(this.sorter, this.array, this.start, leftLen, rightLen).compute();
+        }
+    }
+
+    private static final class GrailSegmentsTask<K> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final GrailSort<K> sorter;
+        private final K[] array;
+        private final int[] offsets;
+        private final int first;
+        private final int last;
+        private final int batchLen;
+
+        GrailSegmentsTask(GrailSort<K> sorter, K[] array, int[] offsets, int first, int last, int batchLen) {
+            this.sorter   = sorter;
+            this.array    = array;
+            this.offsets  = offsets;
+            this.first    = first;
+            this.last     = last;
+            this.batchLen = batchLen;
+        }
+
+        @Override
+        protected void compute() {
+            int  start = this.offsets[this.first];
+            int length = this.offsets[this.last] - start;
+
+            if(this.last - this.first == 1) {
+                // one segment too big for a batch: sort it in parallel by itself
+                if(length >= 2 * GRAIL_PARALLEL_MIN_SORT_LEN) {
+                    int parallelism = getPool().getParallelism();
+                    int  segmentLen = Math.max(((length - 1) / parallelism) + 1, GRAIL_PARALLEL_MIN_SORT_LEN);
+                    new GrailSortTask<>(this.sorter, this.array, start, length, segmentLen).compute();
+                }
+                else {
+                    this.sorter.grailSortSegments(this.array, this.offsets, this.first, this.last);
+                }
+                return;
+            }
+
+            if(length <= this.batchLen) {
+                this.sorter.grailSortSegments(this.array, this.offsets, this.first, this.last);
+                return;
+            }
+
+            // Split where half of the items are on either side; 'offsets' is sorted, so that's
+            // a binary search for the first segment starting past the middle item
+            int middle = start + (length / 2);
+            int   left = this.first + 1;
+            int  right = this.last - 1;
+
+            while(left < right) {
+                int segment = left + ((right - left) / 2);
+
+                if(this.offsets[segment] <= middle) {
+                    left = segment + 1;
+                }
+                else {
+                    right = segment;
+                }
+            }
+
+            invokeAll(new GrailSegmentsTask<>(this.sorter, this.array, this.offsets, this.first, left, this.batchLen),
+                      new GrailSegmentsTask<>(this.sorter, this.array, this.offsets, left, this.last, this.batchLen));
+        }
+    }
+
+    private static final class GrailMergeTask<K> extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final GrailSort<K> sorter;
+        private final K[] array;
+        private final int start;
+        private final int leftLen;
+        private final int rightLen;
+
+        GrailMergeTask(GrailSort<K> sorter, K[] array, int start, int leftLen, int rightLen) {
+            this.sorter   = sorter;
+            this.array    = array;
+            this.start    = start;
+            this.leftLen  = leftLen;
+            this.rightLen = rightLen;
+        }
+
+        @Override
+        protected void compute() {
+            Comparator<K> cmp = this.sorter.cmp;
+
+            int leftLen  = this.leftLen;
+            int rightLen = this.rightLen;
+
+            if(leftLen + rightLen <= GRAIL_PARALLEL_MIN_MERGE_LEN || leftLen <= 8 || rightLen <= 8) {
+                this.sorter.grailRotateMerge(this.array, this.start, leftLen, rightLen, cmp);
+                return;
+            }
+
+            int middle = this.start + leftLen;
+            if(cmp.compare(this.array[middle - 1], this.array[middle]) <= 0) {
+                return;
+            }
+
+            int split = this.sorter.grailRotateMergeSplit(this.array, this.start, leftLen, rightLen, cmp);
+
+            int leftSplit;
+            int rightSplit;
+            if(leftLen >= rightLen) {
+                leftSplit  = leftLen / 2;
+                rightSplit = split - leftSplit;
+                leftLen--;
+            }
+            else {
+                rightSplit = rightLen / 2;
+                leftSplit  = split - rightSplit;
+                rightLen--;
+            }
+
+            invokeAll(new GrailMergeTask<>(this.sorter, this.array, this.start, leftSplit, rightSplit),
+                      new GrailMergeTask<>(this.sorter, this.array, this.start + split + 1,
+                                           leftLen - leftSplit, rightLen - rightSplit));
+        }
+    }
+
+    // Grailsort with every local variable of grailCommonSort -- and of the loops it calls -- turned into
+    // a field, so it can stop after any "unit" of work and carry on from there later. The phase, the keys
+    // found, the current 'subarrayLen', which merge and which block it's on, and the context's
+    // 'currBlockLen' and 'currBlockOrigin' are all it needs to remember, so it still uses O(1) extra space.
+    //
+    // A unit is one merge while building blocks, one key inserted into the key buffer, one block selected,
+    // one block merged, one stretch of the buffer reset, one step of a lazy merge, and so on. Work that
+    // could be longer than that -- moving the keys while collecting them, lazy merges' rotations, and the
+    // merge of the last, uneven subarrays at each level -- is split into slices of at most 'unitLen' (about
+    // sqrt n) swaps, spread over as many units as it takes. With enough unique keys for Strategy 1, every
+    // unit costs O(sqrt n). Strategy 2's blocks are '2 * subarrayLen / keyLen' items long, though, so with
+    // only a few keys, its units grow with n.
+    //
+    // These are Grailsort's original in-place strategies, not quite grailSortInPlace's: that sends inputs
+    // with at most GRAIL_LOW_CARDINALITY_MAX_KEYS unique keys to grailLowCardinalitySort, while the stepper
+    // still sorts them with Strategy 2, or with fewer than 4 keys, with Strategy 3's lazy stable sort. It
+    // skips the natural runs check, too. A stable sort only has one possible result, though, so the array
+    // still ends up exactly like grailSortInPlace would leave it. The array mustn't be touched by anything
+    // else until the sort is done.
+    //
+    // Typical use, from an event loop:
+    //
+    //     GrailSort.GrailStepper<K> stepper = sorter.grailSortStepper(array, 0, array.length);
+    //     while(!stepper.step(500_000)) {
+    //         // handle other events
+    //     }
+    public static final class GrailStepper<K> {
+        private enum Phase {
+            SMALL_SORT,
+            COLLECT_KEYS,
+            MOVE_KEYS,
+            LAZY_RUNS,
+            LAZY_MERGES,
+            PAIRWISE_SWAPS,
+            BUILD_FORWARDS,
+            BUILD_BACKWARDS,
+            NEXT_LEVEL,
+            SORT_KEYS,
+            SELECT_BLOCKS,
+            MERGE_BLOCKS,
+            MERGE_FORWARDS,
+            NEXT_MERGE,
+            RESET_BUFFER,
+            SORT_ALL_KEYS,
+            LAZY_MERGE,
+            ROTATE,
+            DONE
+        }
+
+        private final GrailSort<K> sorter;
+        private final K[] array;
+        private final int start;
+        private final int length;
+
+        // Loops that only do O(1) work per iteration run this many iterations per unit
+        private final int unitLen;
+
+        private final GrailContext<K> ctx;
+
+        private Phase phase;
+
+        // Key collection and strategy
+        private int idealKeys;
+        private int keysFound;
+        private int firstKey;
+        private int currKey;
+        private int blockLen;
+        private int keyLen;
+        private int bufferEnd;
+        private boolean idealBuffer;
+
+        // Building blocks, and the lazy stable sort
+        private int buildStart;
+        private int mergeLen;
+        private int mergeIndex;
+
+        // Combining blocks
+        private int subarrayLen;
+        private int currentBlockLen;
+        private boolean scrollingBuffer;
+        private int combineLen;
+        private int mergeCount;
+        private int lastSubarrays;
+        private int offset;
+        private int blockCount;
+        private int keyCount;
+        private int item;
+        private int firstBlock;
+        private int medianKey;
+        private int keyIndex;
+        private int nextBlock;
+        private int smartMerges;
+        private int lastMergeBlocks;
+        private int lastFragment;
+        private int resetLen;
+
+        // The lazy or buffered merge in progress, and the phase to go back to once it's done
+        private int mergeStart;
+        private int leftLen;
+        private int rightLen;
+        private int mergeBuffer;
+        private boolean mergeForwards;
+        private Phase mergeNext;
+
+        // The rotation in progress, how much of its current block swap is done, and the phase to
+        // go back to once it's done
+        private int rotateStart;
+        private int rotateLeftLen;
+        private int rotateRightLen;
+        private int rotateDone;
+        private Phase rotateNext;
+
+        GrailStepper(GrailSort<K> sorter, K[] array, int start, int length) {
+            this.sorter = sorter;
+            this.array  = array;
+            this.start  = start;
+            this.length = length;
+            this.ctx    = new GrailContext<>(null, 0);
+
+            int blockLen = 1;
+            while(((long) blockLen * blockLen) < length) {
+                blockLen *= 2;
+            }
+            this.unitLen = blockLen;
+
+            if(length < sorter.smallSortLen) {
+                this.phase = Phase.SMALL_SORT;
+                return;
+            }
+
+            this.blockLen  = blockLen;
+            this.keyLen    = ((length - 1) / blockLen) + 1;
+            this.idealKeys = this.keyLen + blockLen;
+            this.keysFound = 1;
+            this.firstKey  = 0;
+            this.currKey   = 1;
+            this.phase     = Phase.COLLECT_KEYS;
+        }
+
+        // Sorts until 'budgetNanos' nanoseconds have passed, and returns whether the array is sorted.
+        // At least one unit of work is always done, so repeated calls make progress with any budget.
+        public boolean step(long budgetNanos) {
+            long begin = System.nanoTime();
+
+            while(this.phase != Phase.DONE) {
+                this.unit();
+
+                if(System.nanoTime() - begin >= budgetNanos) {
+                    break;
+                }
+            }
+            return this.phase == Phase.DONE;
+        }
+
+        // Does at most 'maxUnits' units of work, and returns whether the array is sorted.
+        public boolean stepUnits(int maxUnits) {
+            for(int units = 0; units < maxUnits && this.phase != Phase.DONE; units++) {
+                this.unit();
+            }
+            return this.phase == Phase.DONE;
+        }
+
+        // Sorts whatever is left in one go.
+        public void finish() {
+            while(this.phase != Phase.DONE) {
+                this.unit();
+            }
+        }
+
+        public boolean isDone() {
+            return this.phase == Phase.DONE;
+        }
+
+        private void unit() {
+            switch(this.phase) {
+                case SMALL_SORT:      this.smallSort();      break;
+                case COLLECT_KEYS:    this.collectKeys();    break;
+                case MOVE_KEYS:       this.moveKeys();       break;
+                case LAZY_RUNS:       this.lazyRuns();       break;
+                case LAZY_MERGES:     this.lazyMerges();     break;
+                case PAIRWISE_SWAPS:  this.pairwiseSwaps();  break;
+                case BUILD_FORWARDS:  this.buildForwards();  break;
+                case BUILD_BACKWARDS: this.buildBackwards(); break;
+                case NEXT_LEVEL:      this.nextLevel();      break;
+                case SORT_KEYS:       this.sortKeys();       break;
+                case SELECT_BLOCKS:   this.selectBlock();    break;
+                case MERGE_BLOCKS:    this.mergeBlock();     break;
+                case MERGE_FORWARDS:  this.mergeForwards();  break;
+                case NEXT_MERGE:      this.nextMerge();      break;
+                case RESET_BUFFER:    this.resetBuffer();    break;
+                case SORT_ALL_KEYS:   this.sortAllKeys();    break;
+                case LAZY_MERGE:      this.lazyMerge();      break;
+                case ROTATE:          this.rotate();         break;
+                default:                                     break;
+            }
+        }
+
+        private void smallSort() {
+            this.sorter.grailBinaryInsertSort(this.array, this.start, this.length, this.sorter.cmp);
+            this.phase = Phase.DONE;
+        }
+
+        // Same as grailCollectKeys, up to 'unitLen' candidates or one new key at a time. grailCollectKeys
+        // rotates the keys past every item skipped since the last new key, which costs O(n) after a long
+        // run of equal items. Instead, while there are at least 'keysFound' of those, the keys swap places
+        // with the next 'keysFound' of them, one block swap per unit, which keeps them in the same order.
+        private void collectKeys() {
+            GrailSort<K> sorter = this.sorter;
+            Comparator<K> cmp = sorter.cmp;
+            K[] array = this.array;
+            int start = this.start;
+
+            int keysFound = this.keysFound;
+            int  firstKey = this.firstKey;
+            int   currKey = this.currKey;
+            int   scanEnd = Math.min(this.length, currKey + this.unitLen);
+
+            while(currKey < scanEnd && keysFound < this.idealKeys) {
+                int insertPos = sorter.grailBinarySearchLeft(array, start + firstKey, keysFound, array[start + currKey], cmp);
+
+                if(insertPos == keysFound || cmp.compare(array[start +  currKey            ],
+                                                         array[start + firstKey + insertPos]) != 0) {
+                    int skippedLen = currKey - (firstKey + keysFound);
+                    if(skippedLen >= keysFound) {
+                        // 'currKey' is looked at again next unit
+                        sorter.grailBlockSwap(array, start + firstKey, start + firstKey + keysFound, keysFound);
+                        firstKey += keysFound;
+                        break;
+                    }
+
+                    sorter.grailRotate(array, start + firstKey, keysFound, skippedLen);
+                    firstKey = currKey - keysFound;
+                    sorter.grailRotate(array, start + firstKey + insertPos, keysFound - insertPos, 1);
+                    keysFound++;
+
+                    // each new key costs O(keysFound) writes; one per unit
+                    currKey++;
+                    break;
+                }
+                currKey++;
+            }
+
+            this.keysFound = keysFound;
+            this.firstKey  = firstKey;
+            this.currKey   = currKey;
+
+            if(currKey == this.length || keysFound == this.idealKeys) {
+                this.phase = Phase.MOVE_KEYS;
+            }
+        }
+
+        // grailCollectKeys ends by rotating the keys all the way back to the start, which costs O(n).
+        // Swapping them with the items right before them instead moves them back 'keysFound' spaces at
+        // a time, in the same order, for O(keysFound) per swap.
+        private void moveKeys() {
+            int keysFound = this.keysFound;
+            int  firstKey = this.firstKey;
+
+            for(int moved = 0; firstKey >= keysFound && moved < this.unitLen; moved += keysFound) {
+                this.sorter.grailBlockSwap(this.array, this.start + firstKey - keysFound, this.start + firstKey, keysFound);
+                firstKey -= keysFound;
+            }
+            this.firstKey = firstKey;
+
+            if(firstKey < keysFound) {
+                this.sorter.grailRotate(this.array, this.start, firstKey, keysFound);
+                this.chooseStrategy();
+            }
+        }
+
+        // Same decisions as grailCommonSort
+        private void chooseStrategy() {
+            if(this.keysFound < this.idealKeys) {
+                if(this.keysFound < 4) {
+                    // GRAILSORT STRATEGY 3
+                    this.mergeIndex = 0;
+                    this.phase = Phase.LAZY_RUNS;
+                    return;
+                }
+
+                // GRAILSORT STRATEGY 2
+                this.keyLen      = this.blockLen;
+                this.blockLen    = 0;
+                this.idealBuffer = false;
+
+                while(this.keyLen > this.keysFound) {
+                    this.keyLen /= 2;
+                }
+            }
+            else {
+                // GRAILSORT STRATEGY 1
+                this.idealBuffer = true;
+            }
+
+            this.bufferEnd = this.blockLen + this.keyLen;
+            if(this.idealBuffer) {
+                this.subarrayLen = this.blockLen;
+            }
+            else {
+                this.subarrayLen = this.keyLen;
+            }
+
+            this.mergeIndex = 0;
+            this.phase = Phase.PAIRWISE_SWAPS;
+        }
+
+        // Strategy 3's lazy stable sort, one run per unit...
+        private void lazyRuns() {
+            int runLen = this.sorter.smallSortLen;
+
+            if(this.length - this.mergeIndex > runLen) {
+                this.sorter.grailBinaryInsertSort(this.array, this.start + this.mergeIndex, runLen, this.sorter.cmp);
+                this.mergeIndex += runLen;
+                return;
+            }
+
+            this.sorter.grailBinaryInsertSort(this.array, this.start + this.mergeIndex,
+                                              this.length - this.mergeIndex, this.sorter.cmp);
+            this.mergeLen   = runLen;
+            this.mergeIndex = 0;
+            if(this.mergeLen < this.length) {
+                this.phase = Phase.LAZY_MERGES;
+            }
+            else {
+                this.phase = Phase.DONE;
+            }
+        }
+
+        // ...and then each merge is stepped through by lazyMerge()
+        private void lazyMerges() {
+            int fullMerge = 2 * this.mergeLen;
+            int mergeStart = this.start + this.mergeIndex;
+
+            if(this.mergeIndex <= this.length - fullMerge) {
+                this.mergeIndex += fullMerge;
+                this.startLazyMerge(mergeStart, this.mergeLen, this.mergeLen, Phase.LAZY_MERGES);
+                return;
+            }
+
+            int leftOver = this.length - this.mergeIndex;
+            if(leftOver > this.mergeLen) {
+                this.mergeIndex = this.length;
+                this.startLazyMerge(mergeStart, this.mergeLen, leftOver - this.mergeLen, Phase.LAZY_MERGES);
+                return;
+            }
+
+            if(this.mergeLen >= this.length - this.mergeLen) {
+                this.phase = Phase.DONE;
+            }
+            else {
+                this.mergeLen  *= 2;
+                this.mergeIndex = 0;
+            }
+        }
+
+        // Same as grailPairwiseSwaps; an even number of items per unit, so that the pairs line up
+        private void pairwiseSwaps() {
+            int buildLen = this.length - this.bufferEnd;
+            int    chunk = Math.min(2 * this.unitLen, buildLen - this.mergeIndex);
+
+            this.sorter.grailPairwiseSwaps(this.array, this.start + this.bufferEnd + this.mergeIndex, chunk, this.sorter.cmp);
+            this.mergeIndex += chunk;
+
+            if(this.mergeIndex == buildLen) {
+                this.buildStart = this.start + this.bufferEnd - 2;
+                this.mergeLen   = 2;
+                this.mergeIndex = this.buildStart;
+                this.phase      = Phase.BUILD_FORWARDS;
+            }
+        }
+
+        // Same as the first loop of grailBuildInPlace, with short merges batched up to 'unitLen' items
+        private void buildForwards() {
+            GrailSort<K> sorter = this.sorter;
+            int buildLen = this.length - this.bufferEnd;
+
+            if(this.mergeLen < this.subarrayLen) {
+                int mergeLen  = this.mergeLen;
+                int fullMerge = 2 * mergeLen;
+                int mergeEnd  = this.buildStart + buildLen - fullMerge;
+
+                for(int merged = 0; this.mergeIndex <= mergeEnd && merged < this.unitLen; merged += fullMerge) {
+                    sorter.grailMergeForwards(this.array, this.mergeIndex, mergeLen, mergeLen, mergeLen, sorter.cmp);
+                    this.mergeIndex += fullMerge;
+                }
+                if(this.mergeIndex <= mergeEnd) {
+                    return;
+                }
+
+                int leftOver = buildLen - (this.mergeIndex - this.buildStart);
+                if(leftOver > mergeLen) {
+                    sorter.grailMergeForwards(this.array, this.mergeIndex, mergeLen, leftOver - mergeLen, mergeLen, sorter.cmp);
+                }
+                else {
+                    sorter.grailRotate(this.array, this.mergeIndex - mergeLen, mergeLen, leftOver);
+                }
+
+                this.buildStart -= mergeLen;
+                this.mergeLen   *= 2;
+                this.mergeIndex  = this.buildStart;
+                return;
+            }
+
+            int bufferLen  = this.subarrayLen;
+            int fullMerge  = 2 * bufferLen;
+            int lastBlock  = buildLen % fullMerge;
+            int lastOffset = this.buildStart + buildLen - lastBlock;
+
+            if(lastBlock <= bufferLen) {
+                sorter.grailRotate(this.array, lastOffset, lastBlock, bufferLen);
+            }
+            else {
+                sorter.grailMergeBackwards(this.array, lastOffset, bufferLen, lastBlock - bufferLen, bufferLen, sorter.cmp);
+            }
+
+            this.mergeIndex = lastOffset - fullMerge;
+            this.phase = Phase.BUILD_BACKWARDS;
+        }
+
+        // Same as the last loop of grailBuildInPlace
+        private void buildBackwards() {
+            int bufferLen = this.subarrayLen;
+
+            if(this.mergeIndex >= this.buildStart) {
+                this.sorter.grailMergeBackwards(this.array, this.mergeIndex, bufferLen, bufferLen, bufferLen, this.sorter.cmp);
+                this.mergeIndex -= 2 * bufferLen;
+            }
+            else {
+                this.phase = Phase.NEXT_LEVEL;
+            }
+        }
+
+        // Same as one iteration of grailCommonSort's level loop, up to grailCombineBlocks
+        private void nextLevel() {
+            int length = this.length - this.bufferEnd;
+
+            if(length <= 2L * this.subarrayLen) {
+                this.item  = 1;
+                this.phase = Phase.SORT_ALL_KEYS;
+                return;
+            }
+
+            this.subarrayLen *= 2;
+            this.currentBlockLen = this.blockLen;
+            this.scrollingBuffer = this.idealBuffer;
+
+            if(!this.idealBuffer) {
+                int keyBuffer = this.keyLen / 2;
+
+                if(keyBuffer >= ((2L * this.subarrayLen) / keyBuffer)) {
+                    this.currentBlockLen = keyBuffer;
+                    this.scrollingBuffer = true;
+                }
+                else {
+                    this.currentBlockLen = (int) ((2L * this.subarrayLen) / this.keyLen);
+                }
+            }
+
+            int fullMerge = 2 * this.subarrayLen;
+            this.mergeCount    = length /  fullMerge;
+            this.lastSubarrays = length - (fullMerge * this.mergeCount);
+
+            if(this.lastSubarrays <= this.subarrayLen) {
+                length -= this.lastSubarrays;
+                this.lastSubarrays = 0;
+            }
+
+            this.combineLen = length;
+            this.mergeIndex = 0;
+            this.startMerge();
+        }
+
+        // Sets up merging the next pair of subarrays, like each iteration of grailCombineInPlace.
+        // Once they're all merged, the scrolling buffer (if there is one) is reset in slices.
+        private void startMerge() {
+            int fullMerge = 2 * this.subarrayLen;
+
+            if(this.mergeIndex < this.mergeCount) {
+                this.blockCount = fullMerge / this.currentBlockLen;
+                this.keyCount   = this.blockCount;
+            }
+            else if(this.mergeIndex == this.mergeCount && this.lastSubarrays != 0) {
+                this.blockCount = this.lastSubarrays / this.currentBlockLen;
+                this.keyCount   = this.blockCount + 1;
+            }
+            else {
+                if(this.scrollingBuffer) {
+                    this.resetLen = this.combineLen;
+                    this.phase = Phase.RESET_BUFFER;
+                }
+                else {
+                    this.phase = Phase.NEXT_LEVEL;
+                }
+                return;
+            }
+
+            this.offset = this.start + this.bufferEnd + (this.mergeIndex * fullMerge);
+            this.item   = 1;
+            this.phase  = Phase.SORT_KEYS;
+        }
+
+        // One key per unit
+        private void sortKeys() {
+            if(this.item < this.keyCount) {
+                this.sorter.grailBinaryInsert(this.array, this.start, this.item, this.sorter.cmp);
+                this.item++;
+                return;
+            }
+
+            this.medianKey  = this.subarrayLen / this.currentBlockLen;
+            this.firstBlock = 0;
+            this.phase = Phase.SELECT_BLOCKS;
+        }
+
+        // One iteration of grailBlockSelectSort per unit
+        private void selectBlock() {
+            GrailSort<K> sorter = this.sorter;
+            Comparator<K> cmp = sorter.cmp;
+            K[] array = this.array;
+
+            int  firstKey = this.start;
+            int  blockLen = this.currentBlockLen;
+            int    offset = this.offset;
+
+            if(this.firstBlock < this.blockCount) {
+                int  firstBlock = this.firstBlock;
+                int selectBlock = firstBlock;
+
+                for(int currBlock = firstBlock + 1; currBlock < this.blockCount; currBlock++) {
+                    int compare = cmp.compare(array[offset + (currBlock   * blockLen)],
+                                              array[offset + (selectBlock * blockLen)]);
+
+                    if(compare < 0 || (compare == 0 && cmp.compare(array[firstKey +   currBlock],
+                                                                   array[firstKey + selectBlock]) < 0)) {
+                        selectBlock = currBlock;
+                    }
+                }
+
+                if(selectBlock != firstBlock) {
+                    sorter.grailBlockSwap(array, offset + (firstBlock * blockLen), offset + (selectBlock * blockLen), blockLen);
+                    sorter.grailSwap(array, firstKey + firstBlock, firstKey + selectBlock);
+
+                    if(this.medianKey == firstBlock) {
+                        this.medianKey = selectBlock;
+                    }
+                    else if(this.medianKey == selectBlock) {
+                        this.medianKey = firstBlock;
+                    }
+                }
+
+                this.firstBlock++;
+                return;
+            }
+
+            if(this.mergeIndex < this.mergeCount) {
+                this.smartMerges     = this.blockCount;
+                this.lastMergeBlocks = 0;
+                this.lastFragment    = 0;
+            }
+            else {
+                this.lastFragment = this.lastSubarrays - (this.blockCount * blockLen);
+                if(this.lastFragment != 0) {
+                    this.lastMergeBlocks = sorter.grailCountLastMergeBlocks(array, offset, this.blockCount, blockLen, cmp);
+                }
+                else {
+                    this.lastMergeBlocks = 0;
+                }
+                this.smartMerges = this.blockCount - this.lastMergeBlocks;
+
+                if(this.smartMerges == 0) {
+                    int leftLen = this.lastMergeBlocks * blockLen;
+
+                    if(this.scrollingBuffer) {
+                        this.startMergeForwards(offset, leftLen, this.lastFragment, Phase.NEXT_MERGE);
+                    }
+                    else {
+                        this.startLazyMerge(offset, leftLen, this.lastFragment, Phase.NEXT_MERGE);
+                    }
+                    return;
+                }
+            }
+
+            this.ctx.currBlockLen    = blockLen;
+            this.ctx.currBlockOrigin = sorter.grailGetSubarray(array, firstKey, firstKey + this.medianKey, cmp);
+            this.keyIndex  = 1;
+            this.nextBlock = offset + blockLen;
+            this.phase = Phase.MERGE_BLOCKS;
+        }
+
+        // One iteration of grailMergeBlocks or grailLazyMergeBlocks per unit
+        private void mergeBlock() {
+            GrailSort<K> sorter = this.sorter;
+            Comparator<K> cmp = sorter.cmp;
+            GrailContext<K> ctx = this.ctx;
+            K[] array = this.array;
+
+            int firstKey = this.start;
+            int blockLen = this.currentBlockLen;
+
+            if(this.keyIndex < this.smartMerges) {
+                int currBlock = this.nextBlock - ctx.currBlockLen;
+                Subarray nextBlockOrigin = sorter.grailGetSubarray(array, firstKey + this.keyIndex,
+                                                                   firstKey + this.medianKey, cmp);
+
+                if(nextBlockOrigin == ctx.currBlockOrigin) {
+                    if(this.scrollingBuffer) {
+                        sorter.grailBlockSwap(array, currBlock - blockLen, currBlock, ctx.currBlockLen);
+                    }
+                    ctx.currBlockLen = blockLen;
+                }
+                else if(this.scrollingBuffer) {
+                    sorter.grailSmartMerge(ctx, array, currBlock, ctx.currBlockLen, ctx.currBlockOrigin,
+                                           blockLen, blockLen, cmp);
+                }
+                else if(blockLen != 0 && ctx.currBlockLen != 0) {
+                    sorter.grailSmartLazyMerge(ctx, array, currBlock, ctx.currBlockLen, ctx.currBlockOrigin,
+                                               blockLen, cmp);
+                }
+
+                this.keyIndex++;
+                this.nextBlock += blockLen;
+                return;
+            }
+
+            int currBlock = this.nextBlock - ctx.currBlockLen;
+            int    buffer = currBlock - blockLen;
+
+            if(this.lastFragment != 0) {
+                if(ctx.currBlockOrigin == Subarray.RIGHT) {
+                    if(this.scrollingBuffer) {
+                        sorter.grailBlockSwap(array, buffer, currBlock, ctx.currBlockLen);
+                    }
+
+                    currBlock           = this.nextBlock;
+                    ctx.currBlockLen    = blockLen * this.lastMergeBlocks;
+                    ctx.currBlockOrigin = Subarray.LEFT;
+                }
+                else {
+                    ctx.currBlockLen += blockLen * this.lastMergeBlocks;
+                }
+
+                // The left side is as long as all of the last merge blocks put together, so this
+                // merge is stepped through like the rest
+                if(this.scrollingBuffer) {
+                    this.startMergeForwards(currBlock, ctx.currBlockLen, this.lastFragment, Phase.NEXT_MERGE);
+                }
+                else {
+                    this.startLazyMerge(currBlock, ctx.currBlockLen, this.lastFragment, Phase.NEXT_MERGE);
+                }
+                return;
+            }
+            else if(this.scrollingBuffer) {
+                sorter.grailBlockSwap(array, buffer, currBlock, ctx.currBlockLen);
+            }
+
+            this.nextMerge();
+        }
+
+        private void nextMerge() {
+            this.mergeIndex++;
+            this.startMerge();
+        }
+
+        // Sets up a merge of array[start, start + leftLen + rightLen - 1] through the scrolling buffer
+        // right before it, which mergeForwards() steps through before going on to 'next'.
+        private void startMergeForwards(int start, int leftLen, int rightLen, Phase next) {
+            this.mergeStart  = start;
+            this.leftLen     = leftLen;
+            this.rightLen    = rightLen;
+            this.mergeBuffer = start - this.currentBlockLen;
+            this.mergeNext   = next;
+            this.phase       = Phase.MERGE_FORWARDS;
+        }
+
+        // Same as grailMergeForwards without the galloping, 'unitLen' swaps at a time. 'mergeStart' is
+        // the next item of the left side, and 'mergeBuffer' the next free slot of the buffer; the right
+        // side's next item is always the buffer's length plus what's left of the left side past it.
+        // Once either side runs out, the rest of the other side crosses the buffer in slices.
+        private void mergeForwards() {
+            GrailSort<K> sorter = this.sorter;
+            Comparator<K> cmp = sorter.cmp;
+            K[] array = this.array;
+
+            int blockLen = this.currentBlockLen;
+            int    swaps = 0;
+
+            while(this.leftLen != 0 && this.rightLen != 0 && swaps < this.unitLen) {
+                int right = this.mergeBuffer + blockLen + this.leftLen;
+
+                if(cmp.compare(array[this.mergeStart], array[right]) <= 0) {
+                    sorter.grailSwap(array, this.mergeBuffer, this.mergeStart);
+                    this.mergeStart++;
+                    this.leftLen--;
+                }
+                else {
+                    sorter.grailSwap(array, this.mergeBuffer, right);
+                    this.rightLen--;
+                }
+                this.mergeBuffer++;
+                swaps++;
+            }
+
+            if(this.leftLen != 0 && this.rightLen != 0) {
+                return;
+            }
+
+            int rest = this.leftLen != 0 ? this.mergeStart : this.mergeBuffer + blockLen;
+            if(rest == this.mergeBuffer) {
+                this.leftLen  = 0;
+                this.rightLen = 0;
+            }
+
+            int chunk = Math.min(this.leftLen + this.rightLen, this.unitLen - swaps);
+            if(chunk != 0) {
+                sorter.grailBlockSwap(array, this.mergeBuffer, rest, chunk);
+                this.mergeBuffer += chunk;
+
+                if(this.leftLen != 0) {
+                    this.mergeStart += chunk;
+                    this.leftLen    -= chunk;
+                }
+                else {
+                    this.rightLen   -= chunk;
+                }
+            }
+
+            if(this.leftLen == 0 && this.rightLen == 0) {
+                this.phase = this.mergeNext;
+            }
+        }
+
+        // Same as grailInPlaceBufferReset, 'unitLen' swaps at a time from the right
+        private void resetBuffer() {
+            int chunk = Math.min(this.unitLen, this.resetLen);
+            this.resetLen -= chunk;
+
+            this.sorter.grailInPlaceBufferReset(this.array, this.start + this.bufferEnd + this.resetLen, chunk,
+                                                this.currentBlockLen);
+
+            if(this.resetLen == 0) {
+                this.phase = Phase.NEXT_LEVEL;
+            }
+        }
+
+        // One key per unit, then the keys are merged back in
+        private void sortAllKeys() {
+            if(this.item < this.bufferEnd) {
+                this.sorter.grailBinaryInsert(this.array, this.start, this.item, this.sorter.cmp);
+                this.item++;
+                return;
+            }
+
+            this.startLazyMerge(this.start, this.bufferEnd, this.length - this.bufferEnd, Phase.DONE);
+        }
+
+        // Sets up a lazy merge of array[start, start + leftLen + rightLen - 1], which lazyMerge() steps
+        // through before going on to 'next'. Like grailLazyMerge, it merges from the front if the left
+        // side is shorter, and from the back otherwise, so that the shorter side is the one rotated.
+        private void startLazyMerge(int start, int leftLen, int rightLen, Phase next) {
+            this.mergeStart    = start;
+            this.leftLen       = leftLen;
+            this.rightLen      = rightLen;
+            this.mergeForwards = leftLen < rightLen;
+            this.mergeNext     = next;
+            this.phase         = Phase.LAZY_MERGE;
+        }
+
+        // One iteration of grailLazyMerge's loop per unit: skip the items of the shorter side that are
+        // already in place, then rotate the rest of it past the items of the longer side that go before
+        // them. That rotation is as long as the longer side at worst, so it's left to startRotation().
+        private void lazyMerge() {
+            GrailSort<K> sorter = this.sorter;
+            Comparator<K> cmp = sorter.cmp;
+            K[] array = this.array;
+
+            if(this.mergeForwards) {
+                if(this.rightLen != 0) {
+                    int middle = this.mergeStart + this.leftLen;
+                    int mergedLen = sorter.grailGallopForwards(array, this.mergeStart, this.leftLen, array[middle], true, cmp);
+                    this.mergeStart += mergedLen;
+                    this.leftLen    -= mergedLen;
+                }
+                if(this.leftLen == 0 || this.rightLen == 0) {
+                    this.phase = this.mergeNext;
+                    return;
+                }
+
+                int start = this.mergeStart;
+                int mergeLen = sorter.grailGallopForwards(array, start + this.leftLen, this.rightLen, array[start], false, cmp);
+                this.mergeStart += mergeLen;
+                this.rightLen   -= mergeLen;
+                this.startRotation(start, this.leftLen, mergeLen, Phase.LAZY_MERGE);
+            }
+            else {
+                int middle = this.mergeStart + this.leftLen;
+
+                if(this.leftLen != 0) {
+                    int mergedLen = sorter.grailGallopBackwards(array, middle, this.rightLen, array[middle - 1], true, cmp);
+                    this.rightLen -= mergedLen;
+                }
+                if(this.leftLen == 0 || this.rightLen == 0) {
+                    this.phase = this.mergeNext;
+                    return;
+                }
+
+                int end = middle + this.rightLen - 1;
+                int mergeLen = sorter.grailGallopBackwards(array, this.mergeStart, this.leftLen, array[end], false, cmp);
+                this.leftLen -= mergeLen;
+                this.startRotation(this.mergeStart + this.leftLen, mergeLen, this.rightLen, Phase.LAZY_MERGE);
+            }
+        }
+
+        // Rotates array[start, start + leftLen + rightLen - 1], then goes on to 'next'. Rotations of up
+        // to 'unitLen' items are done by grailRotate right away; longer ones are stepped through by rotate().
+        private void startRotation(int start, int leftLen, int rightLen, Phase next) {
+            if(leftLen + rightLen <= this.unitLen) {
+                this.sorter.grailRotate(this.array, start, leftLen, rightLen);
+                this.phase = next;
+                return;
+            }
+
+            this.sorter.metrics.rotation();
+            this.rotateStart    = start;
+            this.rotateLeftLen  = leftLen;
+            this.rotateRightLen = rightLen;
+            this.rotateDone     = 0;
+            this.rotateNext     = next;
+            this.phase          = Phase.ROTATE;
+        }
+
+        // Same as GrailRotation.GRIES_MILLS, 'unitLen' swaps at a time. A block swap that doesn't fit
+        // in what's left of a unit is finished in the next one.
+        private void rotate() {
+            int swaps = 0;
+
+            while(this.rotateLeftLen != 0 && this.rotateRightLen != 0 && swaps < this.unitLen) {
+                int leftLen  = this.rotateLeftLen;
+                int rightLen = this.rotateRightLen;
+                int blockLen = Math.min(leftLen, rightLen);
+                int    right = this.rotateStart + leftLen;
+                int     left = right - blockLen;
+
+                int chunk = Math.min(blockLen - this.rotateDone, this.unitLen - swaps);
+                this.sorter.grailBlockSwap(this.array, left + this.rotateDone, right + this.rotateDone, chunk);
+                this.rotateDone += chunk;
+                swaps += chunk;
+
+                if(this.rotateDone == blockLen) {
+                    this.rotateDone = 0;
+
+                    if(leftLen <= rightLen) {
+                        this.rotateStart    += leftLen;
+                        this.rotateRightLen -= leftLen;
+                    }
+                    else {
+                        this.rotateLeftLen  -= rightLen;
+                    }
+                }
+            }
+
+            if(this.rotateLeftLen == 0 || this.rotateRightLen == 0) {
+                this.phase = this.rotateNext;
+            }
+        }
     }
 }
@@ -0,0 +1,317 @@
+package sort;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+
+// COMPARATOR SPECIALIZATION: Every GrailSort shares the same compiled code, so when sorters with
+// many different comparators run through it, every cmp.compare() call site ends up having seen
+// all of them. The JIT stops inlining comparators at call sites like that ("megamorphic" ones),
+// and every comparison becomes a full virtual call.
+//
+// specialize() hands out sorters whose code isn't shared: each comparator class gets its own copy
+// of GrailSort, made by renaming GrailSort and the classes nested in it in their class files, and
+// defining the renamed classes next to the original. A copy runs exactly the same bytecode, but the
+// JIT profiles and compiles it separately, so each of its call sites only ever sees comparators of
+// one class and can inline them, just like a hand-specialized copy of GrailSort would.
+//
+// Some things to keep in mind:
+//
+// - Copies are keyed by the comparator's class, not the comparator itself. Lambdas and classes
+//   written for one sort order get a copy of their own, but every comparator built by the same
+//   factory (e.g. Comparator.comparing()) shares one class, and so one copy.
+//
+// - Counting comparisons with GrailMetrics wraps every comparator in the same class, and inlining
+//   stops inside that wrapper instead. Specialize sorters without metrics for speed.
+//
+// - Copies are ordinary classes of GrailSort's class loader, and are never unloaded. Only the
+//   first GRAIL_MAX_SPECIALIZATIONS comparator classes get one; any after that get a plain
+//   GrailSort. Two threads specializing for a new comparator class at once may both make a copy,
+//   and only one of them will ever be used.
+//
+// Hidden classes would be the cleaner tool for this, and could be unloaded, but they need a newer
+// JDK than this project targets. Lookup.defineClass has the same effect here.
+
+final public class GrailSpecializer {
+    // At most this many copies of GrailSort will ever be made
+    final static int GRAIL_MAX_SPECIALIZATIONS = 64;
+
+    // GrailSort's internal name, as it appears in class files
+    private static final String GRAIL_SORT = GrailSort.class.getName().replace('.', '/');
+
+    private static final MethodType GRAIL_SORT_CONSTRUCTOR =
+        MethodType.methodType(void.class, Comparator.class, GrailMetrics.class, GrailBufferProvider.class,
+                              GrailRotation.class, int.class);
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final AtomicInteger specializations = new AtomicInteger();
+
+    // Constructor of each comparator class's copy of GrailSort, or of GrailSort itself for every
+    // comparator class past the limit. ClassValue keeps this from holding on to comparator classes.
+    private static final ClassValue<MethodHandle> constructors = new ClassValue<>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return grailSpecialize();
+        }
+    };
+
+    private GrailSpecializer() {
+    }
+
+    public static <K> GrailSorter<K> specialize(Comparator<K> cmp) {
+        return specialize(cmp, GrailMetrics.NONE);
+    }
+
+    public static <K> GrailSorter<K> specialize(Comparator<K> cmp, GrailMetrics metrics) {
+        return specialize(cmp, metrics, GrailBufferProvider.ALLOCATING, GrailRotation.AUTO,
+                          GrailSort.GRAIL_SMALL_SORT_LEN);
+    }
+
+    // Same arguments as GrailSort's constructors. The sorter returned is a copy of GrailSort shared
+    // with every other sorter specialized for the same class of comparator.
+    @SuppressWarnings("unchecked")
+    public static <K> GrailSorter<K> specialize(Comparator<K> cmp, GrailMetrics metrics, GrailBufferProvider buffers,
+                                                GrailRotation rotation, int smallSortLen) {
+        MethodHandle constructor = constructors.get(cmp.getClass());
+        try {
+            return (GrailSorter<K>) constructor.invoke(cmp, metrics, buffers, rotation, smallSortLen);
+        }
+        catch(RuntimeException | Error e) {
+            throw e;
+        }
+        catch(Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    // How many copies of GrailSort have been made so far
+    public static int getSpecializations() {
+        return Math.min(specializations.get(), GRAIL_MAX_SPECIALIZATIONS);
+    }
+
+    private static MethodHandle grailSpecialize() {
+        try {
+            int id = specializations.incrementAndGet();
+            if(id > GRAIL_MAX_SPECIALIZATIONS) {
+                return LOOKUP.findConstructor(GrailSort.class, GRAIL_SORT_CONSTRUCTOR);
+            }
+            String copy = GRAIL_SORT + "$$Specialized" + id;
+
+            // Find GrailSort's class file, and the class file of every class nested in it that
+            // it or its nested classes name
+            List<byte[]> classFiles = new ArrayList<>();
+            Set<String> seen = new HashSet<>();
+            ArrayDeque<String> queue = new ArrayDeque<>();
+            queue.add(GRAIL_SORT);
+            seen.add(GRAIL_SORT);
+            while(!queue.isEmpty()) {
+                byte[] classFile = grailReadClassFile(queue.poll());
+                for(String nested : grailRenameClass(classFile, null, GRAIL_SORT, copy)) {
+                    if(seen.add(nested)) {
+                        queue.add(nested);
+                    }
+                }
+                classFiles.add(classFile);
+            }
+
+            // Lookup.defineClass links every class right away, and verifying GrailSort loads the
+            // nested classes it hands to ForkJoinPool by name, so the nested copies are defined
+            // first. None of them needs anything else loaded to be verified.
+            Class<?> copyClass = null;
+            for(int i = classFiles.size() - 1; i >= 0; i--) {
+                byte[] classFile = classFiles.get(i);
+                ByteArrayOutputStream renamed = new ByteArrayOutputStream(classFile.length + 1024);
+                grailRenameClass(classFile, renamed, GRAIL_SORT, copy);
+                copyClass = LOOKUP.defineClass(renamed.toByteArray());
+            }
+            return LOOKUP.findConstructor(copyClass, GRAIL_SORT_CONSTRUCTOR);
+        }
+        catch(IOException | ReflectiveOperationException e) {
+            throw new IllegalStateException("Couldn't specialize " + GRAIL_SORT, e);
+        }
+    }
+
+    private static byte[] grailReadClassFile(String internalName) throws IOException {
+        String resource = internalName.substring(internalName.lastIndexOf('/') + 1) + ".class";
+        try(InputStream in = GrailSort.class.getResourceAsStream(resource)) {
+            if(in == null) {
+                throw new IOException("Class file " + resource + " not found");
+            }
+            return in.readAllBytes();
+        }
+    }
+
+    // Copies 'classFile' to 'out' (unless it's null) with every class named 'from', or nested in it,
+    // renamed to 'to'. Only the constant pool's UTF-8 strings are touched, and the pool keeps its
+    // layout, so every index into it elsewhere in the class file stays valid. Returns the names of
+    // the classes nested in 'from' that the class file mentions.
+    //
+    // A name is only renamed where it stands on its own: at the start of a string or after an
+    // 'L' (descriptors and signatures), and before its end, a ';', a '$' or a '<'. That leaves
+    // names that merely start the same way, like GrailSorter, alone.
+    private static List<String> grailRenameClass(byte[] classFile, ByteArrayOutputStream out,
+                                                 String from, String to) throws IOException {
+        byte[] fromBytes = from.getBytes(StandardCharsets.US_ASCII);
+        byte[] toBytes   = to.getBytes(StandardCharsets.US_ASCII);
+        List<String> nested = new ArrayList<>();
+
+        if(grailReadInt(classFile, 0, 4) != 0xCAFEBABE) {
+            throw new IOException("Not a class file");
+        }
+        int poolCount = grailReadInt(classFile, 8, 2);
+        int pos = 10;
+        int copied = 0;
+
+        for(int entry = 1; entry < poolCount; entry++) {
+            int tag = classFile[pos];
+            switch(tag) {
+                case 1: // Utf8
+                    int length = grailReadInt(classFile, pos + 1, 2);
+                    int stringStart = pos + 3;
+                    int stringEnd   = stringStart + length;
+
+                    // Modified UTF-8 never uses ASCII bytes inside multi-byte characters,
+                    // so the strings can be searched and spliced byte by byte
+                    if(grailNameAt(classFile, stringStart, stringStart, stringEnd, fromBytes)
+                       && stringStart + fromBytes.length < stringEnd
+                       && classFile[stringStart + fromBytes.length] == '$') {
+                        nested.add(new String(classFile, stringStart, length, StandardCharsets.US_ASCII));
+                    }
+                    if(out != null) {
+                        ByteArrayOutputStream string = new ByteArrayOutputStream(length + 64);
+                        int last = stringStart;
+                        for(int i = stringStart; i < stringEnd; i++) {
+                            if(grailNameAt(classFile, i, stringStart, stringEnd, fromBytes)) {
+                                string.write(classFile, last, i - last);
+                                string.write(toBytes, 0, toBytes.length);
+                                i += fromBytes.length - 1;
+                                last = i + 1;
+                            }
+                        }
+                        string.write(classFile, last, stringEnd - last);
+                        if(string.size() > 0xFFFF) {
+                            throw new IOException("Renamed string too long");
+                        }
+
+                        out.write(classFile, copied, pos + 1 - copied);
+                        out.write(string.size() >>> 8);
+                        out.write(string.size());
+                        string.writeTo(out);
+                        copied = stringEnd;
+                    }
+                    pos = stringEnd;
+                    break;
+
+                case 7: case 8: case 16: case 19: case 20: // Class, String, MethodType, Module, Package
+                    pos += 3;
+                    break;
+
+                case 15: // MethodHandle
+                    pos += 4;
+                    break;
+
+                case 3: case 4: case 9: case 10: case 11: case 12: case 17: case 18:
+                    pos += 5;
+                    break;
+
+                case 5: case 6: // Long and Double take up two entries
+                    pos += 9;
+                    entry++;
+                    break;
+
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        if(out != null) {
+            out.write(classFile, copied, classFile.length - copied);
+        }
+        return nested;
+    }
+
+    private static boolean grailNameAt(byte[] bytes, int index, int stringStart, int stringEnd, byte[] name) {
+        if(index > stringStart && bytes[index - 1] != 'L') {
+            return false;
+        }
+        int end = index + name.length;
+        if(end > stringEnd) {
+            return false;
+        }
+        for(int i = 0; i < name.length; i++) {
+            if(bytes[index + i] != name[i]) {
+                return false;
+            }
+        }
+        return end == stringEnd || bytes[end] == ';' || bytes[end] == '$' || bytes[end] == '<';
+    }
+
+    private static int grailReadInt(byte[] bytes, int index, int length) {
+        int value = 0;
+        for(int i = 0; i < length; i++) {
+            value = (value << 8) | (bytes[index + i] & 0xFF);
+        }
+        return value;
+    }
+}
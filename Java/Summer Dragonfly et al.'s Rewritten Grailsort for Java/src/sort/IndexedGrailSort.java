@@ -0,0 +1,976 @@
+package sort;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// IndexedGrailSort - A port of Rewritten Grailsort's in-place path to long-indexed, random-access storage.
+//
+// Instead of sorting a K[] array, this engine only ever asks a GrailSortable to compare
+// or swap the items at two long indices. That lets Grailsort run directly on storage which
+// is not a Java array -- off-heap ByteBuffers, memory-mapped files, or anything else larger
+// than 2^31 items -- without first copying it onto the heap. Because the items can't be
+// copied out, there is no external buffer; this is always Grailsort's O(1) space variant.
+//
+// ** Written and maintained by The Holy Grail Sort Project
+
+final public class IndexedGrailSort {
+    // What one call to grailCommonSort needs to remember between merging one pair of
+    // blocks and the next. Every call gets its own, so an IndexedGrailSort holds no
+    // mutable state and can be shared between threads.
+    private static final class GrailContext {
+        private long currBlockLen;
+        private Subarray currBlockOrigin;
+    }
+
+    public IndexedGrailSort() {
+    }
+
+    private static void grailBlockSwap(GrailSortable items, long a, long b, long blockLen) {
+        for(long i = 0; i < blockLen; i++) {
+            items.swap(a + i, b + i);
+        }
+    }
+
+    // Swaps the order of two adjacent blocks whose lengths may or may not be equal.
+    // Variant of the Gries-Mills algorithm, which is basically recursive block swaps.
+    private static void grailRotate(GrailSortable items, long start, long leftLen, long rightLen) {
+        while(leftLen > 0 && rightLen > 0) {
+            if(leftLen <= rightLen) {
+                grailBlockSwap(items, start, start + leftLen, leftLen);
+                start    += leftLen;
+                rightLen -= leftLen;
+            } 
+            else {
+                grailBlockSwap(items, start + leftLen - rightLen, start + leftLen, rightLen);
+                leftLen  -= rightLen;
+            }
+        }
+    }
+
+    
+    // Small-array kernel: insertion sort that finds each item's place with a binary search. Items
+    // can only be swapped, so each one still moves into place one swap at a time, but it's compared
+    // with about log2(n) of the items it passes instead of every one of them. Searching to the right
+    // of equal items keeps it stable.
+    private static void grailBinaryInsertSort(GrailSortable items, long start, long length) {
+        for(long item = 1; item < length; item++) {
+            long current = start + item;
+
+            if(items.compare(current - 1, current) > 0) {
+                long insert = start + grailBinarySearchRight(items, start, item - 1, current);
+
+                for(long right = current; right > insert; right--) {
+                    items.swap(right - 1, right);
+                }
+            }
+        }
+    }
+
+    
+    private static long grailBinarySearchLeft(GrailSortable items, long start, long length, long target) {
+        long  left = 0;
+        long right = length;
+
+        while(left < right) {
+            // equivalent to (left + right) / 2 with added overflow protection
+            long middle = left + ((right - left) / 2);
+            
+            if(items.compare(start + middle, target) < 0) {
+                left = middle + 1;
+            }
+            else {
+                right = middle;
+            }
+        }
+        return left;
+    }
+    
+    // Credit to Anonymous0726 for debugging
+    private static long grailBinarySearchRight(GrailSortable items, long start, long length, long target) {
+        long  left = 0;
+        long right = length;
+
+        while(left < right) {
+            // equivalent to (left + right) / 2 with added overflow protection
+            long middle = left + ((right - left) / 2);
+            
+            if(items.compare(start + middle, target) > 0) {
+                right = middle;
+            }
+            else {
+                left = middle + 1;
+            }
+        }
+        // OFF-BY-ONE BUG FIXED: used to be `return right - 1;`
+        return right;
+    }
+
+    
+    // cost: 2 * length + idealKeys^2 / 2
+    private static long grailCollectKeys(GrailSortable items, long start, long length, long idealKeys) {
+        long keysFound = 1; // by itself, the first item in the array is our first unique key
+        long  firstKey = 0; // the first item in the array is at the first position in the array
+        long   currKey = 1; // the index used for finding potentially unique items ("keys") in the array
+
+        while(currKey < length && keysFound < idealKeys) {
+
+            // Find the location in the key-buffer where our current key can be inserted in sorted order.
+            // If the key at insertPos is equal to currKey, then currKey isn't unique and we move on.
+            long insertPos = grailBinarySearchLeft(items, start + firstKey, keysFound, start + currKey);
+
+            // The second part of this conditional does the equal check we were just talking about; however,
+            // if currKey is larger than everything in the key-buffer (meaning insertPos == keysFound),
+            // then that also tells us it wasn't *equal* to anything in the key-buffer. Magic! :) 
+            if(insertPos == keysFound || items.compare(start + currKey,
+                                                       start + firstKey + insertPos) != 0) {
+
+                // First, rotate the key-buffer over to currKey's immediate left...
+                // (this helps save a TON of swaps/writes!!!)
+                grailRotate(items, start + firstKey, keysFound, currKey - (firstKey + keysFound));
+
+                // Update the new position of firstKey...
+                firstKey = currKey - keysFound;
+
+                // Then, "insertion sort" currKey to its spot in the key-buffer!
+                grailRotate(items, start + firstKey + insertPos, keysFound - insertPos, 1);
+
+                // One step closer to idealKeys.
+                keysFound++;
+            }
+            // Move on and test the next key...
+            currKey++;
+        }
+
+        // Bring however many keys we found back to the beginning of our array,
+        // and return the number of keys collected.
+        grailRotate(items, start, firstKey, keysFound);
+        return keysFound;
+    }
+
+    
+    private static void grailPairwiseSwaps(GrailSortable items, long start, long length) {
+        long index;
+        for(index = 1; index < length; index += 2) {
+            long  left = start + index - 1;
+            long right = start + index;
+
+            if(items.compare(left, right) > 0) {
+                items.swap( left - 2, right);
+                items.swap(right - 2,  left);
+            }
+            else {
+                items.swap( left - 2,  left);
+                items.swap(right - 2, right);
+            }
+        }
+
+        long left = start + index - 1;
+        if(left < start + length) {
+            items.swap(left - 2, left);
+        }
+    }
+
+    
+    // buffer .. start - 1 <=> "scrolling buffer"
+    // 
+    // "scrolling buffer" + start, middle - 1 + middle, end - 1
+    // --> buffer, buffer + end - 1 + "scrolling buffer"
+    private static void grailMergeForwards(GrailSortable items, long start, long leftLen, long rightLen,
+                                                          long bufferOffset) {
+        long buffer = start  - bufferOffset;
+        long   left = start;
+        long middle = start  +  leftLen;
+        long  right = middle;
+        long    end = middle + rightLen;
+
+        while(right < end) {
+            if(left == middle || items.compare( left,
+                                               right) > 0) {
+                items.swap(buffer, right);
+                right++;
+            }
+            else {
+                items.swap(buffer,  left);
+                left++;
+            }
+            buffer++;
+        }
+
+        if(buffer != left) {
+            grailBlockSwap(items, buffer, left, middle - left);
+        }
+    }
+
+    // credit to 666666t for thorough bug-checking/fixing
+    private static void grailMergeBackwards(GrailSortable items, long start, long leftLen, long rightLen,
+                                                           long bufferOffset) {
+        // used to be '= start'
+        long    end = start  -  1;
+        // used to be '= start + leftLen - 1'
+        long   left = end    +  leftLen;
+        long middle = left;
+        // OFF-BY-ONE BUG FIXED: used to be `long  right = middle + rightLen - 1;`
+        long  right = middle + rightLen;
+        // OFF-BY-ONE BUG FIXED: used to be `long buffer = right  + bufferOffset - 1;`
+        long buffer = right  + bufferOffset;
+
+        // used to be 'left >= end'
+        while(left > end) {
+            if(right == middle || items.compare( left,
+                                                right) > 0) {
+                items.swap(buffer,  left);
+                left--;
+            }
+            else {
+                items.swap(buffer, right);
+                right--;
+            }
+            buffer--;
+        }
+
+        if(right != buffer) {
+            while(right > middle) {
+                items.swap(buffer, right);
+                buffer--;
+                right--;
+            }
+        }
+    }
+
+    
+    private static void grailBuildInPlace(GrailSortable items, long start, long length, long currentLen, long bufferLen) {
+        for(long mergeLen = currentLen; mergeLen < bufferLen; mergeLen *= 2) {
+            long fullMerge = 2 * mergeLen;
+
+            long mergeIndex;
+            long mergeEnd = start + length - fullMerge;
+            long bufferOffset = mergeLen;
+
+            for(mergeIndex = start; mergeIndex <= mergeEnd; mergeIndex += fullMerge) {
+                grailMergeForwards(items, mergeIndex, mergeLen, mergeLen, bufferOffset);
+            }
+
+            long leftOver = length - (mergeIndex - start);
+
+            if(leftOver > mergeLen) {
+                grailMergeForwards(items, mergeIndex, mergeLen, leftOver - mergeLen, bufferOffset);
+            }
+            else {
+                grailRotate(items, mergeIndex - mergeLen, mergeLen, leftOver);
+            }
+
+            start -= mergeLen;
+        }
+
+        long fullMerge  = 2 * bufferLen; 
+        long lastBlock  = length % fullMerge;
+        long lastOffset = start + length - lastBlock;
+
+        if(lastBlock <= bufferLen) {
+            grailRotate(items, lastOffset, lastBlock, bufferLen);
+        }
+        else {
+            grailMergeBackwards(items, lastOffset, bufferLen, lastBlock - bufferLen, bufferLen);
+        }
+
+        for(long mergeIndex = lastOffset - fullMerge; mergeIndex >= start; mergeIndex -= fullMerge) {
+            grailMergeBackwards(items, mergeIndex, bufferLen, bufferLen, bufferLen);
+        }
+    }
+
+
+    // build blocks of length 'bufferLen'
+    // input: [start - mergeLen, start - 1] elements are buffer
+    // output: first 'bufferLen' elements are buffer, blocks (2 * bufferLen) and last subblock sorted
+    private static void grailBuildBlocks(GrailSortable items, long start, long length, long bufferLen) {
+        grailPairwiseSwaps(items, start, length);
+        grailBuildInPlace(items, start - 2, length, 2, bufferLen);
+    }
+
+    
+    // Returns the final position of 'medianKey'.
+    // MINOR CHANGES: Change comparison order to emphasize "less-than" relation; fewer variables (Credit to Anonymous0726 for better variable names!)
+    private static long grailBlockSelectSort(GrailSortable items, long firstKey, long start, long medianKey,
+                                                           long blockCount, long blockLen) {
+        for(long  firstBlock = 0; firstBlock < blockCount; firstBlock++) {
+            long selectBlock = firstBlock;
+
+            for(long currBlock = firstBlock + 1; currBlock < blockCount; currBlock++) {
+                int compare = items.compare(start + (currBlock   * blockLen),
+                                            start + (selectBlock * blockLen));
+
+                if(compare < 0 || (compare == 0 && items.compare(firstKey +   currBlock,
+                                                                 firstKey + selectBlock) < 0)) {
+                    selectBlock = currBlock;
+                }
+            }
+
+            if(selectBlock != firstBlock) {
+                // Swap the left and right selected blocks...
+                grailBlockSwap(items, start + (firstBlock * blockLen), start + (selectBlock * blockLen), blockLen);
+
+                // Swap the keys...
+                items.swap(firstKey + firstBlock, firstKey + selectBlock);
+
+                // ...and follow the 'medianKey' if it was swapped
+
+                // ORIGINAL LOC: if(midkey==u-1 || midkey==p) midkey^=(u-1)^p;
+                // MASSIVE, MASSIVE credit to lovebuny for figuring this one out!
+                if(medianKey == firstBlock) {
+                    medianKey = selectBlock;
+                }
+                else if(medianKey == selectBlock) {
+                    medianKey = firstBlock;
+                }
+            }
+        }
+
+        return medianKey;
+    }
+
+    
+    // Swaps Grailsort's "scrolling buffer" from the right side of the array all the way back to 'start'.
+    // Costs O(n) swaps.
+    //
+    // OFF-BY-ONE BUG FIXED: used to be `long index = start + resetLen`; credit to 666666t for debugging
+    // RESTRUCTED, BETTER NAMES: 'resetLen' is now 'length' and 'bufferLen' is now 'bufferOffset'
+    // SWAPPED NAMES: 'buffer' is now 'index' and vice versa
+    private static void grailInPlaceBufferReset(GrailSortable items, long start, long length, long bufferOffset) {
+        long buffer =  start + length - 1;
+        long  index = buffer - bufferOffset;
+        
+        while(buffer >= start) {
+            items.swap(index, buffer);
+            buffer--;
+            index--;
+        }
+    }
+
+
+    // Rewinds Grailsort's "scrolling buffer" to the left of any items belonging to the left subarray block
+    // left over by a "smart merge". This is used to continue an ongoing merge that has run out of buffer space.
+    // Costs O(sqrt n) swaps in the *absolute* worst-case. 
+    //
+    // BETTER ORDER-OF-OPERATIONS, NAMING IMPROVED: the left over items (now called 'leftBlock') are in the
+    //                                              middle of the merge while the buffer is at the end
+    private static void grailInPlaceBufferRewind(GrailSortable items, long start, long leftBlock, long buffer) {
+        while(leftBlock >= start) {
+            items.swap(buffer, leftBlock);
+            leftBlock--;
+            buffer--;
+        }
+    }
+
+
+    
+    private static Subarray grailGetSubarray(GrailSortable items, long currentKey, long medianKey) {
+        if(items.compare(currentKey, medianKey) < 0) {
+            return Subarray.LEFT;
+        }
+        else {
+            return Subarray.RIGHT;
+        }
+    }
+
+    
+    // FUNCTION RE-RENAMED: last/final left blocks are used to calculate the length of the final merge
+    private static long grailCountLastMergeBlocks(GrailSortable items, long offset, long blockCount, long blockLen) {
+        long blocksToMerge = 0;
+
+        long lastRightFrag = offset + (blockCount * blockLen);
+        long prevLeftBlock = lastRightFrag - blockLen;
+
+        while(blocksToMerge < blockCount && items.compare(lastRightFrag,
+                                                          prevLeftBlock) < 0) {
+            blocksToMerge++;
+            prevLeftBlock -= blockLen;
+        }
+
+        return blocksToMerge;
+    }
+
+    
+    private void grailSmartMerge(GrailContext ctx, GrailSortable items, long start, long leftLen, Subarray leftOrigin,
+                                                       long rightLen, long bufferOffset) {
+        long buffer = start  - bufferOffset;
+        long   left = start;
+        long middle = start  +  leftLen;
+        long  right = middle;
+        long    end = middle + rightLen;
+
+        if(leftOrigin == Subarray.LEFT) {
+            while(left < middle && right < end) {
+                if(items.compare(left, right) <= 0) {
+                    items.swap(buffer, left);
+                    left++;
+                }
+                else {
+                    items.swap(buffer, right);
+                    right++;
+                }
+                buffer++;
+            }
+        }
+        else {
+            while(left < middle && right < end) {
+                if(items.compare(left, right) <  0) {
+                    items.swap(buffer, left);
+                    left++;
+                }
+                else {
+                    items.swap(buffer, right);
+                    right++;
+                }
+                buffer++;
+            }            
+        }
+
+        if(left < middle) {
+            ctx.currBlockLen = middle - left;
+            // UPDATED ARGUMENTS: 'middle' and 'end' now 'middle - 1' and 'end - 1'
+            grailInPlaceBufferRewind(items, left, middle - 1, end - 1);
+        }
+        else {
+            ctx.currBlockLen = end - right;
+            if(leftOrigin == Subarray.LEFT) {
+                ctx.currBlockOrigin = Subarray.RIGHT;
+            }
+            else {
+                ctx.currBlockOrigin = Subarray.LEFT;
+            }
+        }
+    }
+
+    // MINOR CHANGE: better naming -- 'insertPos' is now 'mergeLen' -- and "middle" calculation simplified
+    private void grailSmartLazyMerge(GrailContext ctx, GrailSortable items, long start, long leftLen, Subarray leftOrigin, long rightLen) {
+        long middle = start + leftLen;
+        
+        if(leftOrigin == Subarray.LEFT) {
+            if(items.compare(middle - 1, middle) >  0) {
+                while(leftLen != 0) {
+                    long mergeLen = grailBinarySearchLeft(items, middle, rightLen, start);
+
+                    if(mergeLen != 0) {
+                        grailRotate(items, start, leftLen, mergeLen);
+                        
+                        start    += mergeLen;
+                        middle   += mergeLen;
+                        rightLen -= mergeLen;
+                    }
+                    
+                    if(rightLen == 0) {
+                        ctx.currBlockLen = leftLen;
+                        return;
+                    }
+                    else {
+                        do {
+                            start++;
+                            leftLen--;
+                        } while(leftLen != 0 && items.compare(start, middle) <= 0);
+                    }
+                }
+            }
+        }
+        else {
+            if(items.compare(middle - 1, middle) >= 0) {
+                while(leftLen != 0) {
+                    long mergeLen = grailBinarySearchRight(items, middle, rightLen, start);
+
+                    if(mergeLen != 0) {
+                        grailRotate(items, start, leftLen, mergeLen);
+                        
+                        start    += mergeLen;
+                        middle   += mergeLen;
+                        rightLen -= mergeLen;
+                    }
+                    
+                    if(rightLen == 0) {
+                        ctx.currBlockLen = leftLen;
+                        return;
+                    }
+                    else {
+                        do {
+                            start++;
+                            leftLen--;
+                        } while(leftLen != 0 && items.compare(start, middle) < 0);
+                    }
+                }
+            }
+        }
+
+        ctx.currBlockLen = rightLen;
+        if(leftOrigin == Subarray.LEFT) {
+            ctx.currBlockOrigin = Subarray.RIGHT;
+        }
+        else {
+            ctx.currBlockOrigin = Subarray.LEFT;
+        }
+    }
+
+
+    
+    // Credit to Anonymous0726 for better variable names such as "nextBlock"
+    // Also minor change: removed unnecessary "currBlock = nextBlock" lines
+    private void grailMergeBlocks(GrailContext ctx, GrailSortable items, long firstKey, long medianKey, long start,
+                                             long blockCount, long blockLen, long lastMergeBlocks,
+                                             long lastLen) {
+        long buffer;
+        
+        long currBlock;
+        long nextBlock = start + blockLen;
+
+        ctx.currBlockLen    = blockLen;
+        ctx.currBlockOrigin = grailGetSubarray(items, firstKey, medianKey);
+
+        for(long keyIndex = 1; keyIndex < blockCount; keyIndex++, nextBlock += blockLen) {
+            Subarray nextBlockOrigin;
+            
+            currBlock       = nextBlock - ctx.currBlockLen;
+            nextBlockOrigin = grailGetSubarray(items, firstKey + keyIndex, medianKey);
+
+            if(nextBlockOrigin == ctx.currBlockOrigin) {
+                buffer = currBlock - blockLen;
+                
+                grailBlockSwap(items, buffer, currBlock, ctx.currBlockLen);
+                ctx.currBlockLen = blockLen;
+            }
+            else {
+                this.grailSmartMerge(ctx, items, currBlock, ctx.currBlockLen, ctx.currBlockOrigin,
+                                     blockLen, blockLen);
+            }
+        }
+
+        currBlock = nextBlock - ctx.currBlockLen;
+        buffer    = currBlock - blockLen;
+        
+        if(lastLen != 0) {
+            if(ctx.currBlockOrigin == Subarray.RIGHT) {
+                grailBlockSwap(items, buffer, currBlock, ctx.currBlockLen);
+
+                currBlock            = nextBlock;
+                ctx.currBlockLen    = blockLen * lastMergeBlocks;
+                ctx.currBlockOrigin = Subarray.LEFT;
+            }
+            else {
+                ctx.currBlockLen += blockLen * lastMergeBlocks;
+            }
+
+            grailMergeForwards(items, currBlock, ctx.currBlockLen, lastLen, blockLen);
+        }
+        else {
+            grailBlockSwap(items, buffer, currBlock, ctx.currBlockLen);
+        }
+    }
+
+    private void grailLazyMergeBlocks(GrailContext ctx, GrailSortable items, long firstKey, long medianKey, long start,
+                                                 long blockCount, long blockLen, long lastMergeBlocks,
+                                                 long lastLen) {
+        long currBlock;
+        long nextBlock = start + blockLen;
+
+        ctx.currBlockLen    = blockLen;
+        ctx.currBlockOrigin = grailGetSubarray(items, firstKey, medianKey);
+
+        for(long keyIndex = 1; keyIndex < blockCount; keyIndex++, nextBlock += blockLen) {
+            Subarray nextBlockOrigin;
+            
+            currBlock       = nextBlock - ctx.currBlockLen;
+            nextBlockOrigin = grailGetSubarray(items, firstKey + keyIndex, medianKey);
+
+            if(nextBlockOrigin == ctx.currBlockOrigin) {
+                ctx.currBlockLen = blockLen;
+            }
+            else {
+                // These checks were included in the original code... but why???
+                if(blockLen != 0 && ctx.currBlockLen != 0) {
+                    this.grailSmartLazyMerge(ctx, items, currBlock, ctx.currBlockLen, ctx.currBlockOrigin,
+                                             blockLen);
+                }
+            }
+        }
+
+        currBlock = nextBlock - ctx.currBlockLen;
+
+        if(lastLen != 0) {
+            if(ctx.currBlockOrigin == Subarray.RIGHT) {
+                currBlock            = nextBlock;
+                ctx.currBlockLen    = blockLen * lastMergeBlocks;
+                ctx.currBlockOrigin = Subarray.LEFT;
+            }
+            else {
+                ctx.currBlockLen += blockLen * lastMergeBlocks;
+            }
+
+            grailLazyMerge(items, currBlock, ctx.currBlockLen, lastLen);
+        }
+    }
+
+
+
+    //TODO: Double-check "Merge Blocks" arguments
+    private void grailCombineInPlace(GrailContext ctx, GrailSortable items, long firstKey, long start, long length,
+                                                long subarrayLen, long blockLen,
+                                                long mergeCount, long lastSubarrays,
+                                                boolean buffer) {
+        long fullMerge  = 2 * subarrayLen;
+        // SLIGHT OPTIMIZATION: 'blockCount' only needs to be calculated once for regular merges
+        long blockCount = fullMerge / blockLen;
+        
+        for(long mergeIndex = 0; mergeIndex < mergeCount; mergeIndex++) {
+            long offset = start + (mergeIndex * fullMerge);
+
+            grailBinaryInsertSort(items, firstKey, blockCount);
+
+            // INCORRECT PARAMETER BUG FIXED: `block select sort` should be using `offset`, not `start`
+            long medianKey = subarrayLen / blockLen;
+            medianKey = grailBlockSelectSort(items, firstKey, offset, medianKey, blockCount, blockLen);
+
+            if(buffer) {
+                this.grailMergeBlocks(ctx, items, firstKey, firstKey + medianKey, offset, blockCount, blockLen, 0, 0);
+            }
+            else {
+                this.grailLazyMergeBlocks(ctx, items, firstKey, firstKey + medianKey, offset, blockCount, blockLen, 0, 0);
+            }
+        }
+
+        // INCORRECT CONDITIONAL/PARAMETER BUG FIXED: Credit to 666666t for debugging.
+        if(lastSubarrays != 0) {
+            long offset = start + (mergeCount * fullMerge);
+            blockCount = lastSubarrays / blockLen;
+
+            grailBinaryInsertSort(items, firstKey, blockCount + 1);
+
+            // INCORRECT PARAMETER BUG FIXED: `block select sort` should be using `offset`, not `start`
+            long medianKey = subarrayLen / blockLen;
+            medianKey = grailBlockSelectSort(items, firstKey, offset, medianKey, blockCount, blockLen);
+
+            // MISSING BOUNDS CHECK BUG FIXED: `lastFragment` *can* be 0 if the last two subarrays are evenly
+            //                                 divided into blocks. This prevents Grailsort from going out-of-bounds.
+            long lastFragment = lastSubarrays - (blockCount * blockLen);
+            long lastMergeBlocks;
+            if(lastFragment != 0) {
+                lastMergeBlocks = grailCountLastMergeBlocks(items, offset, blockCount, blockLen);
+            }
+            else {
+                lastMergeBlocks = 0;
+            }
+
+            long smartMerges = blockCount - lastMergeBlocks;
+
+            //TODO: Double-check if this micro-optimization works correctly like the original
+            if(smartMerges == 0) {
+                // MINOR CHANGE: renamed for consistency (used to be 'leftLength')
+                long leftLen = lastMergeBlocks * blockLen;
+
+                // INCORRECT PARAMETER BUG FIXED: these merges should be using `offset`, not `start`
+                if(buffer) {
+                    grailMergeForwards(items, offset, leftLen, lastFragment, blockLen);
+                }
+                else {
+                    grailLazyMerge(items, offset, leftLen, lastFragment);
+                }
+            }
+            else {
+                if(buffer) {
+                    this.grailMergeBlocks(ctx, items, firstKey, firstKey + medianKey, offset,
+                                          smartMerges, blockLen, lastMergeBlocks, lastFragment);
+                }
+                else {
+                    this.grailLazyMergeBlocks(ctx, items, firstKey, firstKey + medianKey, offset,
+                                              smartMerges, blockLen, lastMergeBlocks, lastFragment);
+                }
+            }
+        }
+
+        if(buffer) {
+            grailInPlaceBufferReset(items, start, length, blockLen);
+        }
+    }
+
+
+    // 'keys' are on the left side of the array. Blocks of length 'subarrayLen' combined. We'll combine them in pairs
+    // 'subarrayLen' is a power of 2. (2 * subarrayLen / blockLen) keys are guaranteed
+    //
+    // IMPORTANT RENAME: 'lastSubarray' is now 'lastSubarrays' because it includes the length of the last left
+    //                   subarray AND last right subarray (if there is a right subarray at all).
+    //
+    //                   *Please also check everything surrounding 'if(lastSubarrays != 0)' inside
+    //                   'combine in-place' for other renames!!*
+    private void grailCombineBlocks(GrailContext ctx, GrailSortable items, long firstKey, long start, long length,
+                                               long subarrayLen, long blockLen, boolean buffer) {
+        long     fullMerge = 2 * subarrayLen;
+        long    mergeCount = length /  fullMerge;
+        long lastSubarrays = length - (fullMerge * mergeCount);
+
+        if(lastSubarrays <= subarrayLen) {
+            length -= lastSubarrays;
+            lastSubarrays = 0;
+        }
+
+        this.grailCombineInPlace(ctx, items, firstKey, start, length, subarrayLen, blockLen,
+                                 mergeCount, lastSubarrays, buffer);
+    }
+
+
+    // "Classic" in-place merge sort using binary searches and rotations
+    //
+    // cost: min(leftLen, rightLen)^2 + max(leftLen, rightLen)
+    // MINOR CHANGES: better naming -- 'insertPos' is now 'mergeLen' -- and "middle"/"end" calculations simplified
+    private static void grailLazyMerge(GrailSortable items, long start, long leftLen, long rightLen) {
+        if(leftLen < rightLen) {
+            long middle = start + leftLen;
+            
+            while(leftLen != 0) {
+                long mergeLen = grailBinarySearchLeft(items, middle, rightLen, start);
+
+                if(mergeLen != 0) {
+                    grailRotate(items, start, leftLen, mergeLen);
+                    
+                    start    += mergeLen;
+                    middle   += mergeLen;
+                    rightLen -= mergeLen;
+                }
+                
+                if(rightLen == 0) {
+                    break;
+                }
+                else {
+                    do {
+                        start++;
+                        leftLen--;
+                    } while(leftLen != 0 && items.compare(start, middle) <= 0);
+                }
+            }
+        }
+        // INDEXING BUG FIXED: Credit to Anonymous0726 for debugging.
+        else {
+            long end = start + leftLen + rightLen - 1;
+            
+            while(rightLen != 0) {            
+                long mergeLen = grailBinarySearchRight(items, start, leftLen, end);
+
+                if(mergeLen != leftLen) {
+                    grailRotate(items, start + mergeLen, leftLen - mergeLen, rightLen);
+                    
+                    end     -=  leftLen - mergeLen;
+                    leftLen  = mergeLen;
+                }
+
+                if(leftLen == 0) {
+                    break;
+                }
+                else {
+                    long middle = start + leftLen;
+                    do {
+                        rightLen--;
+                        end--;
+                    } while(rightLen != 0 && items.compare(middle - 1, end) <= 0);
+                }
+            }
+        }
+    }
+
+    private static void grailLazyStableSort(GrailSortable items, long start, long length) {
+        for(long index = 1; index < length; index += 2) {
+            long  left = start + index - 1;
+            long right = start + index; 
+
+            if(items.compare(left, right) > 0) {
+                items.swap(left, right);
+            }
+        }
+        for(long mergeLen = 2; mergeLen < length; mergeLen *= 2) {
+            long fullMerge = 2 * mergeLen;
+
+            long mergeIndex;
+            long mergeEnd = length - fullMerge;
+
+            for(mergeIndex = 0; mergeIndex <= mergeEnd; mergeIndex += fullMerge) {
+                grailLazyMerge(items, start + mergeIndex, mergeLen, mergeLen);
+            }
+
+            long leftOver = length - mergeIndex;
+            if(leftOver > mergeLen) {
+                grailLazyMerge(items, start + mergeIndex, mergeLen, leftOver - mergeLen);
+            }
+        }
+    }
+
+    
+    // Calculates the minimum between numKeys and cbrt(2 * subarrayLen * keysFound).
+    // Math will be further explained later, but just like in grailCommonSort, this
+    // loop is rendered completely useless by the scrolling buffer optimization;
+    // minKeys will always equal numKeys.
+    //
+    // Code still here for preservation purposes.
+    /*
+     * private static long grailCalcMinKeys(long numKeys, long subarrayKeys) {
+     *     long minKeys = 1;
+     *     while(minKeys < numKeys && subarrayKeys != 0) {
+     *         minKeys      *= 2;
+     *         subarrayKeys /= 8;
+     *     }
+     *     return minKeys; 
+     * }
+     */
+
+    
+    void grailCommonSort(GrailSortable items, long start, long length) {
+        if(length < 16) {
+            grailBinaryInsertSort(items, start, length);
+            return;
+        }
+
+        long blockLen = 1;
+
+        // find the smallest power of two greater than or equal to
+        // the square root of the input's length
+        while((blockLen * blockLen) < length) {
+            blockLen *= 2;
+        }
+
+        // '((a - 1) / b) + 1' is actually a clever and very efficient
+        // formula for the ceiling of (a / b)
+        //
+        // credit to Anonymous0726 for figuring this out!
+        long keyLen = ((length - 1) / blockLen) + 1;
+
+        // Grailsort is hoping to find `2 * sqrt(n)` unique items
+        // throughout the array
+        long idealKeys = keyLen + blockLen;
+
+        //TODO: Clean up `start +` offsets
+        long keysFound = grailCollectKeys(items, start, length, idealKeys);
+
+        boolean idealBuffer;
+        if(keysFound < idealKeys) {
+            if(keysFound < 4) {
+                // GRAILSORT STRATEGY 3 -- No block swaps or scrolling buffer; resort to Lazy Stable Sort
+                grailLazyStableSort(items, start, length);
+                return;
+            }
+            else {
+                // GRAILSORT STRATEGY 2 -- Block swaps with small scrolling buffer and/or lazy merges
+                keyLen = blockLen;
+                blockLen = 0;
+                idealBuffer = false;
+
+                while(keyLen > keysFound) {
+                    keyLen /= 2;
+                }
+            }
+        }
+        else {
+            // GRAILSORT STRATEGY 1 -- Block swaps with scrolling buffer
+            idealBuffer = true;
+        }
+
+        long bufferEnd = blockLen + keyLen;
+        long subarrayLen;
+        if(idealBuffer) {
+            subarrayLen = blockLen;
+        }
+        else {
+            subarrayLen = keyLen;
+        }
+
+        grailBuildBlocks(items, start + bufferEnd, length - bufferEnd, subarrayLen);
+
+        GrailContext ctx = new GrailContext();
+
+        while((length - bufferEnd) > (2 * subarrayLen)) {
+            subarrayLen *= 2;
+
+            long currentBlockLen = blockLen;
+            boolean scrollingBuffer = idealBuffer;
+
+            // Huge credit to Anonymous0726, phoenixbound, and DeveloperSort for their tireless efforts
+            // towards deconstructing this math.
+            if(!idealBuffer) {
+                long keyBuffer = keyLen / 2;
+                
+                // TODO: Rewrite explanation for this math
+                if(keyBuffer >= ((2 * subarrayLen) / keyBuffer)) {
+                    currentBlockLen = keyBuffer;
+                    scrollingBuffer = true;
+                }
+                else {
+                    // This is a very recent discovery, and the math will be spelled out later, but this
+                    // "minKeys" calculation is *completely unnecessary*. "minKeys" would be less than
+                    // "keyLen" iff ((keyBuffer >= (2 * subarrayLen)) / keyBuffer)... but this situation
+                    // is already covered by our scrolling buffer optimization right above!! Consequently,
+                    // "minKeys" will *always* be equal to "keyLen" when Grailsort resorts to smart lazy
+                    // merges. Removing this loop is by itself a decent optimization, as well!
+                    //
+                    // Code still here for preservation purposes.
+                    /*
+                     * long subarrayKeys = ((long) subarrayLen * keysFound) / 2;
+                     * long minKeys = grailCalcMinKeys(keyLen, subarrayKeys);
+                     *
+                     * currentBlockLen = (2 * subarrayLen) / minKeys;
+                     */
+                    
+                    currentBlockLen = (2 * subarrayLen) / keyLen;
+                }
+            }
+
+            // WRONG VARIABLE BUG FIXED: 4th argument should be `length - bufferEnd`, was `length - bufferLen` before.
+            // Credit to 666666t and Anonymous0726 for debugging.
+            this.grailCombineBlocks(ctx, items, start, start + bufferEnd, length - bufferEnd,
+                                    subarrayLen, currentBlockLen, scrollingBuffer);
+        }
+
+        grailBinaryInsertSort(items, start, bufferEnd);
+        grailLazyMerge(items, start, bufferEnd, length - bufferEnd);
+    }
+
+
+    public void grailSortInPlace(GrailSortable items, long start, long length) {
+        this.grailCommonSort(items, start, length);
+    }
+}
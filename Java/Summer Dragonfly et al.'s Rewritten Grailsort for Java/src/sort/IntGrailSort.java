@@ -0,0 +1,1587 @@
+package sort;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// IntGrailSort - A specialization of Rewritten Grailsort for int[] arrays.
+//
+// Every method here mirrors its counterpart in GrailSort<K> line-for-line; the
+// only difference is that items are compared in their natural order with
+// Integer.compare instead of through a Comparator<K>. Sorting primitives directly
+// avoids boxing every item and keeps each comparison monomorphic and inlinable.
+//
+// ** Written and maintained by The Holy Grail Sort Project
+final public class IntGrailSort {
+    final static int GRAIL_STATIC_EXT_BUFFER_LEN = 512;
+
+    // Default cutoff below which inputs are sorted by the small-array kernel
+    final static int GRAIL_SMALL_SORT_LEN = 16;
+
+    // Blocks are only built with the branchless merges if at least 1 in this many pairs of items
+    // was out of order to begin with. Any less, and the original merges' branches are predictable
+    // enough to make them faster: on nearly sorted data, they take about half as long.
+    final static int GRAIL_BRANCHLESS_MIN_SWAPS = 4;
+
+    // Everything one call to grailCommonSort needs to remember across its helpers, kept
+    // apart from the sorter itself the same way GrailSort does: an IntGrailSort holds no
+    // mutable state of its own and can be shared between threads.
+    private static final class GrailContext {
+        private final int[] extBuffer;
+        private final int extBufferLen;
+
+        private int currBlockLen;
+        private Subarray currBlockOrigin;
+
+        GrailContext(int[] extBuffer, int extBufferLen) {
+            this.extBuffer    = extBuffer;
+            this.extBufferLen = extBufferLen;
+        }
+    }
+
+    private final int smallSortLen;
+    private final boolean branchless;
+
+    public IntGrailSort() {
+        this(GRAIL_SMALL_SORT_LEN);
+    }
+
+    public IntGrailSort(int smallSortLen) {
+        this(smallSortLen, true);
+    }
+
+    // Inputs shorter than 'smallSortLen' skip Grailsort and go straight to the small-array
+    // kernel, which also sorts the runs the lazy stable sort starts merging from.
+    //
+    // If 'branchless' is false, blocks are always built with the original, branchy kernels
+    // instead of the branchless ones; see GRAIL_BRANCHLESS_MIN_SWAPS for when it matters.
+    public IntGrailSort(int smallSortLen, boolean branchless) {
+        if(smallSortLen < GRAIL_SMALL_SORT_LEN) {
+            throw new IllegalArgumentException("smallSortLen must be at least " + GRAIL_SMALL_SORT_LEN);
+        }
+        this.smallSortLen = smallSortLen;
+        this.branchless   = branchless;
+    }
+
+    private static void grailSwap(int[] array, int a, int b) {
+        int temp = array[a];
+        array[a] = array[b];
+        array[b] = temp;
+    }
+
+    private static void grailBlockSwap(int[] array, int a, int b, int blockLen) {
+        for(int i = 0; i < blockLen; i++) {
+            grailSwap(array, a + i, b + i);
+        }
+    }
+
+    // Swaps the order of two adjacent blocks whose lengths may or may not be equal.
+    // Variant of the Gries-Mills algorithm, which is basically recursive block swaps.
+    private static void grailRotate(int[] array, int start, int leftLen, int rightLen) {
+        while(leftLen > 0 && rightLen > 0) {
+            if(leftLen <= rightLen) {
+                grailBlockSwap(array, start, start + leftLen, leftLen);
+                start    += leftLen;
+                rightLen -= leftLen;
+            } 
+            else {
+                grailBlockSwap(array, start + leftLen - rightLen, start + leftLen, rightLen);
+                leftLen  -= rightLen;
+            }
+        }
+    }
+
+    
+    // Small-array kernel. Up to GRAIL_MAX_NETWORK_LEN items are sorted with one of GrailNetworks'
+    // sorting networks, whose compare-and-swaps are branch-free min/max pairs; longer runs
+    // (like the key buffer, up to 2 * sqrt(n) keys) use binary insertion instead.
+    private static void grailSmallSort(int[] array, int start, int length) {
+        if(length <= GrailNetworks.GRAIL_MAX_NETWORK_LEN) {
+            int[] network = GrailNetworks.network(length);
+
+            for(int pair = 0; pair < network.length; pair += 2) {
+                int  left = start + network[pair];
+                int right = start + network[pair + 1];
+
+                int a = array[ left];
+                int b = array[right];
+
+                array[ left] = Math.min(a, b);
+                array[right] = Math.max(a, b);
+            }
+        }
+        else {
+            grailBinaryInsertSort(array, start, length);
+        }
+    }
+
+    // Insertion sort that finds each item's place with a binary search and shifts the items
+    // after it over with one arraycopy, instead of swapping it into place one step at a time.
+    // Searching to the right of equal items keeps it stable.
+    private static void grailBinaryInsertSort(int[] array, int start, int length) {
+        for(int item = 1; item < length; item++) {
+            int current = array[start + item];
+
+            if(Integer.compare(array[start + item - 1], current) > 0) {
+                int insert = grailBinarySearchRight(array, start, item - 1, current);
+
+                System.arraycopy(array, start + insert, array, start + insert + 1, item - insert);
+                array[start + insert] = current;
+            }
+        }
+    }
+
+    
+    private static int grailBinarySearchLeft(int[] array, int start, int length, int target) {
+        int  left = 0;
+        int right = length;
+
+        while(left < right) {
+            // equivalent to (left + right) / 2 with added overflow protection
+            int middle = left + ((right - left) / 2);
+            
+            if(Integer.compare(array[start + middle], target) < 0) {
+                left = middle + 1;
+            }
+            else {
+                right = middle;
+            }
+        }
+        return left;
+    }
+    
+    // Credit to Anonymous0726 for debugging
+    private static int grailBinarySearchRight(int[] array, int start, int length, int target) {
+        int  left = 0;
+        int right = length;
+
+        while(left < right) {
+            // equivalent to (left + right) / 2 with added overflow protection
+            int middle = left + ((right - left) / 2);
+            
+            if(Integer.compare(array[start + middle], target) > 0) {
+                right = middle;
+            }
+            else {
+                left = middle + 1;
+            }
+        }
+        // OFF-BY-ONE BUG FIXED: used to be `return right - 1;`
+        return right;
+    }
+
+    
+    // cost: 2 * length + idealKeys^2 / 2
+    private static int grailCollectKeys(int[] array, int start, int length, int idealKeys) {
+        int keysFound = 1; // by itself, the first item in the array is our first unique key
+        int  firstKey = 0; // the first item in the array is at the first position in the array
+        int   currKey = 1; // the index used for finding potentially unique items ("keys") in the array
+
+        while(currKey < length && keysFound < idealKeys) {
+
+            // Find the location in the key-buffer where our current key can be inserted in sorted order.
+            // If the key at insertPos is equal to currKey, then currKey isn't unique and we move on.
+            int insertPos = grailBinarySearchLeft(array, start + firstKey, keysFound, array[start + currKey]);
+
+            // The second part of this conditional does the equal check we were just talking about; however,
+            // if currKey is larger than everything in the key-buffer (meaning insertPos == keysFound),
+            // then that also tells us it wasn't *equal* to anything in the key-buffer. Magic! :) 
+            if(insertPos == keysFound || Integer.compare(array[start +  currKey            ],
+                                                         array[start + firstKey + insertPos]) != 0) {
+
+                // First, rotate the key-buffer over to currKey's immediate left...
+                // (this helps save a TON of swaps/writes!!!)
+                grailRotate(array, start + firstKey, keysFound, currKey - (firstKey + keysFound));
+
+                // Update the new position of firstKey...
+                firstKey = currKey - keysFound;
+
+                // Then, "insertion sort" currKey to its spot in the key-buffer!
+                grailRotate(array, start + firstKey + insertPos, keysFound - insertPos, 1);
+
+                // One step closer to idealKeys.
+                keysFound++;
+            }
+            // Move on and test the next key...
+            currKey++;
+        }
+
+        // Bring however many keys we found back to the beginning of our array,
+        // and return the number of keys collected.
+        grailRotate(array, start, firstKey, keysFound);
+        return keysFound;
+    }
+
+    
+    private static void grailPairwiseSwaps(int[] array, int start, int length) {
+        int index;
+        for(index = 1; index < length; index += 2) {
+            int  left = start + index - 1;
+            int right = start + index;
+
+            if(Integer.compare(array[left], array[right]) > 0) {
+                grailSwap(array,  left - 2, right);
+                grailSwap(array, right - 2,  left);
+            }
+            else {
+                grailSwap(array,  left - 2,  left);
+                grailSwap(array, right - 2, right);
+            }
+        }
+
+        int left = start + index - 1;
+        if(left < start + length) {
+            grailSwap(array, left - 2, left);
+        }
+    }
+    
+    private static void grailPairwiseWrites(int[] array, int start, int length) {
+        int index;
+        for(index = 1; index < length; index += 2) {
+            int  left = start + index - 1;
+            int right = start + index;
+
+            if(Integer.compare(array[left], array[right]) > 0) {
+                array[ left - 2] = array[right];
+                array[right - 2] = array[ left];
+            }
+            else {
+                array[ left - 2] = array[ left];
+                array[right - 2] = array[right];
+            }
+        }
+
+        int left = start + index - 1;
+        if(left < start + length) {
+            array[left - 2] = array[left];
+        }
+    }
+
+    
+    // array[buffer .. start - 1] <=> "scrolling buffer"
+    // 
+    // "scrolling buffer" + array[start, middle - 1] + array[middle, end - 1]
+    // --> array[buffer, buffer + end - 1] + "scrolling buffer"
+    private static void grailMergeForwards(int[] array, int start, int leftLen, int rightLen,
+                                                        int bufferOffset) {
+        int buffer = start  - bufferOffset;
+        int   left = start;
+        int middle = start  +  leftLen;
+        int  right = middle;
+        int    end = middle + rightLen;
+
+        while(right < end) {
+            if(left == middle || Integer.compare(array[ left],
+                                                 array[right]) > 0) {
+                grailSwap(array, buffer, right);
+                right++;
+            }
+            else {
+                grailSwap(array, buffer,  left);
+                left++;
+            }
+            buffer++;
+        }
+
+        if(buffer != left) {
+            grailBlockSwap(array, buffer, left, middle - left);
+        }
+    }
+
+    // credit to 666666t for thorough bug-checking/fixing
+    private static void grailMergeBackwards(int[] array, int start, int leftLen, int rightLen,
+                                                         int bufferOffset) {
+        // used to be '= start'
+        int    end = start  -  1;
+        // used to be '= start + leftLen - 1'
+        int   left = end    +  leftLen;
+        int middle = left;
+        // OFF-BY-ONE BUG FIXED: used to be `int  right = middle + rightLen - 1;`
+        int  right = middle + rightLen;
+        // OFF-BY-ONE BUG FIXED: used to be `int buffer = right  + bufferOffset - 1;`
+        int buffer = right  + bufferOffset;
+
+        // used to be 'left >= end'
+        while(left > end) {
+            if(right == middle || Integer.compare(array[ left],
+                                                  array[right]) > 0) {
+                grailSwap(array, buffer,  left);
+                left--;
+            }
+            else {
+                grailSwap(array, buffer, right);
+                right--;
+            }
+            buffer--;
+        }
+
+        if(right != buffer) {
+            while(right > middle) {
+                grailSwap(array, buffer, right);
+                buffer--;
+                right--;
+            }
+        }
+    }
+
+    // array[buffer .. start - 1] <=> "free space"    
+    //
+    // "free space" + array[start, middle - 1] + array[middle, end - 1]
+    // --> array[buffer, buffer + end - 1] + "free space"
+    //
+    // FUNCTION RENAMED: More consistent with "out-of-place" being at the end
+    private static void grailMergeOutOfPlace(int[] array, int start, int leftLen, int rightLen,
+                                                          int bufferOffset) {
+        int buffer = start  - bufferOffset;
+        int   left = start;
+        int middle = start  +  leftLen;
+        int  right = middle;
+        int    end = middle + rightLen;
+
+        while(right < end) {
+            if(left == middle || Integer.compare(array[ left],
+                                                 array[right]) > 0) {
+                array[buffer] = array[right];
+                right++;
+            }
+            else {
+                array[buffer] = array[ left];
+                left++;
+            }
+            buffer++;
+        }
+
+        if(buffer != left) {
+            while(left < middle) {
+                array[buffer] = array[left];
+                buffer++;
+                left++;
+            }
+        }
+    }
+
+    
+    // BRANCHLESS KERNELS: The pairwise swaps and merges that build blocks, written so that which item
+    // goes where is computed instead of branched on. On random data, the branches above are
+    // mispredicted about half the time, which costs more than the comparisons themselves; these
+    // only branch on their loop bounds. Ties still go to the left, so they're just as stable.
+
+    // Returns 1 if 'a' sorts after 'b', 0 otherwise
+    private static int grailGreater(int a, int b) {
+        return (int) (((long) b - a) >>> 63);
+    }
+
+    // Returns how many of the pairs were out of order
+    private static int grailPairwiseSwapsBranchless(int[] array, int start, int length) {
+        int swaps = 0;
+        int index;
+        for(index = 1; index < length; index += 2) {
+            int  left = start + index - 1;
+            int right = start + index;
+
+            int a = array[ left];
+            int b = array[right];
+            swaps += grailGreater(a, b);
+
+            // Unlike above, the buffer items never trade places, but the buffer is scrambled anyway
+            array[ left] = array[ left - 2];
+            array[right] = array[right - 2];
+            array[ left - 2] = Math.min(a, b);
+            array[right - 2] = Math.max(a, b);
+        }
+
+        int left = start + index - 1;
+        if(left < start + length) {
+            grailSwap(array, left - 2, left);
+        }
+
+        return swaps;
+    }
+
+    // Returns how many of the pairs were out of order
+    private static int grailPairwiseWritesBranchless(int[] array, int start, int length) {
+        int swaps = 0;
+        int index;
+        for(index = 1; index < length; index += 2) {
+            int  left = start + index - 1;
+            int right = start + index;
+
+            int a = array[ left];
+            int b = array[right];
+            swaps += grailGreater(a, b);
+
+            array[ left - 2] = Math.min(a, b);
+            array[right - 2] = Math.max(a, b);
+        }
+
+        int left = start + index - 1;
+        if(left < start + length) {
+            array[left - 2] = array[left];
+        }
+
+        return swaps;
+    }
+
+    private static void grailMergeForwardsBranchless(int[] array, int start, int leftLen, int rightLen,
+                                                     int bufferOffset) {
+        int buffer = start  - bufferOffset;
+        int   left = start;
+        int middle = start  +  leftLen;
+        int  right = middle;
+        int    end = middle + rightLen;
+
+        while(left < middle && right < end) {
+            int  leftItem = array[ left];
+            int rightItem = array[right];
+            int takeRight = grailGreater(leftItem, rightItem);
+            int      from = left + ((right - left) & -takeRight);
+
+            array[from]   = array[buffer];
+            array[buffer] = Math.min(leftItem, rightItem);
+
+            right += takeRight;
+            left  += 1 - takeRight;
+            buffer++;
+        }
+
+        while(right < end) {
+            grailSwap(array, buffer, right);
+            buffer++;
+            right++;
+        }
+
+        if(buffer != left) {
+            grailBlockSwap(array, buffer, left, middle - left);
+        }
+    }
+
+    private static void grailMergeBackwardsBranchless(int[] array, int start, int leftLen, int rightLen,
+                                                      int bufferOffset) {
+        int    end = start  -  1;
+        int   left = end    +  leftLen;
+        int middle = left;
+        int  right = middle + rightLen;
+        int buffer = right  + bufferOffset;
+
+        while(left > end && right > middle) {
+            int  leftItem = array[ left];
+            int rightItem = array[right];
+            int  takeLeft = grailGreater(leftItem, rightItem);
+            int      from = right - ((right - left) & -takeLeft);
+
+            array[from]   = array[buffer];
+            array[buffer] = Math.max(leftItem, rightItem);
+
+            left  -= takeLeft;
+            right -= 1 - takeLeft;
+            buffer--;
+        }
+
+        while(left > end) {
+            grailSwap(array, buffer, left);
+            buffer--;
+            left--;
+        }
+
+        if(right != buffer) {
+            while(right > middle) {
+                grailSwap(array, buffer, right);
+                buffer--;
+                right--;
+            }
+        }
+    }
+
+    private static void grailMergeOutOfPlaceBranchless(int[] array, int start, int leftLen, int rightLen,
+                                                        int bufferOffset) {
+        int buffer = start  - bufferOffset;
+        int   left = start;
+        int middle = start  +  leftLen;
+        int  right = middle;
+        int    end = middle + rightLen;
+
+        while(left < middle && right < end) {
+            int  leftItem = array[ left];
+            int rightItem = array[right];
+            int takeRight = grailGreater(leftItem, rightItem);
+
+            array[buffer] = Math.min(leftItem, rightItem);
+
+            right += takeRight;
+            left  += 1 - takeRight;
+            buffer++;
+        }
+
+        System.arraycopy(array, right, array, buffer, end - right);
+        buffer += end - right;
+
+        if(buffer != left) {
+            System.arraycopy(array, left, array, buffer, middle - left);
+        }
+    }
+
+    
+    private static void grailBuildInPlace(int[] array, int start, int length, int currentLen, int bufferLen,
+                                          boolean branchless) {
+        for(int mergeLen = currentLen; mergeLen < bufferLen; mergeLen *= 2) {
+            int fullMerge = 2 * mergeLen;
+
+            int mergeIndex;
+            int mergeEnd = start + length - fullMerge;
+            int bufferOffset = mergeLen;
+
+            for(mergeIndex = start; mergeIndex <= mergeEnd; mergeIndex += fullMerge) {
+                if(branchless) {
+                    grailMergeForwardsBranchless(array, mergeIndex, mergeLen, mergeLen, bufferOffset);
+                }
+                else {
+                    grailMergeForwards(array, mergeIndex, mergeLen, mergeLen, bufferOffset);
+                }
+            }
+
+            int leftOver = length - (mergeIndex - start);
+
+            if(leftOver > mergeLen) {
+                if(branchless) {
+                    grailMergeForwardsBranchless(array, mergeIndex, mergeLen, leftOver - mergeLen, bufferOffset);
+                }
+                else {
+                    grailMergeForwards(array, mergeIndex, mergeLen, leftOver - mergeLen, bufferOffset);
+                }
+            }
+            else {
+                grailRotate(array, mergeIndex - mergeLen, mergeLen, leftOver);
+            }
+
+            start -= mergeLen;
+        }
+
+        int fullMerge  = 2 * bufferLen; 
+        int lastBlock  = length % fullMerge;
+        int lastOffset = start + length - lastBlock;
+
+        if(lastBlock <= bufferLen) {
+            grailRotate(array, lastOffset, lastBlock, bufferLen);
+        }
+        else {
+            if(branchless) {
+                grailMergeBackwardsBranchless(array, lastOffset, bufferLen, lastBlock - bufferLen, bufferLen);
+            }
+            else {
+                grailMergeBackwards(array, lastOffset, bufferLen, lastBlock - bufferLen, bufferLen);
+            }
+        }
+
+        for(int mergeIndex = lastOffset - fullMerge; mergeIndex >= start; mergeIndex -= fullMerge) {
+            if(branchless) {
+                grailMergeBackwardsBranchless(array, mergeIndex, bufferLen, bufferLen, bufferLen);
+            }
+            else {
+                grailMergeBackwards(array, mergeIndex, bufferLen, bufferLen, bufferLen);
+            }
+        }
+    }
+
+    private void grailBuildOutOfPlace(GrailContext ctx, int[] array, int start, int length, int bufferLen, int extLen) {
+        System.arraycopy(array, start - extLen, ctx.extBuffer, 0, extLen);
+
+        boolean branchless = false;
+        if(this.branchless) {
+            int swaps = grailPairwiseWritesBranchless(array, start, length);
+            branchless = swaps >= (length / 2) / GRAIL_BRANCHLESS_MIN_SWAPS;
+        }
+        else {
+            grailPairwiseWrites(array, start, length);
+        }
+        start -= 2;
+
+        int mergeLen;
+        for(mergeLen = 2; mergeLen < extLen; mergeLen *= 2) {
+            int fullMerge = 2 * mergeLen;
+
+            int mergeIndex;
+            int mergeEnd = start + length - fullMerge;
+            int bufferOffset = mergeLen;
+
+            for(mergeIndex = start; mergeIndex <= mergeEnd; mergeIndex += fullMerge) {
+                if(branchless) {
+                    grailMergeOutOfPlaceBranchless(array, mergeIndex, mergeLen, mergeLen, bufferOffset);
+                }
+                else {
+                    grailMergeOutOfPlace(array, mergeIndex, mergeLen, mergeLen, bufferOffset);
+                }
+            }
+
+            int leftOver = length - (mergeIndex - start);
+
+            if(leftOver > mergeLen) {
+                if(branchless) {
+                    grailMergeOutOfPlaceBranchless(array, mergeIndex, mergeLen, leftOver - mergeLen, bufferOffset);
+                }
+                else {
+                    grailMergeOutOfPlace(array, mergeIndex, mergeLen, leftOver - mergeLen, bufferOffset);
+                }
+            }
+            else {
+                // MINOR CHANGE: Used to be a loop; much clearer now
+                System.arraycopy(array, mergeIndex, array, mergeIndex - mergeLen, leftOver);
+            }
+
+            start -= mergeLen;
+        }
+
+        System.arraycopy(ctx.extBuffer, 0, array, start + length, extLen);
+        grailBuildInPlace(array, start, length, mergeLen, bufferLen, branchless);
+    }
+
+    // build blocks of length 'bufferLen'
+    // input: [start - mergeLen, start - 1] elements are buffer
+    // output: first 'bufferLen' elements are buffer, blocks (2 * bufferLen) and last subblock sorted
+    private void grailBuildBlocks(GrailContext ctx, int[] array, int start, int length, int bufferLen) {
+        if(ctx.extBuffer != null) {
+            int extLen;
+
+            if(bufferLen < ctx.extBufferLen) {
+                extLen = bufferLen;
+            }
+            else {
+                // max power of 2 -- just in case
+                extLen = 1;
+                while((extLen * 2) <= ctx.extBufferLen) {
+                    extLen *= 2;
+                }
+            }
+
+            this.grailBuildOutOfPlace(ctx, array, start, length, bufferLen, extLen);
+        }
+        else {
+            boolean branchless = false;
+            if(this.branchless) {
+                int swaps = grailPairwiseSwapsBranchless(array, start, length);
+                branchless = swaps >= (length / 2) / GRAIL_BRANCHLESS_MIN_SWAPS;
+            }
+            else {
+                grailPairwiseSwaps(array, start, length);
+            }
+            grailBuildInPlace(array, start - 2, length, 2, bufferLen, branchless);
+        }
+    }
+
+    
+    // Returns the final position of 'medianKey'.
+    // MINOR CHANGES: Change comparison order to emphasize "less-than" relation; fewer variables (Credit to Anonymous0726 for better variable names!)
+    private static int grailBlockSelectSort(int[] array, int firstKey, int start, int medianKey,
+                                                         int blockCount, int blockLen) {
+        for(int  firstBlock = 0; firstBlock < blockCount; firstBlock++) {
+            int selectBlock = firstBlock;
+
+            for(int currBlock = firstBlock + 1; currBlock < blockCount; currBlock++) {
+                int compare = Integer.compare(array[start + (currBlock   * blockLen)],
+                                              array[start + (selectBlock * blockLen)]);
+
+                if(compare < 0 || (compare == 0 && Integer.compare(array[firstKey +   currBlock],
+                                                                   array[firstKey + selectBlock]) < 0)) {
+                    selectBlock = currBlock;
+                }
+            }
+
+            if(selectBlock != firstBlock) {
+                // Swap the left and right selected blocks...
+                grailBlockSwap(array, start + (firstBlock * blockLen), start + (selectBlock * blockLen), blockLen);
+
+                // Swap the keys...
+                grailSwap(array, firstKey + firstBlock, firstKey + selectBlock);
+
+                // ...and follow the 'medianKey' if it was swapped
+
+                // ORIGINAL LOC: if(midkey==u-1 || midkey==p) midkey^=(u-1)^p;
+                // MASSIVE, MASSIVE credit to lovebuny for figuring this one out!
+                if(medianKey == firstBlock) {
+                    medianKey = selectBlock;
+                }
+                else if(medianKey == selectBlock) {
+                    medianKey = firstBlock;
+                }
+            }
+        }
+
+        return medianKey;
+    }
+
+    
+    // Swaps Grailsort's "scrolling buffer" from the right side of the array all the way back to 'start'.
+    // Costs O(n) swaps.
+    //
+    // OFF-BY-ONE BUG FIXED: used to be `int index = start + resetLen`; credit to 666666t for debugging
+    // RESTRUCTED, BETTER NAMES: 'resetLen' is now 'length' and 'bufferLen' is now 'bufferOffset'
+    // SWAPPED NAMES: 'buffer' is now 'index' and vice versa
+    private static void grailInPlaceBufferReset(int[] array, int start, int length, int bufferOffset) {
+        int buffer =  start + length - 1;
+        int  index = buffer - bufferOffset;
+        
+        while(buffer >= start) {
+            grailSwap(array, index, buffer);
+            buffer--;
+            index--;
+        }
+    }
+
+    // Shifts entire array over 'bufferOffset' spaces to move the out-of-place merging buffer back to
+    // the beginning of the array.
+    // Costs O(n) writes.
+    //
+    // OFF-BY-ONE BUG FIXED: used to be `int index = start + resetLen`; credit to 666666t for debugging
+    // RESTRUCTED, BETTER NAMES: 'resetLen' is now 'length' and 'bufferLen' is now 'bufferOffset'
+    // SWAPPED NAMES: 'buffer' is now 'index' and vice versa
+    private static void grailOutOfPlaceBufferReset(int[] array, int start, int length, int bufferOffset) {
+        int buffer =  start + length - 1;
+        int  index = buffer - bufferOffset;
+        
+        while(buffer >= start) {
+            array[buffer] = array[index];
+            buffer--;
+            index--;
+        }
+    }
+
+    // Rewinds Grailsort's "scrolling buffer" to the left of any items belonging to the left subarray block
+    // left over by a "smart merge". This is used to continue an ongoing merge that has run out of buffer space.
+    // Costs O(sqrt n) swaps in the *absolute* worst-case. 
+    //
+    // BETTER ORDER-OF-OPERATIONS, NAMING IMPROVED: the left over items (now called 'leftBlock') are in the
+    //                                              middle of the merge while the buffer is at the end
+    private static void grailInPlaceBufferRewind(int[] array, int start, int leftBlock, int buffer) {
+        while(leftBlock >= start) {
+            grailSwap(array, buffer, leftBlock);
+            leftBlock--;
+            buffer--;
+        }
+    }
+
+    // Rewinds Grailsort's out-of-place buffer to the left of any items belonging to the left subarray block
+    // left over by a "smart merge". This is used to continue an ongoing merge that has run out of buffer space.
+    // Costs O(sqrt n) writes in the *absolute* worst-case.
+    //
+    // BETTER ORDER, INCORRECT ORDER OF PARAMETERS BUG FIXED: `leftOvers` (now called 'leftBlock') should be
+    //                                                        the middle, and `buffer` should be the end
+    private static void grailOutOfPlaceBufferRewind(int[] array, int start, int leftBlock, int buffer) {
+        while(leftBlock >= start) {
+            array[buffer] = array[leftBlock];
+            leftBlock--;
+            buffer--;
+        }
+    }
+
+    
+    private static Subarray grailGetSubarray(int[] array, int currentKey, int medianKey) {
+        if(Integer.compare(array[currentKey], array[medianKey]) < 0) {
+            return Subarray.LEFT;
+        }
+        else {
+            return Subarray.RIGHT;
+        }
+    }
+
+    
+    // FUNCTION RE-RENAMED: last/final left blocks are used to calculate the length of the final merge
+    private static int grailCountLastMergeBlocks(int[] array, int offset, int blockCount, int blockLen) {
+        int blocksToMerge = 0;
+
+        int lastRightFrag = offset + (blockCount * blockLen);
+        int prevLeftBlock = lastRightFrag - blockLen;
+
+        while(blocksToMerge < blockCount && Integer.compare(array[lastRightFrag],
+                                                            array[prevLeftBlock]) < 0) {
+            blocksToMerge++;
+            prevLeftBlock -= blockLen;
+        }
+
+        return blocksToMerge;
+    }
+
+    
+    private void grailSmartMerge(GrailContext ctx, int[] array, int start, int leftLen, Subarray leftOrigin,
+                                                         int rightLen, int bufferOffset) {
+        int buffer = start  - bufferOffset;
+        int   left = start;
+        int middle = start  +  leftLen;
+        int  right = middle;
+        int    end = middle + rightLen;
+
+        if(leftOrigin == Subarray.LEFT) {
+            while(left < middle && right < end) {
+                if(Integer.compare(array[left], array[right]) <= 0) {
+                    grailSwap(array, buffer, left);
+                    left++;
+                }
+                else {
+                    grailSwap(array, buffer, right);
+                    right++;
+                }
+                buffer++;
+            }
+        }
+        else {
+            while(left < middle && right < end) {
+                if(Integer.compare(array[left], array[right]) <  0) {
+                    grailSwap(array, buffer, left);
+                    left++;
+                }
+                else {
+                    grailSwap(array, buffer, right);
+                    right++;
+                }
+                buffer++;
+            }            
+        }
+
+        if(left < middle) {
+            ctx.currBlockLen = middle - left;
+            // UPDATED ARGUMENTS: 'middle' and 'end' now 'middle - 1' and 'end - 1'
+            grailInPlaceBufferRewind(array, left, middle - 1, end - 1);
+        }
+        else {
+            ctx.currBlockLen = end - right;
+            if(leftOrigin == Subarray.LEFT) {
+                ctx.currBlockOrigin = Subarray.RIGHT;
+            }
+            else {
+                ctx.currBlockOrigin = Subarray.LEFT;
+            }
+        }
+    }
+
+    // MINOR CHANGE: better naming -- 'insertPos' is now 'mergeLen' -- and "middle" calculation simplified
+    private void grailSmartLazyMerge(GrailContext ctx, int[] array, int start, int leftLen, Subarray leftOrigin, int rightLen) {
+        int middle = start + leftLen;
+        
+        if(leftOrigin == Subarray.LEFT) {
+            if(Integer.compare(array[middle - 1], array[middle]) >  0) {
+                while(leftLen != 0) {
+                    int mergeLen = grailBinarySearchLeft(array, middle, rightLen, array[start]);
+
+                    if(mergeLen != 0) {
+                        grailRotate(array, start, leftLen, mergeLen);
+                        
+                        start    += mergeLen;
+                        middle   += mergeLen;
+                        rightLen -= mergeLen;
+                    }
+                    
+                    if(rightLen == 0) {
+                        ctx.currBlockLen = leftLen;
+                        return;
+                    }
+                    else {
+                        do {
+                            start++;
+                            leftLen--;
+                        } while(leftLen != 0 && Integer.compare(array[start ],
+                                                                array[middle]) <= 0);
+                    }
+                }
+            }
+        }
+        else {
+            if(Integer.compare(array[middle - 1], array[middle]) >= 0) {
+                while(leftLen != 0) {
+                    int mergeLen = grailBinarySearchRight(array, middle, rightLen, array[start]);
+
+                    if(mergeLen != 0) {
+                        grailRotate(array, start, leftLen, mergeLen);
+                        
+                        start    += mergeLen;
+                        middle   += mergeLen;
+                        rightLen -= mergeLen;
+                    }
+                    
+                    if(rightLen == 0) {
+                        ctx.currBlockLen = leftLen;
+                        return;
+                    }
+                    else {
+                        do {
+                            start++;
+                            leftLen--;
+                        } while(leftLen != 0 && Integer.compare(array[start ],
+                                                                array[middle]) < 0);
+                    }
+                }
+            }
+        }
+
+        ctx.currBlockLen = rightLen;
+        if(leftOrigin == Subarray.LEFT) {
+            ctx.currBlockOrigin = Subarray.RIGHT;
+        }
+        else {
+            ctx.currBlockOrigin = Subarray.LEFT;
+        }
+    }
+
+    // FUNCTION RENAMED: more consistent with other "out-of-place" merges
+    private void grailSmartMergeOutOfPlace(GrailContext ctx, int[] array, int start, int leftLen, Subarray leftOrigin,
+                                                                   int rightLen, int bufferOffset) {
+        int buffer = start  - bufferOffset;
+        int   left = start;
+        int middle = start  +  leftLen;
+        int  right = middle;
+        int    end = middle + rightLen;
+
+        if(leftOrigin == Subarray.LEFT) {
+            while(left < middle && right < end) {
+                if(Integer.compare(array[left], array[right]) <= 0) {
+                    array[buffer] = array[left];
+                    left++;
+                }
+                else {
+                    array[buffer] = array[right];
+                    right++;
+                }
+                buffer++;
+            }
+        }
+        else {
+            while(left < middle && right < end) {
+                if(Integer.compare(array[left], array[right]) <  0) {
+                    array[buffer] = array[left];
+                    left++;
+                }
+                else {
+                    array[buffer] = array[right];
+                    right++;
+                }
+                buffer++;
+            }            
+        }
+
+        if(left < middle) {
+            ctx.currBlockLen = middle - left;
+            // UPDATED ARGUMENTS: 'middle' and 'end' now 'middle - 1' and 'end - 1'
+            grailOutOfPlaceBufferRewind(array, left, middle - 1, end - 1);
+        }
+        else {
+            ctx.currBlockLen = end - right;
+            if(leftOrigin == Subarray.LEFT) {
+                ctx.currBlockOrigin = Subarray.RIGHT;
+            }
+            else {
+                ctx.currBlockOrigin = Subarray.LEFT;
+            }
+        }
+    }
+
+    
+    // Credit to Anonymous0726 for better variable names such as "nextBlock"
+    // Also minor change: removed unnecessary "currBlock = nextBlock" lines
+    private void grailMergeBlocks(GrailContext ctx, int[] array, int firstKey, int medianKey, int start,
+                                               int blockCount, int blockLen, int lastMergeBlocks,
+                                               int lastLen) {
+        int buffer;
+        
+        int currBlock;
+        int nextBlock = start + blockLen;
+
+        ctx.currBlockLen    = blockLen;
+        ctx.currBlockOrigin = grailGetSubarray(array, firstKey, medianKey);
+
+        for(int keyIndex = 1; keyIndex < blockCount; keyIndex++, nextBlock += blockLen) {
+            Subarray nextBlockOrigin;
+            
+            currBlock       = nextBlock - ctx.currBlockLen;
+            nextBlockOrigin = grailGetSubarray(array, firstKey + keyIndex, medianKey);
+
+            if(nextBlockOrigin == ctx.currBlockOrigin) {
+                buffer = currBlock - blockLen;
+                
+                grailBlockSwap(array, buffer, currBlock, ctx.currBlockLen);
+                ctx.currBlockLen = blockLen;
+            }
+            else {
+                this.grailSmartMerge(ctx, array, currBlock, ctx.currBlockLen, ctx.currBlockOrigin,
+                                     blockLen, blockLen);
+            }
+        }
+
+        currBlock = nextBlock - ctx.currBlockLen;
+        buffer    = currBlock - blockLen;
+        
+        if(lastLen != 0) {
+            if(ctx.currBlockOrigin == Subarray.RIGHT) {
+                grailBlockSwap(array, buffer, currBlock, ctx.currBlockLen);
+
+                currBlock            = nextBlock;
+                ctx.currBlockLen    = blockLen * lastMergeBlocks;
+                ctx.currBlockOrigin = Subarray.LEFT;
+            }
+            else {
+                ctx.currBlockLen += blockLen * lastMergeBlocks;
+            }
+
+            grailMergeForwards(array, currBlock, ctx.currBlockLen, lastLen, blockLen);
+        }
+        else {
+            grailBlockSwap(array, buffer, currBlock, ctx.currBlockLen);
+        }
+    }
+
+    private void grailLazyMergeBlocks(GrailContext ctx, int[] array, int firstKey, int medianKey, int start,
+                                                   int blockCount, int blockLen, int lastMergeBlocks,
+                                                   int lastLen) {
+        int currBlock;
+        int nextBlock = start + blockLen;
+
+        ctx.currBlockLen    = blockLen;
+        ctx.currBlockOrigin = grailGetSubarray(array, firstKey, medianKey);
+
+        for(int keyIndex = 1; keyIndex < blockCount; keyIndex++, nextBlock += blockLen) {
+            Subarray nextBlockOrigin;
+            
+            currBlock       = nextBlock - ctx.currBlockLen;
+            nextBlockOrigin = grailGetSubarray(array, firstKey + keyIndex, medianKey);
+
+            if(nextBlockOrigin == ctx.currBlockOrigin) {
+                ctx.currBlockLen = blockLen;
+            }
+            else {
+                // These checks were included in the original code... but why???
+                if(blockLen != 0 && ctx.currBlockLen != 0) {
+                    this.grailSmartLazyMerge(ctx, array, currBlock, ctx.currBlockLen, ctx.currBlockOrigin,
+                                             blockLen);
+                }
+            }
+        }
+
+        currBlock = nextBlock - ctx.currBlockLen;
+
+        if(lastLen != 0) {
+            if(ctx.currBlockOrigin == Subarray.RIGHT) {
+                currBlock            = nextBlock;
+                ctx.currBlockLen    = blockLen * lastMergeBlocks;
+                ctx.currBlockOrigin = Subarray.LEFT;
+            }
+            else {
+                ctx.currBlockLen += blockLen * lastMergeBlocks;
+            }
+
+            grailLazyMerge(array, currBlock, ctx.currBlockLen, lastLen);
+        }
+    }
+
+    private void grailMergeBlocksOutOfPlace(GrailContext ctx, int[] array, int firstKey, int medianKey, int start,
+                                                         int blockCount, int blockLen, int lastMergeBlocks,
+                                                         int lastLen) {
+        int buffer;
+        
+        int currBlock;
+        int nextBlock = start + blockLen;
+
+        ctx.currBlockLen    = blockLen;
+        ctx.currBlockOrigin = grailGetSubarray(array, firstKey, medianKey);
+
+        for(int keyIndex = 1; keyIndex < blockCount; keyIndex++, nextBlock += blockLen) {
+            Subarray nextBlockOrigin;
+            
+            currBlock       = nextBlock - ctx.currBlockLen;  
+            nextBlockOrigin = grailGetSubarray(array, firstKey + keyIndex, medianKey);
+
+            if(nextBlockOrigin == ctx.currBlockOrigin) {
+                buffer = currBlock - blockLen;
+                
+                System.arraycopy(array, currBlock, array, buffer, ctx.currBlockLen);
+                ctx.currBlockLen = blockLen;
+            }
+            else {
+                this.grailSmartMergeOutOfPlace(ctx, array, currBlock, ctx.currBlockLen, ctx.currBlockOrigin,
+                                               blockLen, blockLen);
+            }
+        }
+
+        currBlock = nextBlock - ctx.currBlockLen;
+        buffer    = currBlock - blockLen;
+        
+        if(lastLen != 0) {
+            if(ctx.currBlockOrigin == Subarray.RIGHT) {
+                System.arraycopy(array, currBlock, array, buffer, ctx.currBlockLen);
+
+                currBlock            = nextBlock;
+                ctx.currBlockLen    = blockLen * lastMergeBlocks;
+                ctx.currBlockOrigin = Subarray.LEFT;
+            }
+            else {
+                ctx.currBlockLen += blockLen * lastMergeBlocks;
+            }
+
+            grailMergeOutOfPlace(array, currBlock, ctx.currBlockLen, lastLen, blockLen);
+        }
+        else {
+            System.arraycopy(array, currBlock, array, buffer, ctx.currBlockLen);
+        }
+    }
+
+
+    //TODO: Double-check "Merge Blocks" arguments
+    private void grailCombineInPlace(GrailContext ctx, int[] array, int firstKey, int start, int length,
+                                                  int subarrayLen, int blockLen,
+                                                  int mergeCount, int lastSubarrays,
+                                                  boolean buffer) { //TODO: Do collisions with hanging indents like these affect readability?
+
+        int fullMerge  = 2 * subarrayLen;
+        // SLIGHT OPTIMIZATION: 'blockCount' only needs to be calculated once for regular merges
+        int blockCount = fullMerge / blockLen;
+        
+        for(int mergeIndex = 0; mergeIndex < mergeCount; mergeIndex++) {
+            int offset = start + (mergeIndex * fullMerge);
+
+            grailSmallSort(array, firstKey, blockCount);
+
+            // INCORRECT PARAMETER BUG FIXED: `block select sort` should be using `offset`, not `start`
+            int medianKey = subarrayLen / blockLen;
+            medianKey = grailBlockSelectSort(array, firstKey, offset, medianKey, blockCount, blockLen);
+
+            if(buffer) {
+                this.grailMergeBlocks(ctx, array, firstKey, firstKey + medianKey, offset, blockCount, blockLen, 0, 0);
+            }
+            else {
+                this.grailLazyMergeBlocks(ctx, array, firstKey, firstKey + medianKey, offset, blockCount, blockLen, 0, 0);
+            }
+        }
+
+        // INCORRECT CONDITIONAL/PARAMETER BUG FIXED: Credit to 666666t for debugging.
+        if(lastSubarrays != 0) {
+            int offset = start + (mergeCount * fullMerge);
+            blockCount = lastSubarrays / blockLen;
+
+            grailSmallSort(array, firstKey, blockCount + 1);
+
+            // INCORRECT PARAMETER BUG FIXED: `block select sort` should be using `offset`, not `start`
+            int medianKey = subarrayLen / blockLen;
+            medianKey = grailBlockSelectSort(array, firstKey, offset, medianKey, blockCount, blockLen);
+
+            // MISSING BOUNDS CHECK BUG FIXED: `lastFragment` *can* be 0 if the last two subarrays are evenly
+            //                                 divided into blocks. This prevents Grailsort from going out-of-bounds.
+            int lastFragment = lastSubarrays - (blockCount * blockLen);
+            int lastMergeBlocks;
+            if(lastFragment != 0) {
+                lastMergeBlocks = grailCountLastMergeBlocks(array, offset, blockCount, blockLen);
+            }
+            else {
+                lastMergeBlocks = 0;
+            }
+
+            int smartMerges = blockCount - lastMergeBlocks;
+
+            //TODO: Double-check if this micro-optimization works correctly like the original
+            if(smartMerges == 0) {
+                // MINOR CHANGE: renamed for consistency (used to be 'leftLength')
+                int leftLen = lastMergeBlocks * blockLen;
+
+                // INCORRECT PARAMETER BUG FIXED: these merges should be using `offset`, not `start`
+                if(buffer) {
+                    grailMergeForwards(array, offset, leftLen, lastFragment, blockLen);
+                }
+                else {
+                    grailLazyMerge(array, offset, leftLen, lastFragment);
+                }
+            }
+            else {
+                if(buffer) {
+                    this.grailMergeBlocks(ctx, array, firstKey, firstKey + medianKey, offset,
+                                          smartMerges, blockLen, lastMergeBlocks, lastFragment);
+                }
+                else {
+                    this.grailLazyMergeBlocks(ctx, array, firstKey, firstKey + medianKey, offset,
+                                              smartMerges, blockLen, lastMergeBlocks, lastFragment);
+                }
+            }
+        }
+
+        if(buffer) {
+            grailInPlaceBufferReset(array, start, length, blockLen);
+        }
+    }
+
+    private void grailCombineOutOfPlace(GrailContext ctx, int[] array, int firstKey, int start, int length,
+                                                     int subarrayLen, int blockLen,
+                                                     int mergeCount, int lastSubarrays) {
+        System.arraycopy(array, start - blockLen, ctx.extBuffer, 0, blockLen);
+
+        int fullMerge = 2 * subarrayLen;
+        // SLIGHT OPTIMIZATION: 'blockCount' only needs to be calculated once for regular merges
+        int blockCount = fullMerge / blockLen;
+        
+        for(int mergeIndex = 0; mergeIndex < mergeCount; mergeIndex++) {
+            int offset = start + (mergeIndex * fullMerge);
+
+            grailSmallSort(array, firstKey, blockCount);
+
+            // INCORRECT PARAMETER BUG FIXED: `block select sort` should be using `offset`, not `start`
+            int medianKey = subarrayLen / blockLen;
+            medianKey = grailBlockSelectSort(array, firstKey, offset, medianKey, blockCount, blockLen);
+
+            this.grailMergeBlocksOutOfPlace(ctx, array, firstKey, firstKey + medianKey, offset,
+                                            blockCount, blockLen, 0, 0);
+        }
+
+        // INCORRECT CONDITIONAL/PARAMETER BUG FIXED: Credit to 666666t for debugging.
+        if(lastSubarrays != 0) {
+            int offset = start + (mergeCount * fullMerge);
+            blockCount = lastSubarrays / blockLen;
+
+            grailSmallSort(array, firstKey, blockCount + 1);
+
+            // INCORRECT PARAMETER BUG FIXED: `block select sort` should be using `offset`, not `start`
+            int medianKey = subarrayLen / blockLen;
+            medianKey = grailBlockSelectSort(array, firstKey, offset, medianKey, blockCount, blockLen);
+
+            // MISSING BOUNDS CHECK BUG FIXED: `lastFragment` *can* be 0 if the last two subarrays are evenly
+            //                                 divided into blocks. This prevents Grailsort from going out-of-bounds.
+            int lastFragment = lastSubarrays - (blockCount * blockLen);
+            int lastMergeBlocks;
+            if(lastFragment != 0) {
+                lastMergeBlocks = grailCountLastMergeBlocks(array, offset, blockCount, blockLen);
+            }
+            else {
+                lastMergeBlocks = 0;
+            }
+
+            int smartMerges = blockCount - lastMergeBlocks;
+
+            if(smartMerges == 0) {
+                // MINOR CHANGE: renamed for consistency (used to be 'leftLength')
+                int leftLen = lastMergeBlocks * blockLen;
+                
+                // INCORRECT PARAMETER BUG FIXED: this merge should be using `offset`, not `start`
+                grailMergeOutOfPlace(array, offset, leftLen, lastFragment, blockLen);
+            }
+            else {
+                this.grailMergeBlocksOutOfPlace(ctx, array, firstKey, firstKey + medianKey, offset,
+                                                smartMerges, blockLen, lastMergeBlocks, lastFragment);
+            }
+        }
+
+        grailOutOfPlaceBufferReset(array, start, length, blockLen);
+        System.arraycopy(ctx.extBuffer, 0, array, start - blockLen, blockLen);
+    }
+
+    // 'keys' are on the left side of array. Blocks of length 'subarrayLen' combined. We'll combine them in pairs
+    // 'subarrayLen' is a power of 2. (2 * subarrayLen / blockLen) keys are guaranteed
+    //
+    // IMPORTANT RENAME: 'lastSubarray' is now 'lastSubarrays' because it includes the length of the last left
+    //                   subarray AND last right subarray (if there is a right subarray at all).
+    //
+    //                   *Please also check everything surrounding 'if(lastSubarrays != 0)' inside
+    //                   'combine in-/out-of-place' methods for other renames!!*
+    private void grailCombineBlocks(GrailContext ctx, int[] array, int firstKey, int start, int length,
+                                                 int subarrayLen, int blockLen, boolean buffer) {
+        int     fullMerge = 2 * subarrayLen;
+        int    mergeCount = length /  fullMerge;
+        int lastSubarrays = length - (fullMerge * mergeCount);
+
+        if(lastSubarrays <= subarrayLen) {
+            length -= lastSubarrays;
+            lastSubarrays = 0;
+        }
+
+        // INCOMPLETE CONDITIONAL BUG FIXED: In order to combine blocks out-of-place, we must check if a full-sized
+        //                                   block fits into our external buffer.
+        if(buffer && blockLen <= ctx.extBufferLen) {
+            this.grailCombineOutOfPlace(ctx, array, firstKey, start, length, subarrayLen, blockLen,
+                                        mergeCount, lastSubarrays);
+        }
+        else {
+            this.grailCombineInPlace(ctx, array, firstKey, start, length, subarrayLen, blockLen,
+                                     mergeCount, lastSubarrays, buffer);
+        }
+    }
+
+
+    // "Classic" in-place merge sort using binary searches and rotations
+    //
+    // cost: min(leftLen, rightLen)^2 + max(leftLen, rightLen)
+    // MINOR CHANGES: better naming -- 'insertPos' is now 'mergeLen' -- and "middle"/"end" calculations simplified
+    private static void grailLazyMerge(int[] array, int start, int leftLen, int rightLen) {
+        if(leftLen < rightLen) {
+            int middle = start + leftLen;
+            
+            while(leftLen != 0) {
+                int mergeLen = grailBinarySearchLeft(array, middle, rightLen, array[start]);
+
+                if(mergeLen != 0) {
+                    grailRotate(array, start, leftLen, mergeLen);
+                    
+                    start    += mergeLen;
+                    middle   += mergeLen;
+                    rightLen -= mergeLen;
+                }
+                
+                if(rightLen == 0) {
+                    break;
+                }
+                else {
+                    do {
+                        start++;
+                        leftLen--;
+                    } while(leftLen != 0 && Integer.compare(array[start ],
+                                                            array[middle]) <= 0);
+                }
+            }
+        }
+        // INDEXING BUG FIXED: Credit to Anonymous0726 for debugging.
+        else {
+            int end = start + leftLen + rightLen - 1;
+            
+            while(rightLen != 0) {            
+                int mergeLen = grailBinarySearchRight(array, start, leftLen, array[end]);
+
+                if(mergeLen != leftLen) {
+                    grailRotate(array, start + mergeLen, leftLen - mergeLen, rightLen);
+                    
+                    end     -=  leftLen - mergeLen;
+                    leftLen  = mergeLen;
+                }
+
+                if(leftLen == 0) {
+                    break;
+                }
+                else {
+                    int middle = start + leftLen;
+                    do {
+                        rightLen--;
+                        end--;
+                    } while(rightLen != 0 && Integer.compare(array[middle - 1],
+                                                             array[end       ]) <= 0);
+                }
+            }
+        }
+    }
+
+    private static void grailLazyStableSort(int[] array, int start, int length, int runLen) {
+        // Sort short runs with the small-array kernel first, rather than merging up from pairs
+        int index = 0;
+        for(; length - index > runLen; index += runLen) {
+            grailSmallSort(array, start + index, runLen);
+        }
+        grailSmallSort(array, start + index, length - index);
+
+        for(int mergeLen = runLen; mergeLen < length; mergeLen *= 2) {
+            int fullMerge = 2 * mergeLen;
+
+            int mergeIndex;
+            int mergeEnd = length - fullMerge;
+
+            for(mergeIndex = 0; mergeIndex <= mergeEnd; mergeIndex += fullMerge) {
+                grailLazyMerge(array, start + mergeIndex, mergeLen, mergeLen);
+            }
+
+            int leftOver = length - mergeIndex;
+            if(leftOver > mergeLen) {
+                grailLazyMerge(array, start + mergeIndex, mergeLen, leftOver - mergeLen);
+            }
+
+            // OVERFLOW BUG FIXED: past 2^30, doubling 'mergeLen' wrapped around to a negative
+            //                     number and this loop never ended
+            if(mergeLen >= length - mergeLen) {
+                break;
+            }
+        }
+    }
+
+    
+    // Calculates the minimum between numKeys and cbrt(2 * subarrayLen * keysFound).
+    // Math will be further explained later, but just like in grailCommonSort, this
+    // loop is rendered completely useless by the scrolling buffer optimization;
+    // minKeys will always equal numKeys.
+    //
+    // Code still here for preservation purposes.
+    /*
+     * private static int grailCalcMinKeys(int numKeys, long subarrayKeys) {
+     *     int minKeys = 1;
+     *     while(minKeys < numKeys && subarrayKeys != 0) {
+     *         minKeys      *= 2;
+     *         subarrayKeys /= 8;
+     *     }
+     *     return minKeys; 
+     * }
+     */
+
+    
+    void grailCommonSort(int[] array, int start, int length, int[] extBuffer, int extBufferLen) {
+        if(length < this.smallSortLen) {
+            grailSmallSort(array, start, length);
+            return;
+        }
+
+        int blockLen = 1;
+
+        // find the smallest power of two greater than or equal to
+        // the square root of the input's length
+        while(((long) blockLen * blockLen) < length) {
+            blockLen *= 2;
+        }
+
+        // '((a - 1) / b) + 1' is actually a clever and very efficient
+        // formula for the ceiling of (a / b)
+        //
+        // credit to Anonymous0726 for figuring this out!
+        int keyLen = ((length - 1) / blockLen) + 1;
+
+        // Grailsort is hoping to find `2 * sqrt(n)` unique items
+        // throughout the array
+        int idealKeys = keyLen + blockLen;
+
+        //TODO: Clean up `start +` offsets
+        int keysFound = grailCollectKeys(array, start, length, idealKeys);
+
+        boolean idealBuffer;
+        if(keysFound < idealKeys) {
+            if(keysFound < 4) {
+                // GRAILSORT STRATEGY 3 -- No block swaps or scrolling buffer; resort to Lazy Stable Sort
+                grailLazyStableSort(array, start, length, this.smallSortLen);
+                return;
+            }
+            else {
+                // GRAILSORT STRATEGY 2 -- Block swaps with small scrolling buffer and/or lazy merges
+                keyLen = blockLen;
+                blockLen = 0;
+                idealBuffer = false;
+
+                while(keyLen > keysFound) {
+                    keyLen /= 2;
+                }
+            }
+        }
+        else {
+            // GRAILSORT STRATEGY 1 -- Block swaps with scrolling buffer
+            idealBuffer = true;
+        }
+
+        int bufferEnd = blockLen + keyLen;
+        int subarrayLen;
+        if(idealBuffer) {
+            subarrayLen = blockLen;
+        }
+        else {
+            subarrayLen = keyLen;
+        }
+
+        GrailContext ctx;
+        if(idealBuffer && extBuffer != null) {
+            // GRAILSORT + EXTRA SPACE
+            ctx = new GrailContext(extBuffer, extBufferLen);
+        }
+        else {
+            ctx = new GrailContext(null, 0);
+        }
+
+        this.grailBuildBlocks(ctx, array, start + bufferEnd, length - bufferEnd, subarrayLen);
+
+        while((length - bufferEnd) > (2L * subarrayLen)) {
+            subarrayLen *= 2;
+
+            int currentBlockLen = blockLen;
+            boolean scrollingBuffer = idealBuffer;
+
+            // Huge credit to Anonymous0726, phoenixbound, and DeveloperSort for their tireless efforts
+            // towards deconstructing this math.
+            if(!idealBuffer) {
+                int keyBuffer = keyLen / 2;
+                
+                // TODO: Rewrite explanation for this math
+                if(keyBuffer >= ((2L * subarrayLen) / keyBuffer)) {
+                    currentBlockLen = keyBuffer;
+                    scrollingBuffer = true;
+                }
+                else {
+                    // This is a very recent discovery, and the math will be spelled out later, but this
+                    // "minKeys" calculation is *completely unnecessary*. "minKeys" would be less than
+                    // "keyLen" iff ((keyBuffer >= (2 * subarrayLen)) / keyBuffer)... but this situation
+                    // is already covered by our scrolling buffer optimization right above!! Consequently,
+                    // "minKeys" will *always* be equal to "keyLen" when Grailsort resorts to smart lazy
+                    // merges. Removing this loop is by itself a decent optimization, as well!
+                    //
+                    // Code still here for preservation purposes.
+                    /*
+                     * long subarrayKeys = ((long) subarrayLen * keysFound) / 2;
+                     * int minKeys = grailCalcMinKeys(keyLen, subarrayKeys);
+                     *
+                     * currentBlockLen = (2 * subarrayLen) / minKeys;
+                     */
+                    
+                    currentBlockLen = (int) ((2L * subarrayLen) / keyLen);
+                }
+            }
+
+            // WRONG VARIABLE BUG FIXED: 4th argument should be `length - bufferEnd`, was `length - bufferLen` before.
+            // Credit to 666666t and Anonymous0726 for debugging.
+            this.grailCombineBlocks(ctx, array, start, start + bufferEnd, length - bufferEnd,
+                                    subarrayLen, currentBlockLen, scrollingBuffer);
+        }
+
+        grailSmallSort(array, start, bufferEnd);
+        grailLazyMerge(array, start, bufferEnd, length - bufferEnd);
+    }
+
+
+    public void grailSortInPlace(int[] array, int start, int length) {
+        this.grailCommonSort(array, start, length, null, 0);
+    }
+
+    public void grailSortStaticOOP(int[] array, int start, int length) {
+        int[] buffer = new int[GRAIL_STATIC_EXT_BUFFER_LEN];
+        this.grailCommonSort(array, start, length, buffer, GRAIL_STATIC_EXT_BUFFER_LEN);
+    }
+    
+    public void grailSortDynamicOOP(int[] array, int start, int length) {
+        int bufferLen = 1;
+        while(((long) bufferLen * bufferLen) < length) {
+            bufferLen *= 2;
+        }
+        int[] buffer = new int[bufferLen];
+        this.grailCommonSort(array, start, length, buffer, bufferLen);
+    }
+}
@@ -0,0 +1,92 @@
+package sort;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// Sorts a RandomAccess List in-place with IndexedGrailSort, straight through get() and set().
+// Unlike List.sort, the list is never copied into an array, so sorting it needs no more memory
+// than the O(sqrt n) keys and items Grailsort collects from the list itself.
+//
+// Lists without RandomAccess would make every get() and set() O(n), so they're rejected; see
+// GrailSort.grailSortList, which copies those into an array instead.
+
+final public class ListSortable<K> implements GrailSortable {
+    private final List<K> list;
+    private final Comparator<? super K> cmp;
+
+    public ListSortable(List<K> list, Comparator<? super K> cmp) {
+        if(!(list instanceof RandomAccess)) {
+            throw new IllegalArgumentException("list must implement RandomAccess");
+        }
+        this.list = list;
+        this.cmp  = cmp;
+    }
+
+    public void sort() {
+        new IndexedGrailSort().grailSortInPlace(this, 0, this.list.size());
+    }
+
+    public void sort(int start, int length) {
+        new IndexedGrailSort().grailSortInPlace(this, start, length);
+    }
+
+    @Override
+    public int compare(long a, long b) {
+        return this.cmp.compare(this.list.get((int) a), this.list.get((int) b));
+    }
+
+    @Override
+    public void swap(long a, long b) {
+        // set() returns the item it replaced
+        this.list.set((int) a, this.list.set((int) b, this.list.get((int) a)));
+    }
+}
@@ -0,0 +1,130 @@
+package sort;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// LongBufferSortable - Signed longs stored in LongBuffers, sorted by IndexedGrailSort.
+//
+// The longs either live in a single (heap or direct) LongBuffer or are memory-mapped
+// straight from a file with map(), in which case the file may hold far more than 2^31
+// of them.
+
+final public class LongBufferSortable implements GrailSortable {
+    private final LongBuffer[] windows;
+    private final ByteBuffer[] mapped;
+    private final int windowShift;
+    private final long windowMask;
+
+    private final long length;
+
+    // Sorts the longs between 'buffer's position and limit
+    public LongBufferSortable(LongBuffer buffer) {
+        this(new LongBuffer[] { buffer.slice() }, new ByteBuffer[0], 31, buffer.remaining());
+    }
+
+    private LongBufferSortable(LongBuffer[] windows, ByteBuffer[] mapped, int windowShift, long length) {
+        this.windows     = windows;
+        this.mapped      = mapped;
+        this.windowShift = windowShift;
+        this.windowMask  = (1L << windowShift) - 1;
+        this.length      = length;
+    }
+
+    // Maps 'count' longs starting at 'position' of a channel opened for reading and writing.
+    public static LongBufferSortable map(FileChannel channel, long position, long count,
+                                         ByteOrder order) throws IOException {
+        long windowLongs = MappedWindows.GRAIL_MAX_WINDOW_BYTES / Long.BYTES;
+        MappedByteBuffer[] mapped = MappedWindows.map(channel, position, count * Long.BYTES,
+                                                      windowLongs * Long.BYTES);
+
+        LongBuffer[] windows = new LongBuffer[mapped.length];
+        for(int window = 0; window < mapped.length; window++) {
+            windows[window] = mapped[window].order(order).asLongBuffer();
+        }
+
+        return new LongBufferSortable(windows, mapped, Long.numberOfTrailingZeros(windowLongs), count);
+    }
+
+    public long length() {
+        return this.length;
+    }
+
+    public void sort() {
+        new IndexedGrailSort().grailSortInPlace(this, 0, this.length);
+    }
+
+    // Writes any changes made to mapped longs back to the underlying file
+    public void force() {
+        MappedWindows.force(this.mapped);
+    }
+
+    @Override
+    public int compare(long a, long b) {
+        return Long.compare(this.windows[(int) (a >>> this.windowShift)].get((int) (a & this.windowMask)),
+                            this.windows[(int) (b >>> this.windowShift)].get((int) (b & this.windowMask)));
+    }
+
+    @Override
+    public void swap(long a, long b) {
+        LongBuffer  left = this.windows[(int) (a >>> this.windowShift)];
+        LongBuffer right = this.windows[(int) (b >>> this.windowShift)];
+        int  leftPos = (int) (a & this.windowMask);
+        int rightPos = (int) (b & this.windowMask);
+
+        long temp = left.get(leftPos);
+        left.put(leftPos, right.get(rightPos));
+        right.put(rightPos, temp);
+    }
+}
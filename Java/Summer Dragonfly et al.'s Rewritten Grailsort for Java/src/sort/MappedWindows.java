@@ -0,0 +1,87 @@
+package sort;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// A single MappedByteBuffer can't address more than 2^31 - 1 bytes, so files larger
+// than that have to be mapped as several "windows". Every window but the last one
+// holds exactly 'windowBytes' bytes, letting callers find an item's window with a
+// shift instead of a division.
+
+final class MappedWindows {
+    // 1 GiB -- a power of two comfortably below MappedByteBuffer's limit
+    final static long GRAIL_MAX_WINDOW_BYTES = 1L << 30;
+
+    private MappedWindows() {
+    }
+
+    static MappedByteBuffer[] map(FileChannel channel, long position, long size, long windowBytes) throws IOException {
+        int windowCount = (int) ((size + windowBytes - 1) / windowBytes);
+
+        MappedByteBuffer[] windows = new MappedByteBuffer[windowCount];
+        for(int window = 0; window < windowCount; window++) {
+            long offset = window * windowBytes;
+            windows[window] = channel.map(FileChannel.MapMode.READ_WRITE, position + offset,
+                                          Math.min(windowBytes, size - offset));
+        }
+        return windows;
+    }
+
+    static void force(ByteBuffer[] windows) {
+        for(ByteBuffer window : windows) {
+            if(window instanceof MappedByteBuffer) {
+                ((MappedByteBuffer) window).force();
+            }
+        }
+    }
+}
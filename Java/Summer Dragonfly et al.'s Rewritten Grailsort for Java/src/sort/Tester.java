@@ -1,8 +1,32 @@
 package sort;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.lang.reflect.Array;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 /*
  * MIT License
@@ -93,6 +117,33 @@ class GrailComparator implements Comparator<GrailPair> {
 // Current status: EVERY VERSION PASSING ALL TESTS / POTENTIALLY FIXED as of
 //                 10/23/20
 public class Tester {
+    // start, length, unique items -- with 0 unique items, nearly every item is unique
+    private static final int[][] ENTRY_POINT_TESTS = {
+        {      0,      15,      4 },
+        {      7,       8,      4 },
+        {      0,    1000,      0 },
+        {      0,  100000,      3 },
+        {      0,  100000,     16 },
+        {      0,  100000,     17 },
+        {      0,  100000,    511 },
+        {      0,  100000,  50000 },
+        { 500000,  500000,      3 },
+        { 500000,  500000,   1023 },
+        { 500000,  500000,      0 }
+    };
+
+    // Every way into Grailsort besides grailCommonSort gets the test array, and has to leave
+    // array[start, start + length - 1] exactly like Arrays.sort does -- in order, and stable --
+    // without touching anything else.
+    private interface EntryPoint {
+        public void sort(GrailPair[] array, int start, int length) throws Exception;
+    }
+
+    // A sort of 'keys', an int[], long[] or double[] of the test array's keys
+    private interface PrimitiveSort<A> {
+        public void sort(A keys, int start, int length) throws Exception;
+    }
+
     private int seed;
     
     private GrailPair[] keyArray;
@@ -185,7 +236,7 @@ public class Tester {
             // Grailsort with dynamic buffer
             else if(grailBufferType == 2) {
                 bufferLen = 1;
-                while((bufferLen * bufferLen) < length) {
+                while(((long) bufferLen * bufferLen) < length) {
                     bufferLen *= 2;
                 }
                 buffer = (GrailPair[]) Array.newInstance(this.keyArray.getClass().getComponentType(), bufferLen);
@@ -220,6 +271,779 @@ public class Tester {
         System.gc();
     }
     
+    private boolean testEntryPoint(int start, int length, GrailComparator test) {
+        if(!this.testArray(start, length, test)) {
+            return false;
+        }
+        // testArray doesn't look at anything before 'start', or at the last item
+        if(!Arrays.equals(this.keyArray, 0, start + length, this.referenceArray, 0, start + length)) {
+            this.failReason = "testArray does not match the reference array\n";
+            return false;
+        }
+        return true;
+    }
+
+    private void checkEntryPoint(int start, int length, int keyCount, String name, GrailComparator test, EntryPoint entryPoint) throws Exception {
+        this.generateTestArray(start, length, keyCount);
+        this.referenceArray = Arrays.copyOf(this.keyArray, start + length);
+
+        System.out.println("\n* " + name + " \n* start = " + start + ", length = " + length + ", unique items = " + keyCount);
+
+        long begin = System.nanoTime();
+        entryPoint.sort(this.keyArray, start, length);
+        long time = System.nanoTime() - begin;
+
+        System.out.print("- Sorted in " + time * 1e-6d + "ms...");
+        Arrays.sort(this.referenceArray, start, start + length, test);
+
+        boolean success = this.testEntryPoint(start, length, test);
+        if(success) {
+            System.out.print(" and the sort was successful!\n");
+        }
+        else {
+            System.out.print(" but the sort was NOT successful!!\nReason: " + this.failReason);
+            throw new Exception();
+        }
+
+        Arrays.fill(this.keyArray,       0, start + length, null);
+        Arrays.fill(this.valueArray,     null);
+        Arrays.fill(this.referenceArray, null);
+    }
+
+    private static int[] intKeys(GrailPair[] rows) {
+        int[] keys = new int[rows.length];
+        for(int i = 0; i < rows.length; i++) {
+            keys[i] = rows[i].getKey();
+        }
+        return keys;
+    }
+
+    // Spread out over most of the range of longs, negative ones included
+    private static long longKey(GrailPair row) {
+        return ((long) row.getKey() << 31) - (Long.MAX_VALUE / 2);
+    }
+
+    private static long[] longKeys(GrailPair[] rows) {
+        long[] keys = new long[rows.length];
+        for(int i = 0; i < rows.length; i++) {
+            keys[i] = longKey(rows[i]);
+        }
+        return keys;
+    }
+
+    // Doubles in the same order as the keys, with -0.0, 0.0 and NaN among them, which is where
+    // Double.compare and Arrays.sort don't agree with <
+    private static double doubleKey(GrailPair row, int keyCount) {
+        int  key = row.getKey();
+        int last = keyCount == 0 ? 999999999 : keyCount - 1;
+        int  mid = last / 2;
+
+        if(key == last) {
+            return Double.NaN;
+        }
+        if(key == mid) {
+            return -0.0d;
+        }
+        return key < mid ? key - mid : key - mid - 1;
+    }
+
+    private static double[] doubleKeys(GrailPair[] rows, int keyCount) {
+        double[] keys = new double[rows.length];
+        for(int i = 0; i < rows.length; i++) {
+            keys[i] = doubleKey(rows[i], keyCount);
+        }
+        return keys;
+    }
+
+    private static void checkRows(boolean together) throws Exception {
+        if(!together) {
+            System.out.print(" but the columns were NOT sorted together!!\n");
+            throw new Exception();
+        }
+    }
+
+    // The co-sorts move the rows of the test array as a payload column alongside their keys
+    private void checkCosort(int start, int length, int keyCount, GrailComparator test) throws Exception {
+        this.checkEntryPoint(start, length, keyCount, "GrailCosort, int keys, one Object[] column", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            int[] keys = intKeys(rows);
+            GrailCosort.cosort(keys, rows);
+            checkRows(Arrays.equals(keys, intKeys(rows)));
+            System.arraycopy(rows, 0, array, first, count);
+        });
+        this.checkEntryPoint(start, length, keyCount, "GrailCosort, long keys, one Object[] column", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            long[] keys = longKeys(rows);
+            GrailCosort.cosort(keys, (Object[]) rows);
+            checkRows(Arrays.equals(keys, longKeys(rows)));
+            System.arraycopy(rows, 0, array, first, count);
+        });
+        this.checkEntryPoint(start, length, keyCount, "GrailCosort, double keys, one Object[] column", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            double[] keys = doubleKeys(rows, keyCount);
+            GrailCosort.cosort(keys, rows);
+            checkRows(Arrays.equals(keys, doubleKeys(rows, keyCount)));
+            System.arraycopy(rows, 0, array, first, count);
+        });
+        this.checkEntryPoint(start, length, keyCount, "GrailCosort, Integer keys, one Object[] column", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            Integer[] keys = new Integer[count];
+            for(int i = 0; i < count; i++) {
+                keys[i] = rows[i].getKey();
+            }
+            GrailCosort.cosort(keys, Comparator.naturalOrder(), rows);
+            for(int i = 0; i < count; i++) {
+                checkRows(keys[i].equals(rows[i].getKey()));
+            }
+            System.arraycopy(rows, 0, array, first, count);
+        });
+        // The rows of an int[][] have to be moved as rows, not sorted themselves
+        this.checkEntryPoint(start, length, keyCount, "GrailCosort, int keys, one int[][] column", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            int[] keys = intKeys(rows);
+            int[][] indices = new int[count][];
+            for(int i = 0; i < count; i++) {
+                indices[i] = new int[] { i, -i };
+            }
+            GrailCosort.cosort(keys, indices);
+            for(int i = 0; i < count; i++) {
+                int index = indices[i][0];
+                checkRows(indices[i][1] == -index && keys[i] == rows[index].getKey());
+                array[first + i] = rows[index];
+            }
+        });
+        this.checkEntryPoint(start, length, keyCount, "GrailCosort, int keys, two columns", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            int[] keys = intKeys(rows);
+            long[] values = new long[count];
+            for(int i = 0; i < count; i++) {
+                values[i] = rows[i].getValue();
+            }
+            GrailCosort.cosort(keys, rows, values);
+            for(int i = 0; i < count; i++) {
+                checkRows(keys[i] == rows[i].getKey() && values[i] == rows[i].getValue());
+            }
+            System.arraycopy(rows, 0, array, first, count);
+        });
+        this.checkEntryPoint(start, length, keyCount, "GrailCosort, int keys, an array of four columns", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            int[] keys = intKeys(rows);
+            int[] indices = new int[count];
+            String[] names = new String[count];
+            char[] chars = new char[count];
+            for(int i = 0; i < count; i++) {
+                indices[i] = i;
+                names[i]   = String.valueOf(i);
+                chars[i]   = (char) i;
+            }
+            GrailCosort.cosortColumns(keys, new Object[] { indices, names, chars, rows });
+            for(int i = 0; i < count; i++) {
+                int index = indices[i];
+                checkRows(names[i].equals(String.valueOf(index)) && chars[i] == (char) index &&
+                          keys[i] == rows[i].getKey());
+            }
+            System.arraycopy(rows, 0, array, first, count);
+        });
+    }
+
+    // Strings in the same order as the keys, that all start the same way but aren't all as long:
+    // how many digits a key has comes before the digits themselves, which start at 'zero'
+    private static String stringKey(GrailPair row, char zero) {
+        String digits = Integer.toString(row.getKey());
+
+        StringBuilder key = new StringBuilder("grail:").append((char) ('a' + digits.length()));
+        for(int i = 0; i < digits.length(); i++) {
+            key.append((char) (zero + digits.charAt(i) - '0'));
+        }
+        return key.toString();
+    }
+
+    private static String[] stringKeys(GrailPair[] rows, char zero) {
+        String[] keys = new String[rows.length];
+        for(int i = 0; i < rows.length; i++) {
+            keys[i] = stringKey(rows[i], zero);
+        }
+        return keys;
+    }
+
+    private static byte[][] byteKeys(GrailPair[] rows) {
+        byte[][] keys = new byte[rows.length][];
+        for(int i = 0; i < rows.length; i++) {
+            keys[i] = stringKey(rows[i], '0').getBytes(StandardCharsets.US_ASCII);
+        }
+        return keys;
+    }
+
+    // The prefix sorts move the rows of the test array alongside their keys, too. Both the
+    // prefixes themselves and the plain comparisons they're dropped for are checked: with few
+    // unique items, a sample of the prefixes has too many repeats for them to be used.
+    private void checkPrefixSort(int start, int length, int keyCount, GrailComparator test) throws Exception {
+        this.checkEntryPoint(start, length, keyCount, "GrailPrefixSort, String keys, one Object[] column", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            String[] keys = stringKeys(rows, '0');
+            GrailPrefixSort.sort(keys, rows);
+            checkRows(Arrays.equals(keys, stringKeys(rows, '0')));
+            System.arraycopy(rows, 0, array, first, count);
+        });
+        this.checkEntryPoint(start, length, keyCount, "GrailPrefixSort, non-ASCII String keys, an array of one column", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            String[] keys = stringKeys(rows, '\u30A0');
+            GrailPrefixSort.sortColumns(keys, new Object[] { rows });
+            checkRows(Arrays.equals(keys, stringKeys(rows, '\u30A0')));
+            System.arraycopy(rows, 0, array, first, count);
+        });
+        // The rows of an int[][] have to be moved as rows, not sorted themselves
+        this.checkEntryPoint(start, length, keyCount, "GrailPrefixSort, byte[] keys, one int[][] column", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            byte[][] keys = byteKeys(rows);
+            int[][] indices = new int[count][];
+            for(int i = 0; i < count; i++) {
+                indices[i] = new int[] { i, -i };
+            }
+            GrailPrefixSort.sort(keys, indices);
+            for(int i = 0; i < count; i++) {
+                int index = indices[i][0];
+                checkRows(indices[i][1] == -index && Arrays.equals(keys[i], byteKeys(new GrailPair[] { rows[index] })[0]));
+                array[first + i] = rows[index];
+            }
+        });
+        this.checkEntryPoint(start, length, keyCount, "GrailPrefixSort, byte arena, two columns", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            byte[][] keys = byteKeys(rows);
+            int[] offsets = new int[count];
+            int[] lengths = new int[count];
+            int arenaLen = 0;
+            for(int i = 0; i < count; i++) {
+                offsets[i] = arenaLen;
+                lengths[i] = keys[i].length;
+                arenaLen  += keys[i].length;
+            }
+            byte[] arena = new byte[arenaLen];
+            for(int i = 0; i < count; i++) {
+                System.arraycopy(keys[i], 0, arena, offsets[i], lengths[i]);
+            }
+            byte[] original = arena.clone();
+
+            int[] values = new int[count];
+            for(int i = 0; i < count; i++) {
+                values[i] = rows[i].getValue();
+            }
+            GrailPrefixSort.sort(arena, offsets, lengths, rows, values);
+
+            checkRows(Arrays.equals(arena, original));
+            byte[][] sortedKeys = byteKeys(rows);
+            for(int i = 0; i < count; i++) {
+                checkRows(values[i] == rows[i].getValue() &&
+                          Arrays.equals(arena, offsets[i], offsets[i] + lengths[i], sortedKeys[i], 0, sortedKeys[i].length));
+            }
+            System.arraycopy(rows, 0, array, first, count);
+        });
+    }
+
+    private static Object[] boxed(Object primitives, int start, int length) {
+        Object[] boxed = new Object[length];
+        for(int i = 0; i < length; i++) {
+            boxed[i] = Array.get(primitives, start + i);
+        }
+        return boxed;
+    }
+
+    // Primitives are nothing but their keys, so after they're sorted, each key is matched back up with
+    // the next row that had it, in their original order. Keys that no row had, or that too many did,
+    // fail the check, and so does touching anything before 'start'.
+    private static void matchRows(GrailPair[] array, int start, int length, Object before, Object after) throws Exception {
+        if(!Arrays.equals(boxed(before, 0, start), boxed(after, 0, start))) {
+            System.out.print(" but it sorted items before the start!!\n");
+            throw new Exception();
+        }
+
+        Object[] keys = boxed(before, start, length);
+        Map<Object, ArrayDeque<GrailPair>> rows = new HashMap<>();
+        for(int i = 0; i < length; i++) {
+            rows.computeIfAbsent(keys[i], key -> new ArrayDeque<>()).add(array[start + i]);
+        }
+
+        Object[] sorted = boxed(after, start, length);
+        for(int i = 0; i < length; i++) {
+            ArrayDeque<GrailPair> next = rows.get(sorted[i]);
+            if(next == null || next.isEmpty()) {
+                System.out.print(" but its keys are NOT the ones it was given!!\n");
+                throw new Exception();
+            }
+            array[start + i] = next.poll();
+        }
+    }
+
+    // The keys before 'start' are the largest there are, and mustn't be moved
+    private static EntryPoint intSort(PrimitiveSort<int[]> sort) {
+        return (array, start, length) -> {
+            int[] keys = new int[start + length];
+            Arrays.fill(keys, 0, start, Integer.MAX_VALUE);
+            System.arraycopy(intKeys(Arrays.copyOfRange(array, start, start + length)), 0, keys, start, length);
+
+            int[] before = keys.clone();
+            sort.sort(keys, start, length);
+            matchRows(array, start, length, before, keys);
+        };
+    }
+
+    private static EntryPoint longSort(PrimitiveSort<long[]> sort) {
+        return (array, start, length) -> {
+            long[] keys = new long[start + length];
+            Arrays.fill(keys, 0, start, Long.MAX_VALUE);
+            System.arraycopy(longKeys(Arrays.copyOfRange(array, start, start + length)), 0, keys, start, length);
+
+            long[] before = keys.clone();
+            sort.sort(keys, start, length);
+            matchRows(array, start, length, before, keys);
+        };
+    }
+
+    private static EntryPoint doubleSort(int keyCount, PrimitiveSort<double[]> sort) {
+        return (array, start, length) -> {
+            double[] keys = new double[start + length];
+            Arrays.fill(keys, 0, start, Double.NaN);
+            System.arraycopy(doubleKeys(Arrays.copyOfRange(array, start, start + length), keyCount), 0, keys, start, length);
+
+            double[] before = keys.clone();
+            sort.sort(keys, start, length);
+            matchRows(array, start, length, before, keys);
+        };
+    }
+
+    // Unlike the keys above, these longs are all different: each row's key, followed by its index.
+    // Sorting them is a stable sort of the rows, which the sorted indices put back in order.
+    private static long indexedKey(GrailPair row, int index) {
+        return (((long) row.getKey() << 32) | index) + (Long.MIN_VALUE / 2);
+    }
+
+    private static int indexOf(long indexedKey) {
+        return (int) (indexedKey - (Long.MIN_VALUE / 2));
+    }
+
+    private static EntryPoint indexedSort(PrimitiveSort<long[]> sort) {
+        return (array, start, length) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, start, start + length);
+            long[] keys = new long[length];
+            for(int i = 0; i < length; i++) {
+                keys[i] = indexedKey(rows[i], i);
+            }
+
+            sort.sort(keys, 0, length);
+            for(int i = 0; i < length; i++) {
+                array[start + i] = rows[indexOf(keys[i])];
+            }
+        };
+    }
+
+    private static void sortExternally(long[] keys, int start, int length) throws IOException {
+        Path input  = Files.createTempFile("grail", ".in");
+        Path output = Files.createTempFile("grail", ".out");
+        try {
+            try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(input)))) {
+                for(int i = start; i < start + length; i++) {
+                    out.writeLong(keys[i]);
+                }
+            }
+
+            // The smallest budget there is, so that even short inputs are split into several runs
+            new ExternalGrailSort(3 * ExternalGrailSort.GRAIL_IO_BUFFER_LEN, null).sort(input, output);
+
+            try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(output)))) {
+                for(int i = start; i < start + length; i++) {
+                    keys[i] = in.readLong();
+                }
+            }
+        }
+        finally {
+            Files.deleteIfExists(input);
+            Files.deleteIfExists(output);
+        }
+    }
+
+    private static void sortMapped(long[] keys, int start, int length) throws IOException {
+        Path file = Files.createTempFile("grail", ".longs");
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocate(length * Long.BYTES);
+            buffer.asLongBuffer().put(keys, start, length);
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+
+            LongBufferSortable sortable = LongBufferSortable.map(channel, 0, length, ByteOrder.BIG_ENDIAN);
+            sortable.sort();
+            sortable.force();
+
+            buffer.clear();
+            while(buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0);
+            buffer.flip();
+            buffer.asLongBuffer().get(keys, start, length);
+        }
+        finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // Records of a key, then the row's index, both 8 bytes long, sorted by their keys alone
+    private static void sortRecords(GrailPair[] array, int start, int length) {
+        GrailPair[] rows = Arrays.copyOfRange(array, start, start + length);
+        ByteBuffer records = ByteBuffer.allocateDirect(length * 2 * Long.BYTES);
+        for(int i = 0; i < length; i++) {
+            records.putLong(rows[i].getKey()).putLong(i);
+        }
+
+        records.flip();
+        new ByteRecordSortable(records, 2 * Long.BYTES, Long.BYTES).sort();
+
+        for(int i = 0; i < length; i++) {
+            array[start + i] = rows[(int) records.getLong(((2 * i) + 1) * Long.BYTES)];
+        }
+    }
+
+    // The primitive engines, and everything else that sorts primitives
+    private void checkPrimitiveSorts(int start, int length, int keyCount, GrailComparator test) throws Exception {
+        this.checkEntryPoint(start, length, keyCount, "IntGrailSort w/o External Buffer", test,
+                             intSort(new IntGrailSort()::grailSortInPlace));
+        this.checkEntryPoint(start, length, keyCount, "IntGrailSort w/ O(1) Buffer", test,
+                             intSort(new IntGrailSort()::grailSortStaticOOP));
+        this.checkEntryPoint(start, length, keyCount, "IntGrailSort w/ O(sqrt n) Buffer", test,
+                             intSort(new IntGrailSort()::grailSortDynamicOOP));
+        this.checkEntryPoint(start, length, keyCount, "IntGrailSort w/o External Buffer, without branchless kernels", test,
+                             intSort(new IntGrailSort(IntGrailSort.GRAIL_SMALL_SORT_LEN, false)::grailSortInPlace));
+
+        this.checkEntryPoint(start, length, keyCount, "LongGrailSort w/o External Buffer", test,
+                             longSort(new LongGrailSort()::grailSortInPlace));
+        this.checkEntryPoint(start, length, keyCount, "LongGrailSort w/ O(1) Buffer", test,
+                             longSort(new LongGrailSort()::grailSortStaticOOP));
+        this.checkEntryPoint(start, length, keyCount, "LongGrailSort w/ O(sqrt n) Buffer", test,
+                             longSort(new LongGrailSort()::grailSortDynamicOOP));
+        this.checkEntryPoint(start, length, keyCount, "LongGrailSort w/ O(sqrt n) Buffer, without branchless kernels", test,
+                             longSort(new LongGrailSort(LongGrailSort.GRAIL_SMALL_SORT_LEN, false)::grailSortDynamicOOP));
+
+        this.checkEntryPoint(start, length, keyCount, "DoubleGrailSort w/o External Buffer", test,
+                             doubleSort(keyCount, new DoubleGrailSort()::grailSortInPlace));
+        this.checkEntryPoint(start, length, keyCount, "DoubleGrailSort w/ O(1) Buffer", test,
+                             doubleSort(keyCount, new DoubleGrailSort()::grailSortStaticOOP));
+        this.checkEntryPoint(start, length, keyCount, "DoubleGrailSort w/ O(sqrt n) Buffer", test,
+                             doubleSort(keyCount, new DoubleGrailSort()::grailSortDynamicOOP));
+
+        this.checkEntryPoint(start, length, keyCount, "LongBufferSortable, heap buffer", test, indexedSort((keys, first, count) -> {
+            new LongBufferSortable(LongBuffer.wrap(keys, first, count)).sort();
+        }));
+        this.checkEntryPoint(start, length, keyCount, "LongBufferSortable, direct buffer", test, indexedSort((keys, first, count) -> {
+            LongBuffer buffer = ByteBuffer.allocateDirect(count * Long.BYTES).asLongBuffer();
+            buffer.put(keys, first, count).flip();
+            new LongBufferSortable(buffer).sort();
+            buffer.get(keys, first, count);
+        }));
+        this.checkEntryPoint(start, length, keyCount, "LongBufferSortable, mapped file", test,
+                             indexedSort(Tester::sortMapped));
+        this.checkEntryPoint(start, length, keyCount, "ByteRecordSortable, direct buffer", test,
+                             Tester::sortRecords);
+        this.checkEntryPoint(start, length, keyCount, "ExternalGrailSort", test,
+                             indexedSort(Tester::sortExternally));
+    }
+
+    // Everything else that sorts objects, by comparator or by key
+    private void checkObjectSorts(int start, int length, int keyCount, GrailComparator test, ForkJoinPool pool) throws Exception {
+        this.checkEntryPoint(start, length, keyCount, "IntKeyGrailSort w/o External Buffer", test,
+                             new IntKeyGrailSort<GrailPair>(GrailPair::getKey)::grailSortInPlace);
+        this.checkEntryPoint(start, length, keyCount, "IntKeyGrailSort w/ O(1) Buffer", test,
+                             new IntKeyGrailSort<GrailPair>(GrailPair::getKey)::grailSortStaticOOP);
+        this.checkEntryPoint(start, length, keyCount, "IntKeyGrailSort w/ O(sqrt n) Buffer", test,
+                             new IntKeyGrailSort<GrailPair>(GrailPair::getKey)::grailSortDynamicOOP);
+
+        this.checkEntryPoint(start, length, keyCount, "LongKeyGrailSort w/o External Buffer", test,
+                             new LongKeyGrailSort<GrailPair>(Tester::longKey)::grailSortInPlace);
+        this.checkEntryPoint(start, length, keyCount, "LongKeyGrailSort w/ O(1) Buffer", test,
+                             new LongKeyGrailSort<GrailPair>(Tester::longKey)::grailSortStaticOOP);
+        this.checkEntryPoint(start, length, keyCount, "LongKeyGrailSort w/ O(sqrt n) Buffer", test,
+                             new LongKeyGrailSort<GrailPair>(Tester::longKey)::grailSortDynamicOOP);
+
+        for(GrailRotation rotation : GrailRotation.values()) {
+            this.checkEntryPoint(start, length, keyCount, "Grailsort w/o External Buffer, " + rotation + " rotations", test,
+                                 new GrailSort<>(test, GrailMetrics.NONE, GrailBufferProvider.ALLOCATING, rotation)::grailSortInPlace);
+        }
+        this.checkEntryPoint(start, length, keyCount, "Grailsort w/ O(sqrt n) Buffer, thread-local buffers and metrics", test,
+                             new GrailSort<>(test, new GrailMetrics(), new ThreadLocalBufferProvider())::grailSortDynamicOOP);
+        this.checkEntryPoint(start, length, keyCount, "Grailsort w/ O(1) Buffer, small sorts up to 100 items", test,
+                             new GrailSort<>(test, GrailMetrics.NONE, GrailBufferProvider.ALLOCATING, GrailRotation.AUTO, 100)::grailSortStaticOOP);
+
+        this.checkEntryPoint(start, length, keyCount, "Grailsort, parallel", test, (array, first, count) -> {
+            new GrailSort<>(test).grailSortParallel(array, first, count, pool);
+        });
+        // Rows are split into segments by key first, so that sorting every segment sorts them all
+        this.checkEntryPoint(start, length, keyCount, "Grailsort, segmented", test, (array, first, count) -> {
+            int segments = 1 + (count / 500);
+            long   bound = keyCount == 0 ? 1000000000 : keyCount;
+
+            int[] offsets = new int[segments + 1];
+            for(int i = first; i < first + count; i++) {
+                offsets[(int) ((long) array[i].getKey() * segments / bound) + 1]++;
+            }
+            offsets[0] = first;
+            for(int segment = 1; segment <= segments; segment++) {
+                offsets[segment] += offsets[segment - 1];
+            }
+
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            int[] next = Arrays.copyOf(offsets, segments);
+            for(GrailPair row : rows) {
+                array[next[(int) ((long) row.getKey() * segments / bound)]++] = row;
+            }
+
+            new GrailSort<>(test).grailSortSegmented(array, offsets, pool);
+        });
+        this.checkEntryPoint(start, length, keyCount, "Grailsort, stepped a few units at a time", test, (array, first, count) -> {
+            GrailSort.GrailStepper<GrailPair> stepper = new GrailSort<>(test).grailSortStepper(array, first, count);
+            while(!stepper.stepUnits(7));
+        });
+        this.checkEntryPoint(start, length, keyCount, "Grailsort, stepped for 0.1ms at a time", test, (array, first, count) -> {
+            GrailSort.GrailStepper<GrailPair> stepper = new GrailSort<>(test).grailSortStepper(array, first, count);
+            while(!stepper.step(100000));
+        });
+
+        this.checkEntryPoint(start, length, keyCount, "Specialized Grailsort w/o External Buffer", test,
+                             GrailSpecializer.specialize(test)::grailSortInPlace);
+        this.checkEntryPoint(start, length, keyCount, "Specialized Grailsort w/ O(1) Buffer", test,
+                             GrailSpecializer.specialize(test)::grailSortStaticOOP);
+        this.checkEntryPoint(start, length, keyCount, "Specialized Grailsort w/ O(sqrt n) Buffer", test,
+                             GrailSpecializer.specialize(test)::grailSortDynamicOOP);
+
+        this.checkEntryPoint(start, length, keyCount, "Grailsort, RandomAccess list", test, (array, first, count) -> {
+            new GrailSort<>(test).grailSortList(Arrays.asList(array).subList(first, first + count));
+        });
+        this.checkEntryPoint(start, length, keyCount, "Grailsort, LinkedList", test, (array, first, count) -> {
+            List<GrailPair> list = new LinkedList<>(Arrays.asList(array).subList(first, first + count));
+            new GrailSort<>(test).grailSortList(list);
+            System.arraycopy(list.toArray(new GrailPair[0]), 0, array, first, count);
+        });
+        this.checkEntryPoint(start, length, keyCount, "ListSortable", test, (array, first, count) -> {
+            new ListSortable<>(Arrays.asList(array), test).sort(first, count);
+        });
+        this.checkEntryPoint(start, length, keyCount, "BigArraySortable", test, (array, first, count) -> {
+            BigArray<GrailPair> bigArray = new BigArray<>(first + count);
+            for(int i = 0; i < first + count; i++) {
+                bigArray.set(i, array[i]);
+            }
+            new BigArraySortable<>(bigArray, test).sort(first, count);
+            for(int i = 0; i < first + count; i++) {
+                array[i] = bigArray.get(i);
+            }
+        });
+
+        this.checkEntryPoint(start, length, keyCount, "GrailArgsort, objects", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            int[] order = GrailArgsort.argsort(rows, test);
+            for(int i = 0; i < count; i++) {
+                array[first + i] = rows[order[i]];
+            }
+        });
+        this.checkEntryPoint(start, length, keyCount, "GrailArgsort, int keys", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            int[] order = GrailArgsort.argsort(intKeys(rows));
+            for(int i = 0; i < count; i++) {
+                array[first + i] = rows[order[i]];
+            }
+        });
+        this.checkEntryPoint(start, length, keyCount, "GrailArgsort, long keys", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            int[] order = GrailArgsort.argsort(longKeys(rows));
+            for(int i = 0; i < count; i++) {
+                array[first + i] = rows[order[i]];
+            }
+        });
+        this.checkEntryPoint(start, length, keyCount, "GrailArgsort, double keys", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            int[] order = GrailArgsort.argsort(doubleKeys(rows, keyCount));
+            for(int i = 0; i < count; i++) {
+                array[first + i] = rows[order[i]];
+            }
+        });
+        // Sorting by value, then by key, ends up in the same order as a stable sort by key
+        this.checkEntryPoint(start, length, keyCount, "GrailArgsort, int keys, after int values", test, (array, first, count) -> {
+            GrailPair[] rows = Arrays.copyOfRange(array, first, first + count);
+            int[] values = new int[count];
+            for(int i = 0; i < count; i++) {
+                values[i] = rows[i].getValue();
+            }
+            int[] order = GrailArgsort.argsort(values);
+            GrailArgsort.argsort(intKeys(rows), order);
+            for(int i = 0; i < count; i++) {
+                array[first + i] = rows[order[i]];
+            }
+        });
+    }
+
+    // Partial sorts only have to match Arrays.sort for the first 'sortedLen' items. The rest just have
+    // to be the same items as before, in any order.
+    private void checkPartialSort(int start, int length, int keyCount, int sortedLen, String name, GrailComparator test, EntryPoint entryPoint) throws Exception {
+        this.generateTestArray(start, length, keyCount);
+        this.referenceArray = Arrays.copyOf(this.keyArray, start + length);
+
+        System.out.println("\n* " + name + " \n* start = " + start + ", length = " + length + ", unique items = " + keyCount);
+
+        long begin = System.nanoTime();
+        entryPoint.sort(this.keyArray, start, length);
+        long time = System.nanoTime() - begin;
+
+        System.out.print("- Sorted in " + time * 1e-6d + "ms...");
+        Arrays.sort(this.referenceArray, start, start + length, test);
+
+        Set<GrailPair> rest = Collections.newSetFromMap(new IdentityHashMap<>());
+        rest.addAll(Arrays.asList(this.referenceArray).subList(start + sortedLen, start + length));
+
+        boolean success = this.testEntryPoint(start, sortedLen, test);
+        for(int i = start + sortedLen; i < start + length && success; i++) {
+            if(!rest.remove(this.keyArray[i])) {
+                this.failReason = "testArray[" + i + "] is not one of the items left unsorted\n";
+                success = false;
+            }
+        }
+        if(success) {
+            System.out.print(" and the sort was successful!\n");
+        }
+        else {
+            System.out.print(" but the sort was NOT successful!!\nReason: " + this.failReason);
+            throw new Exception();
+        }
+
+        Arrays.fill(this.keyArray,       0, start + length, null);
+        Arrays.fill(this.valueArray,     null);
+        Arrays.fill(this.referenceArray, null);
+    }
+
+    // Partial sorts of none, one, all but one, and all of the items, plus a few in between. With
+    // few unique items, nearly every item ties with the k-th smallest one, and has to lose to it.
+    private void checkPartialSorts(int start, int length, int keyCount, GrailComparator test) throws Exception {
+        GrailSort<GrailPair> grail = new GrailSort<>(test);
+
+        int[] ks = { 0, 1, 2, (int) Math.sqrt(length), length / 2, length - 1, length };
+        for(int k : ks) {
+            this.checkPartialSort(start, length, keyCount, k, "Grailsort, partial sort of the first " + k + " items", test, (array, first, count) -> {
+                grail.grailPartialSort(array, first, count, k);
+            });
+        }
+        for(int k : ks) {
+            int index = Math.min(k, length - 1);
+            this.checkPartialSort(start, length, keyCount, index + 1, "Grailsort, nth element " + index, test, (array, first, count) -> {
+                GrailPair nth = grail.grailNthElement(array, first, count, index);
+                if(nth != array[first + index]) {
+                    System.out.print(" but it didn't return the item it put at the index!!\n");
+                    throw new Exception();
+                }
+            });
+        }
+    }
+
+    // Merges of two subarrays that Arrays.sort sorted first, which a stable merge has to leave just like
+    // a stable sort of both would. With fewer unique items than grailMerge wants for keys, it falls
+    // back to rotation merges; with one side about as short as the keys, it lazy merges.
+    private void checkMerges(int start, int length, int keyCount, GrailComparator test) throws Exception {
+        GrailSort<GrailPair> grail = new GrailSort<>(test);
+
+        int blockLen = 1;
+        while(((long) blockLen * blockLen) < length) {
+            blockLen *= 2;
+        }
+        int idealKeys = ((length - 1) / blockLen) + 1 + blockLen;
+
+        int[] leftLens = IntStream.of(0, 1, 2, (int) Math.sqrt(length), idealKeys, idealKeys + 1, length / 2,
+                                      length - idealKeys - 1, length - idealKeys, length - 1, length)
+                                  .filter(leftLen -> leftLen >= 0 && leftLen <= length).distinct().toArray();
+
+        for(int leftLen : leftLens) {
+            this.checkEntryPoint(start, length, keyCount, "Grailsort, merge of " + leftLen + " and " + (length - leftLen) + " items", test, (array, first, count) -> {
+                Arrays.sort(array, first, first + leftLen, test);
+                Arrays.sort(array, first + leftLen, first + count, test);
+                grail.grailMerge(array, first, leftLen, count - leftLen);
+            });
+        }
+    }
+
+    // Every rotation has to leave A and B swapped, and report what it did to GrailMetrics:
+    // Gries-Mills makes one swap for each item not already in place, and triple reversal one for
+    // each pair of items it reverses. Whatever the algorithm, every misplaced item has to be written.
+    private static void checkRotations() throws Exception {
+        int[][] rotations = { { 3, 7 }, { 7, 3 }, { 1, 9 }, { 9, 1 }, { 5, 5 }, { 100, 924 }, { 600, 1400 } };
+
+        for(GrailRotation rotation : GrailRotation.values()) {
+            for(int[] lengths : rotations) {
+                int  leftLen = lengths[0];
+                int rightLen = lengths[1];
+                int   length = leftLen + rightLen;
+                int      gcd = BigInteger.valueOf(leftLen).gcd(BigInteger.valueOf(rightLen)).intValue();
+
+                Integer[] array = new Integer[length];
+                for(int i = 0; i < length; i++) {
+                    array[i] = i;
+                }
+
+                GrailMetrics metrics = new GrailMetrics();
+                rotation.rotate(array, 0, leftLen, rightLen, null, 0, metrics);
+
+                System.out.print("\n* " + rotation + " rotation of " + leftLen + " and " + rightLen + " items\n");
+
+                String failReason = null;
+                for(int i = 0; i < length; i++) {
+                    if(array[i] != (i + leftLen) % length) {
+                        failReason = "the items at index " + i + " and after weren't rotated into place";
+                        break;
+                    }
+                }
+                if(failReason == null) {
+                    long expectedSwaps = -1;
+                    if(rotation == GrailRotation.GRIES_MILLS) {
+                        expectedSwaps = length - gcd;
+                    }
+                    else if(rotation == GrailRotation.TRIPLE_REVERSAL) {
+                        expectedSwaps = (leftLen / 2) + (rightLen / 2) + (length / 2);
+                    }
+
+                    if(expectedSwaps != -1 && metrics.getSwaps() != expectedSwaps) {
+                        failReason = metrics.getSwaps() + " swaps were counted instead of " + expectedSwaps;
+                    }
+                    else if(metrics.getWrites() < length - gcd) {
+                        failReason = "only " + metrics.getWrites() + " writes were counted";
+                    }
+                }
+
+                if(failReason == null) {
+                    System.out.print("- " + metrics.getSwaps() + " swaps, " + metrics.getBlockSwaps() + " block swaps and "
+                                     + metrics.getWrites() + " writes counted... and the rotation was successful!\n");
+                }
+                else {
+                    System.out.print("- The rotation was NOT successful!!\nReason: " + failReason);
+                    throw new Exception();
+                }
+            }
+        }
+    }
+
+    private void checkEntryPoints(GrailComparator test) throws Exception {
+        // A pool of its own, so that parallel sorts are split up even on a single core
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            checkRotations();
+
+            for(int[] entryPointTest : ENTRY_POINT_TESTS) {
+                int    start = entryPointTest[0];
+                int   length = entryPointTest[1];
+                int keyCount = entryPointTest[2];
+
+                this.checkPrimitiveSorts(start, length, keyCount, test);
+                this.checkObjectSorts(start, length, keyCount, test, pool);
+                this.checkCosort(start, length, keyCount, test);
+                this.checkPrefixSort(start, length, keyCount, test);
+                this.checkPartialSorts(start, length, keyCount, test);
+                this.checkMerges(start, length, keyCount, test);
+            }
+        }
+        finally {
+            pool.shutdown();
+        }
+    }
+
     private void checkBoth(int start, int length, int keyCount, String grailStrategy, GrailComparator test) throws Exception {
         int tempSeed = this.seed;
         if(!grailStrategy.equals("Opti.Gnome")) {
@@ -306,6 +1130,10 @@ public class Tester {
             testClass.checkBoth(       7,        8,        4, "Opti.Gnome", testCompare);
             testClass.checkBoth(       0,       15,        8, "Opti.Gnome", testCompare);
             testClass.checkBoth(       0,       15,        4, "Opti.Gnome", testCompare);
+
+            System.out.println("\n*** Testing every other entry point against Arrays.sort ***");
+
+            testClass.checkEntryPoints(testCompare);
             
             System.out.println("\nAll tests passed successfully!!");
         }
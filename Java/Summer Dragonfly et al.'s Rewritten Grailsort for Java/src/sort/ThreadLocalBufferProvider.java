@@ -0,0 +1,89 @@
+package sort;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/*
+ * MIT License
+ * 
+ * Copyright (c) 2013 Andrey Astrelin
+ * Copyright (c) 2020-2021 The Holy Grail Sort Project
+ * 
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ * 
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ * 
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+/*
+ * The Holy Grail Sort Project
+ * Project Manager:      Summer Dragonfly
+ * Project Contributors: 666666t
+ *                       Anonymous0726
+ *                       aphitorite
+ *                       Control
+ *                       dani_dlg
+ *                       DeveloperSort
+ *                       EilrahcF
+ *                       Enver
+ *                       Gaming32
+ *                       lovebuny
+ *                       Morwenn
+ *                       MP
+ *                       phoenixbound
+ *                       Spex_guy
+ *                       thatsOven
+ *                       _fluffyy
+ *
+ * Special thanks to "The Studio" Discord community!
+ */
+
+// Keeps one external buffer per thread, so threads that sort over and over -- say, while
+// handling requests -- only allocate when they need a longer buffer or a different
+// component type than last time.
+
+final public class ThreadLocalBufferProvider implements GrailBufferProvider {
+    private final ThreadLocal<Object[]> cache = new ThreadLocal<>();
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <K> K[] acquire(K[] array, int length) {
+        Object[] buffer = this.cache.get();
+
+        if(buffer != null) {
+            // Take the buffer out of the cache while it's in use, in case another sort
+            // starts on this thread before this one is done (e.g. from a comparator)
+            this.cache.set(null);
+
+            if(buffer.getClass() == array.getClass() && buffer.length >= length) {
+                return (K[]) buffer;
+            }
+        }
+
+        return (K[]) Array.newInstance(array.getClass().getComponentType(), length);
+    }
+
+    @Override
+    public <K> void release(K[] buffer) {
+        // Don't keep the sorted items reachable for as long as the thread lives
+        Arrays.fill(buffer, null);
+
+        Object[] cached = this.cache.get();
+        if(cached == null || cached.length < buffer.length) {
+            this.cache.set(buffer);
+        }
+    }
+}